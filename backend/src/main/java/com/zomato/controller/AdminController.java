@@ -0,0 +1,202 @@
+package com.zomato.controller;
+
+import com.zomato.dto.DispatchResult;
+import com.zomato.dto.EarningStatement;
+import com.zomato.dto.EarningsRunResult;
+import com.zomato.dto.OrderArchiveResult;
+import com.zomato.dto.PurchaseIndexStats;
+import com.zomato.dto.RatingReconcileResult;
+import com.zomato.dto.ReadModelCheckResult;
+import com.zomato.dto.RecommendationRebuildResult;
+import com.zomato.dto.RestaurantEtaStats;
+import com.zomato.dto.RetryStats;
+import com.zomato.entity.EarningPeriod;
+import com.zomato.service.KitchenAdmissionService;
+import com.zomato.service.OrderArchiveService;
+import com.zomato.service.OrderViewService;
+import com.zomato.service.PurchaseIndex;
+import com.zomato.service.RestaurantRatingService;
+import com.zomato.service.counter.CounterService;
+import com.zomato.service.delivery.DeliveryEarningService;
+import com.zomato.service.delivery.DispatchService;
+import com.zomato.service.eta.EtaEngine;
+import com.zomato.service.popularity.AlsoOrderedService;
+import com.zomato.service.retry.TransactionRetryAspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private KitchenAdmissionService kitchenAdmissionService;
+
+    @Autowired
+    private EtaEngine etaEngine;
+
+    @Autowired
+    private TransactionRetryAspect transactionRetryAspect;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private DeliveryEarningService deliveryEarningService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private RestaurantRatingService restaurantRatingService;
+
+    @Autowired
+    private PurchaseIndex purchaseIndex;
+
+    @Autowired
+    private AlsoOrderedService alsoOrderedService;
+
+    @PostMapping("/read-model/orders/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Long>> rebuildOrderReadModel() {
+        long rebuilt = orderViewService.rebuildAll();
+        return ResponseEntity.ok(Map.of("rebuilt", rebuilt));
+    }
+
+    @PostMapping("/read-model/orders/check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReadModelCheckResult> checkOrderReadModel() {
+        ReadModelCheckResult result = orderViewService.checkConsistency();
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/read-model/orders/check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReadModelCheckResult> getLastOrderReadModelCheck() {
+        ReadModelCheckResult result = orderViewService.getLastCheck();
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/archive/orders")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderArchiveResult> archiveOrders() {
+        OrderArchiveResult result = orderArchiveService.archive();
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/archive/orders")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderArchiveResult> getLastOrderArchiveRun() {
+        OrderArchiveResult result = orderArchiveService.getLastRun();
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/kitchen/load")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<Long, Long>> getKitchenLoad() {
+        return ResponseEntity.ok(kitchenAdmissionService.getLoad());
+    }
+
+    @GetMapping("/eta/restaurants/{restaurantId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestaurantEtaStats> getRestaurantEtaStats(@PathVariable Long restaurantId) {
+        return ResponseEntity.ok(etaEngine.getStats(restaurantId));
+    }
+
+    @GetMapping("/transactions/retries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RetryStats>> getTransactionRetryStats() {
+        return ResponseEntity.ok(transactionRetryAspect.getStats());
+    }
+
+    @PostMapping("/dispatch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DispatchResult> runDispatch() {
+        return ResponseEntity.ok(dispatchService.dispatch());
+    }
+
+    @GetMapping("/dispatch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DispatchResult> getLastDispatch() {
+        return ResponseEntity.ok(dispatchService.getLastRun());
+    }
+
+    @PostMapping("/earnings")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EarningsRunResult> runEarnings() {
+        return ResponseEntity.ok(deliveryEarningService.run());
+    }
+
+    @GetMapping("/earnings")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EarningsRunResult> getLastEarningsRun() {
+        return ResponseEntity.ok(deliveryEarningService.getLastRun());
+    }
+
+    @GetMapping("/earnings/partners/{partnerId}/statements")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EarningStatement>> getPartnerStatements(
+            @PathVariable Long partnerId,
+            @RequestParam(defaultValue = "DAILY") EarningPeriod period,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(deliveryEarningService.getStatements(partnerId, period, from, to));
+    }
+
+    @PostMapping("/counters/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, String>> reconcileCounters() {
+        counterService.reconcile();
+        return ResponseEntity.ok(Map.of("message", "Counters reconciled"));
+    }
+
+    @PostMapping("/ratings/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RatingReconcileResult> reconcileRatings() {
+        return ResponseEntity.ok(restaurantRatingService.reconcile());
+    }
+
+    @GetMapping("/ratings/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RatingReconcileResult> getLastRatingReconcile() {
+        return ResponseEntity.ok(restaurantRatingService.getLastReconcile());
+    }
+
+    @PostMapping("/purchases/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PurchaseIndexStats> rebuildPurchaseIndex() {
+        return ResponseEntity.ok(purchaseIndex.rebuild());
+    }
+
+    @GetMapping("/purchases")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PurchaseIndexStats> getPurchaseIndexStats() {
+        return ResponseEntity.ok(purchaseIndex.getStats());
+    }
+
+    @PostMapping("/recommendations/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecommendationRebuildResult> rebuildRecommendations() {
+        return ResponseEntity.ok(alsoOrderedService.rebuild());
+    }
+
+    @GetMapping("/recommendations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecommendationRebuildResult> getLastRecommendationRebuild() {
+        return ResponseEntity.ok(alsoOrderedService.getLastRebuild());
+    }
+}
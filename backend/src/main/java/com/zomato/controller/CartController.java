@@ -0,0 +1,71 @@
+package com.zomato.controller;
+
+import com.zomato.dto.AlsoOrderedItem;
+import com.zomato.dto.CartItemRequest;
+import com.zomato.dto.CartResponse;
+import com.zomato.dto.CheckoutRequest;
+import com.zomato.entity.Order;
+import com.zomato.service.cart.CartService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cart")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('USER')")
+public class CartController {
+
+    @Autowired
+    private CartService cartService;
+
+    @GetMapping
+    public ResponseEntity<CartResponse> getCart() {
+        return ResponseEntity.ok(cartService.getCart());
+    }
+
+    @GetMapping("/also-ordered")
+    public ResponseEntity<List<AlsoOrderedItem>> getAlsoOrdered(@RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(cartService.getAlsoOrdered(Math.max(0, Math.min(limit, 20))));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<CartResponse> addItem(@Valid @RequestBody CartItemRequest request) {
+        return ResponseEntity.ok(cartService.addItem(request));
+    }
+
+    @PutMapping("/items/{menuItemId}")
+    public ResponseEntity<CartResponse> updateQuantity(@PathVariable Long menuItemId, @RequestParam int quantity) {
+        return ResponseEntity.ok(cartService.updateQuantity(menuItemId, quantity));
+    }
+
+    @DeleteMapping("/items/{menuItemId}")
+    public ResponseEntity<CartResponse> removeItem(@PathVariable Long menuItemId) {
+        return ResponseEntity.ok(cartService.removeItem(menuItemId));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<CartResponse> clearCart() {
+        return ResponseEntity.ok(cartService.clearCart());
+    }
+
+    @PutMapping("/coupon")
+    public ResponseEntity<CartResponse> applyCoupon(@RequestParam String code) {
+        return ResponseEntity.ok(cartService.applyCoupon(code));
+    }
+
+    @DeleteMapping("/coupon")
+    public ResponseEntity<CartResponse> removeCoupon() {
+        return ResponseEntity.ok(cartService.removeCoupon());
+    }
+
+    @PostMapping("/checkout")
+    public ResponseEntity<Order> checkout(@Valid @RequestBody CheckoutRequest request) {
+        Order order = cartService.checkout(request);
+        return ResponseEntity.ok(order);
+    }
+}
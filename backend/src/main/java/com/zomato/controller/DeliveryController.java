@@ -0,0 +1,94 @@
+package com.zomato.controller;
+
+import com.zomato.dto.EarningStatement;
+import com.zomato.dto.EarningTotals;
+import com.zomato.dto.LocationBatchRequest;
+import com.zomato.dto.LocationPing;
+import com.zomato.dto.NearbyPartner;
+import com.zomato.dto.OrderDocument;
+import com.zomato.dto.OrderTrack;
+import com.zomato.entity.DeliveryPartner;
+import com.zomato.entity.DeliveryStatus;
+import com.zomato.entity.EarningPeriod;
+import com.zomato.service.delivery.DeliveryPartnerService;
+import com.zomato.service.delivery.OrderTrackService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/delivery")
+@CrossOrigin(origins = "*")
+public class DeliveryController {
+
+    @Autowired
+    private DeliveryPartnerService deliveryPartnerService;
+
+    @Autowired
+    private OrderTrackService orderTrackService;
+
+    @PostMapping("/location")
+    @PreAuthorize("hasRole('DELIVERY_PARTNER')")
+    public ResponseEntity<Map<String, Boolean>> recordLocation(@Valid @RequestBody LocationPing ping) {
+        boolean accepted = deliveryPartnerService.recordLocation(ping);
+        return ResponseEntity.accepted().body(Map.of("accepted", accepted));
+    }
+
+    @PostMapping("/locations")
+    @PreAuthorize("hasRole('DELIVERY_PARTNER')")
+    public ResponseEntity<Map<String, Integer>> recordLocations(@Valid @RequestBody LocationBatchRequest request) {
+        int accepted = deliveryPartnerService.recordLocations(request.getLocations());
+        return ResponseEntity.accepted().body(Map.of("accepted", accepted));
+    }
+
+    @PutMapping("/status")
+    @PreAuthorize("hasRole('DELIVERY_PARTNER')")
+    public ResponseEntity<Map<String, Object>> updateStatus(@RequestParam DeliveryStatus status) {
+        DeliveryPartner partner = deliveryPartnerService.updateStatus(status);
+        return ResponseEntity.ok(Map.of("partnerId", partner.getId(), "status", partner.getStatus()));
+    }
+
+    @GetMapping("/orders")
+    @PreAuthorize("hasRole('DELIVERY_PARTNER')")
+    public ResponseEntity<List<OrderDocument>> getAssignedOrders() {
+        return ResponseEntity.ok(deliveryPartnerService.getAssignedOrders());
+    }
+
+    @GetMapping("/orders/{orderId}/track")
+    public ResponseEntity<OrderTrack> getOrderTrack(@PathVariable Long orderId) {
+        return ResponseEntity.ok(orderTrackService.getTrack(orderId));
+    }
+
+    @GetMapping("/earnings/statements")
+    @PreAuthorize("hasRole('DELIVERY_PARTNER')")
+    public ResponseEntity<List<EarningStatement>> getStatements(
+            @RequestParam(defaultValue = "DAILY") EarningPeriod period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(period == EarningPeriod.DAILY ? 30 : 12 * 7);
+        return ResponseEntity.ok(deliveryPartnerService.getStatements(period, start, end));
+    }
+
+    @GetMapping("/earnings/totals")
+    @PreAuthorize("hasRole('DELIVERY_PARTNER')")
+    public ResponseEntity<EarningTotals> getTotals() {
+        return ResponseEntity.ok(deliveryPartnerService.getTotals());
+    }
+
+    @GetMapping("/partners/nearby")
+    @PreAuthorize("hasRole('RESTAURANT') or hasRole('ADMIN')")
+    public ResponseEntity<List<NearbyPartner>> findNearby(@RequestParam double lat, @RequestParam double lng,
+                                                          @RequestParam(defaultValue = "5") double radiusKm,
+                                                          @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(deliveryPartnerService.findNearby(lat, lng, Math.min(radiusKm, 50),
+                Math.max(1, Math.min(limit, 50))));
+    }
+}
@@ -1,14 +1,21 @@
 package com.zomato.controller;
 
+import com.zomato.dto.BulkStatusResult;
+import com.zomato.dto.BulkStatusUpdateRequest;
+import com.zomato.dto.OrderDocument;
+import com.zomato.dto.OrderFeedResponse;
+import com.zomato.dto.OrderSummaryPage;
 import com.zomato.dto.PlaceOrderRequest;
 import com.zomato.entity.Order;
 import com.zomato.entity.OrderStatus;
 import com.zomato.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -29,25 +36,58 @@ public class OrderController {
 
     @GetMapping("/my-orders")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Order>> getUserOrders() {
-        List<Order> orders = orderService.getUserOrders();
+    public ResponseEntity<List<OrderDocument>> getUserOrders(@RequestParam(required = false) Long before,
+                                                             @RequestParam(defaultValue = "50") int size) {
+        List<OrderDocument> orders = orderService.getUserOrders(before, size);
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/my-orders/page")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<OrderSummaryPage> getUserOrderSummaries(@RequestParam(required = false) Long before,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        OrderSummaryPage page = orderService.getUserOrderSummaries(before, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{orderId}")
     @PreAuthorize("hasRole('USER') or hasRole('RESTAURANT') or hasRole('DELIVERY_PARTNER')")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long orderId) {
-        Order order = orderService.getOrderById(orderId);
+    public ResponseEntity<OrderDocument> getOrderById(@PathVariable Long orderId) {
+        OrderDocument order = orderService.getOrderById(orderId);
         return ResponseEntity.ok(order);
     }
 
+    @GetMapping(value = "/{orderId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('RESTAURANT') or hasRole('DELIVERY_PARTNER')")
+    public SseEmitter streamOrder(@PathVariable Long orderId) {
+        return orderService.streamOrder(orderId);
+    }
+
+    @GetMapping(value = "/restaurant/{restaurantId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('RESTAURANT') or hasRole('ADMIN')")
+    public SseEmitter streamRestaurantOrders(@PathVariable Long restaurantId) {
+        return orderService.streamRestaurantOrders(restaurantId);
+    }
+
     @GetMapping("/restaurant/{restaurantId}")
     @PreAuthorize("hasRole('RESTAURANT') or hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getRestaurantOrders(@PathVariable Long restaurantId) {
-        List<Order> orders = orderService.getRestaurantOrders(restaurantId);
+    public ResponseEntity<List<OrderDocument>> getRestaurantOrders(@PathVariable Long restaurantId,
+                                                                   @RequestParam(required = false) Long before,
+                                                                   @RequestParam(defaultValue = "50") int size) {
+        List<OrderDocument> orders = orderService.getRestaurantOrders(restaurantId, before, size);
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/restaurant/{restaurantId}/feed")
+    @PreAuthorize("hasRole('RESTAURANT') or hasRole('ADMIN')")
+    public ResponseEntity<OrderFeedResponse> getRestaurantFeed(@PathVariable Long restaurantId,
+                                                               @RequestParam(required = false) List<OrderStatus> status,
+                                                               @RequestParam(required = false) Long since,
+                                                               @RequestParam(defaultValue = "100") int limit) {
+        OrderFeedResponse feed = orderService.getRestaurantFeed(restaurantId, status, since, limit);
+        return ResponseEntity.ok(feed);
+    }
+
     @PutMapping("/{orderId}/accept")
     @PreAuthorize("hasRole('RESTAURANT')")
     public ResponseEntity<Order> acceptOrder(@PathVariable Long orderId) {
@@ -84,4 +124,11 @@ public class OrderController {
         Order order = orderService.updateOrderStatus(orderId, status, notes);
         return ResponseEntity.ok(order);
     }
+
+    @PutMapping("/status")
+    @PreAuthorize("hasRole('RESTAURANT')")
+    public ResponseEntity<List<BulkStatusResult>> updateOrderStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        List<BulkStatusResult> results = orderService.updateOrderStatuses(request);
+        return ResponseEntity.ok(results);
+    }
 }
@@ -1,12 +1,17 @@
 package com.zomato.controller;
 
+import com.zomato.dto.FeedRestaurant;
 import com.zomato.dto.MenuCategoryRequest;
 import com.zomato.dto.MenuItemRequest;
+import com.zomato.dto.NearbyRestaurant;
 import com.zomato.dto.RestaurantRequest;
+import com.zomato.dto.TrendingDish;
 import com.zomato.entity.MenuCategory;
 import com.zomato.entity.MenuItem;
 import com.zomato.entity.Restaurant;
 import com.zomato.service.RestaurantService;
+import com.zomato.service.popularity.TrendingService;
+import com.zomato.service.ranking.FeedService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +28,12 @@ public class RestaurantController {
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private FeedService feedService;
+
     @GetMapping("/public/all")
     public ResponseEntity<List<Restaurant>> getAllRestaurants() {
         List<Restaurant> restaurants = restaurantService.getAllRestaurants();
@@ -47,6 +58,30 @@ public class RestaurantController {
         return ResponseEntity.ok(restaurants);
     }
 
+    @GetMapping("/public/nearby")
+    public ResponseEntity<List<NearbyRestaurant>> findNearby(@RequestParam double lat, @RequestParam double lng,
+                                                             @RequestParam(defaultValue = "7") double radiusKm,
+                                                             @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(restaurantService.findNearby(lat, lng, Math.min(radiusKm, 30),
+                Math.max(1, Math.min(limit, 200))));
+    }
+
+    @GetMapping("/public/trending")
+    public ResponseEntity<List<TrendingDish>> getTrendingDishes(@RequestParam String city,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingService.getTrending(city, Math.max(1, limit)));
+    }
+
+    @GetMapping("/feed")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<FeedRestaurant>> getFeed(@RequestParam(required = false) Double lat,
+                                                        @RequestParam(required = false) Double lng,
+                                                        @RequestParam(defaultValue = "15") double radiusKm,
+                                                        @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(feedService.getFeed(lat, lng, Math.min(radiusKm, 30),
+                Math.max(1, Math.min(limit, 200))));
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('RESTAURANT') or hasRole('ADMIN')")
     public ResponseEntity<Restaurant> createRestaurant(@Valid @RequestBody RestaurantRequest request) {
@@ -1,14 +1,24 @@
 package com.zomato.controller;
 
+import com.zomato.dto.ReviewImage;
+import com.zomato.dto.ReviewPage;
 import com.zomato.dto.ReviewRequest;
 import com.zomato.entity.Review;
+import com.zomato.service.ReviewImageStore;
 import com.zomato.service.ReviewService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -19,6 +29,9 @@ public class ReviewController {
     @Autowired
     private ReviewService reviewService;
 
+    @Autowired
+    private ReviewImageStore reviewImageStore;
+
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Review> createReview(@Valid @RequestBody ReviewRequest request) {
@@ -26,12 +39,59 @@ public class ReviewController {
         return ResponseEntity.ok(review);
     }
 
+    // Raw image body rather than multipart, so the upload is streamed to disk as it arrives
+    @PostMapping(value = "/images", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ReviewImage> uploadImage(InputStream body) {
+        return ResponseEntity.ok(reviewImageStore.store(body));
+    }
+
+    @GetMapping("/public/images/{name}")
+    public ResponseEntity<Resource> getImage(@PathVariable String name) {
+        Path image = reviewImageStore.find(name);
+        if (image == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Content-addressed, so never changes
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .contentType(MediaType.parseMediaType(ReviewImageStore.contentType(name)))
+                .body(new FileSystemResource(image));
+    }
+
+    @GetMapping("/public/images/{name}/thumbnail")
+    public ResponseEntity<?> getThumbnail(@PathVariable String name) {
+        if (reviewImageStore.find(name) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Path thumbnail = reviewImageStore.findThumbnail(name);
+        if (thumbnail == null) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .contentType(MediaType.IMAGE_PNG)
+                    .body(reviewImageStore.getPlaceholder());
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .contentType(MediaType.parseMediaType(ReviewImageStore.contentType(name)))
+                .body(new FileSystemResource(thumbnail));
+    }
+
     @GetMapping("/restaurant/{restaurantId}")
     public ResponseEntity<List<Review>> getRestaurantReviews(@PathVariable Long restaurantId) {
         List<Review> reviews = reviewService.getRestaurantReviews(restaurantId);
         return ResponseEntity.ok(reviews);
     }
 
+    @GetMapping("/public/restaurant/{restaurantId}/page")
+    public ResponseEntity<ReviewPage> getRestaurantReviewPage(@PathVariable Long restaurantId,
+                                                              @RequestParam(required = false) Long before,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        ReviewPage page = reviewService.getRestaurantReviewPage(restaurantId, before, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/user")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<List<Review>> getUserReviews() {
@@ -0,0 +1,20 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlsoOrderedItem {
+
+    private Long menuItemId;
+    private String name;
+    private BigDecimal price;
+    private String imageUrl;
+    private Boolean isVegetarian;
+    private Float score; // Cosine similarity of the order sets, 0 to 1
+}
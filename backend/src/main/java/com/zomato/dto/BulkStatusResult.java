@@ -0,0 +1,17 @@
+package com.zomato.dto;
+
+import com.zomato.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusResult {
+
+    private Long orderId;
+    private Boolean updated;
+    private OrderStatus status;
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.zomato.dto;
+
+import com.zomato.entity.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty
+    @Size(max = 200)
+    private List<Long> orderIds;
+
+    @NotNull
+    private OrderStatus status;
+
+    private String notes;
+}
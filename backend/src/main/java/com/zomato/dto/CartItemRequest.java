@@ -0,0 +1,22 @@
+package com.zomato.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemRequest {
+
+    @NotNull
+    private Long menuItemId;
+
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+
+    private String specialInstructions;
+}
@@ -0,0 +1,21 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineResponse {
+
+    private Long menuItemId;
+    private String name;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+    private BigDecimal totalPrice;
+    private Boolean isAvailable;
+    private String specialInstructions;
+}
@@ -0,0 +1,28 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartResponse {
+
+    private Long restaurantId;
+    private String restaurantName;
+    private List<CartLineResponse> items = new ArrayList<>();
+    private String couponCode;
+    private BigDecimal itemsTotal;
+    private BigDecimal discountAmount;
+    private BigDecimal deliveryFee;
+    private BigDecimal taxAmount;
+    private BigDecimal finalAmount;
+    private BigDecimal minimumOrderAmount;
+    private Boolean meetsMinimumOrder;
+    private List<String> warnings = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.zomato.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutRequest {
+
+    @NotNull
+    private Long addressId;
+
+    private String paymentMethod;
+
+    private String specialInstructions;
+}
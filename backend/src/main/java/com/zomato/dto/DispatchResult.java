@@ -0,0 +1,20 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchResult {
+
+    private Integer orders;
+    private Integer planned;
+    private Integer assigned;
+    private Long planMillis;
+    private Long totalMillis;
+    private LocalDateTime finishedAt;
+}
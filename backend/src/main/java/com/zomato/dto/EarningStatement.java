@@ -0,0 +1,26 @@
+package com.zomato.dto;
+
+import com.zomato.entity.EarningPeriod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EarningStatement {
+
+    private Long deliveryPartnerId;
+    private EarningPeriod periodType;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private Integer deliveries;
+    private BigDecimal distanceKm;
+    private BigDecimal baseAmount;
+    private BigDecimal distanceAmount;
+    private BigDecimal incentiveAmount;
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,17 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EarningTotals {
+
+    private Long deliveryPartnerId;
+    private Long totalDeliveries;
+    private BigDecimal totalEarnings;
+}
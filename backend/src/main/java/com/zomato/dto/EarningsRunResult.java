@@ -0,0 +1,21 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EarningsRunResult {
+
+    private Long orders;
+    private Integer chunks;
+    private BigDecimal totalAmount;
+    private List<Long> failedOrderIds; // Skipped this run and retried by the next
+    private LocalDateTime finishedAt;
+}
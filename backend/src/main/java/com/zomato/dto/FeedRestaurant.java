@@ -0,0 +1,25 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedRestaurant {
+
+    private Long restaurantId;
+    private String name;
+    private String cuisineType;
+    private String imageUrl;
+    private BigDecimal averageRating;
+    private Integer deliveryTimeMinutes;
+    private BigDecimal costForTwo;
+    private BigDecimal deliveryFee;
+    private Double distanceKm; // Null when no location was given
+    private Boolean openNow;
+    private Float score;
+}
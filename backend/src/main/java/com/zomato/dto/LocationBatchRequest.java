@@ -0,0 +1,19 @@
+package com.zomato.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationBatchRequest {
+
+    @NotEmpty
+    @Valid
+    private List<LocationPing> locations;
+}
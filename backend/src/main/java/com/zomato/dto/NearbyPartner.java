@@ -0,0 +1,17 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyPartner {
+
+    private Long partnerId;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+    private long lastSeen;
+}
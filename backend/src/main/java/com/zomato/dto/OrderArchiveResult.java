@@ -0,0 +1,18 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderArchiveResult {
+
+    private Long archived;
+    private Integer batches;
+    private LocalDateTime cutoff;
+    private LocalDateTime finishedAt;
+}
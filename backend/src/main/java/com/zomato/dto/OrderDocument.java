@@ -0,0 +1,43 @@
+package com.zomato.dto;
+
+import com.zomato.entity.OrderStatus;
+import com.zomato.entity.PaymentMethod;
+import com.zomato.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDocument {
+
+    private Long id;
+    private String orderNumber;
+    private Long userId;
+    private Long restaurantId;
+    private String restaurantName;
+    private String restaurantImageUrl;
+    private Long deliveryPartnerId;
+    private OrderDocumentAddress deliveryAddress;
+    private BigDecimal totalPrice;
+    private BigDecimal deliveryFee;
+    private BigDecimal taxAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal finalAmount;
+    private OrderStatus status;
+    private PaymentMethod paymentMethod;
+    private PaymentStatus paymentStatus;
+    private String specialInstructions;
+    private LocalDateTime estimatedDeliveryTime;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long changeSeq;
+    private List<OrderDocumentItem> orderItems = new ArrayList<>();
+    private List<OrderDocumentStatus> statusHistory = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDocumentAddress {
+
+    private Long id;
+    private String label;
+    private String address;
+    private String landmark;
+    private String city;
+    private String state;
+    private String pincode;
+    private Double latitude;
+    private Double longitude;
+}
@@ -0,0 +1,22 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDocumentItem {
+
+    private Long id;
+    private Long menuItemId;
+    private String name;
+    private Boolean isVegetarian;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+    private String specialInstructions;
+}
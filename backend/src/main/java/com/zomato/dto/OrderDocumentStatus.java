@@ -0,0 +1,19 @@
+package com.zomato.dto;
+
+import com.zomato.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDocumentStatus {
+
+    private OrderStatus status;
+    private String changedBy;
+    private String notes;
+    private LocalDateTime createdAt;
+}
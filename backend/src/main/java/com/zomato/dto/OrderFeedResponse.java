@@ -0,0 +1,20 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFeedResponse {
+
+    // Pass back as "since" to fetch only the orders that changed afterwards
+    private Long cursor;
+
+    private Boolean hasMore;
+
+    private List<OrderDocument> orders;
+}
@@ -0,0 +1,24 @@
+package com.zomato.dto;
+
+import com.zomato.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+    private Long id;
+    private String orderNumber;
+    private Long restaurantId;
+    private String restaurantName;
+    private Integer itemCount;
+    private BigDecimal finalAmount;
+    private OrderStatus status;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryPage {
+
+    private List<OrderSummary> orders;
+
+    // Pass back as "before" to fetch the next (older) page; null on the last page
+    private Long nextCursor;
+}
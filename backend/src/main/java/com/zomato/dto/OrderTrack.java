@@ -0,0 +1,22 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTrack {
+
+    private Long orderId;
+    private Long deliveryPartnerId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private double distanceKm;
+    private List<TrackPoint> points = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseIndexStats {
+
+    private Integer userRestaurantPairs;
+    private Integer userMenuItemPairs;
+    private Long memoryBytes;
+    private Long rebuildMillis;
+    private LocalDateTime rebuiltAt;
+}
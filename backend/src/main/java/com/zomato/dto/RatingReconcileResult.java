@@ -0,0 +1,20 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingReconcileResult {
+
+    private Integer restaurantsChecked;
+    private Integer drifted;
+    private Integer repaired;
+    private List<Long> driftedRestaurantIds; // First few only
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,18 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadModelCheckResult {
+
+    private Long checked;
+    private Long drifted;
+    private Long repaired;
+    private LocalDateTime checkedAt;
+}
@@ -0,0 +1,19 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationRebuildResult {
+
+    private Integer restaurants;
+    private Long orders;
+    private Long pairs;
+    private Long durationMillis;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,20 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantEtaStats {
+
+    private Long restaurantId;
+    private Long samples;
+    private Double meanPrepMinutes;
+    private Double prepRatio;
+    private Double p90ErrorMinutes;
+    private Long kitchenLoadMinutes;
+    private Double minutesPerKm;
+    private Double pickupMinutes;
+}
@@ -0,0 +1,17 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetryStats {
+
+    private String method;
+    private Long calls;
+    private Long retries;
+    private Long recovered;
+    private Long exhausted;
+}
@@ -0,0 +1,18 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewImage {
+
+    private String name;
+    private String url; // Pass in ReviewRequest.images
+    private String thumbnailUrl; // Serves a placeholder until thumbnailReady
+    private Boolean thumbnailReady;
+    private Long sizeBytes;
+    private Boolean duplicate; // Same content was uploaded before
+}
@@ -0,0 +1,25 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPage {
+
+    // Rating header, only on the first page; covers restaurant reviews, not dish reviews
+    private BigDecimal averageRating;
+    private Integer totalReviews;
+    private Map<Integer, Integer> ratingHistogram; // Stars to number of reviews
+
+    private List<ReviewSummary> reviews;
+
+    // Pass back as "before" to fetch the next (older) page; null on the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummary {
+
+    private Long id;
+    private String reviewerName;
+    private Integer rating;
+    private String comment;
+    private List<String> images;
+    private List<String> thumbnails; // Same order as images
+    private Long menuItemId; // Set on dish reviews
+    private Boolean isVerifiedPurchase;
+    private LocalDateTime createdAt;
+}
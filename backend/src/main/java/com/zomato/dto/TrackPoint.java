@@ -0,0 +1,15 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackPoint {
+
+    private long recordedAt;
+    private double latitude;
+    private double longitude;
+}
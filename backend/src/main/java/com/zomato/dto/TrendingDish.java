@@ -0,0 +1,21 @@
+package com.zomato.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingDish {
+
+    private Long menuItemId;
+    private String name;
+    private String imageUrl;
+    private BigDecimal price;
+    private Long restaurantId;
+    private String restaurantName;
+    private Integer recentOrders; // Estimated, never below the true count
+}
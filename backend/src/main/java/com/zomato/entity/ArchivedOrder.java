@@ -0,0 +1,63 @@
+package com.zomato.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Cold copy of a finished order: the gzip-compressed order document plus the columns reads filter on.
+// The source rows in orders, order_items, order_status_history and order_views are removed on archival.
+@Entity
+@Table(name = "archived_orders", indexes = {
+        @Index(name = "idx_archived_orders_user", columnList = "user_id, order_id"),
+        @Index(name = "idx_archived_orders_restaurant", columnList = "restaurant_id, order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "order_number")
+    private String orderNumber;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "restaurant_owner_id")
+    private Long restaurantOwnerId;
+
+    @Column(name = "restaurant_name")
+    private String restaurantName;
+
+    @Column(name = "delivery_partner_id")
+    private Long deliveryPartnerId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Column(name = "item_count")
+    private Integer itemCount;
+
+    @Column(name = "final_amount", precision = 10, scale = 2)
+    private BigDecimal finalAmount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    @Lob
+    @Column(name = "document")
+    private byte[] document;
+}
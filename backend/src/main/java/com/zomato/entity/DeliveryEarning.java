@@ -10,7 +10,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "delivery_earnings")
+@Table(name = "delivery_earnings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_delivery_earnings_order", columnNames = "order_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,9 +26,9 @@ public class DeliveryEarning {
     @JoinColumn(name = "delivery_partner_id", nullable = false)
     private DeliveryPartner deliveryPartner;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
-    private Order order;
+    // A plain id, not a relation: the order moves to the archive while its earning stays
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
 
     @Column(name = "base_amount", precision = 10, scale = 2)
     private BigDecimal baseAmount;
@@ -0,0 +1,58 @@
+package com.zomato.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Pre-aggregated earnings per partner per day and per week, maintained by the earnings job in the same
+// transaction as the earning rows, so statements and payouts never have to sum delivery_earnings
+@Entity
+@Table(name = "delivery_earning_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_earning_rollups_partner_period",
+                columnNames = {"delivery_partner_id", "period_type", "period_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryEarningRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "delivery_partner_id", nullable = false)
+    private Long deliveryPartnerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period_type", nullable = false, length = 10)
+    private EarningPeriod periodType;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "deliveries")
+    private Integer deliveries;
+
+    @Column(name = "distance_km", precision = 10, scale = 2)
+    private BigDecimal distanceKm;
+
+    @Column(name = "base_amount", precision = 12, scale = 2)
+    private BigDecimal baseAmount;
+
+    @Column(name = "distance_amount", precision = 12, scale = 2)
+    private BigDecimal distanceAmount;
+
+    @Column(name = "incentive_amount", precision = 12, scale = 2)
+    private BigDecimal incentiveAmount;
+
+    @Column(name = "total_amount", precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -59,13 +59,14 @@ public class DeliveryPartner {
     @Enumerated(EnumType.STRING)
     private DeliveryStatus status;
 
-    @Column(name = "total_earnings", precision = 10, scale = 2)
+    // Totals are maintained by CounterService
+    @Column(name = "total_earnings", precision = 10, scale = 2, updatable = false)
     private BigDecimal totalEarnings = BigDecimal.ZERO;
 
     @Column(name = "rating", precision = 3, scale = 2)
     private BigDecimal rating = BigDecimal.ZERO;
 
-    @Column(name = "total_deliveries")
+    @Column(name = "total_deliveries", updatable = false)
     private Integer totalDeliveries = 0;
 
     @Column(name = "is_available")
@@ -0,0 +1,6 @@
+package com.zomato.entity;
+
+public enum EarningPeriod {
+    DAILY,
+    WEEKLY
+}
@@ -68,6 +68,10 @@ public class MenuItem {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Badge filled in from the published bestsellers when a menu is served; not stored
+    @Transient
+    private Boolean isBestseller = false;
+
     // Relationships
     @OneToMany(mappedBy = "menuItem", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
@@ -8,5 +8,21 @@ public enum OrderStatus {
     PICKED_UP,
     ON_THE_WAY,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    public boolean isTerminal() {
+        return this == DELIVERED || this == CANCELLED;
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case PENDING -> next == CONFIRMED || next == CANCELLED;
+            case CONFIRMED -> next == PREPARING || next == READY_FOR_PICKUP || next == CANCELLED;
+            case PREPARING -> next == READY_FOR_PICKUP || next == CANCELLED;
+            case READY_FOR_PICKUP -> next == PICKED_UP;
+            case PICKED_UP -> next == ON_THE_WAY || next == DELIVERED;
+            case ON_THE_WAY -> next == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
 }
@@ -0,0 +1,68 @@
+package com.zomato.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Denormalized, ready-to-serve copy of an order, written in the same transaction as the order itself
+@Entity
+@Table(name = "order_views", indexes = {
+        @Index(name = "idx_order_views_user", columnList = "user_id, order_id"),
+        @Index(name = "idx_order_views_restaurant_status", columnList = "restaurant_id, status"),
+        @Index(name = "idx_order_views_restaurant_change_seq", columnList = "restaurant_id, change_seq"),
+        @Index(name = "idx_order_views_partner_status", columnList = "delivery_partner_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderView {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "order_number")
+    private String orderNumber;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "restaurant_owner_id")
+    private Long restaurantOwnerId;
+
+    @Column(name = "restaurant_name")
+    private String restaurantName;
+
+    @Column(name = "delivery_partner_id")
+    private Long deliveryPartnerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private OrderStatus status;
+
+    @Column(name = "item_count")
+    private Integer itemCount;
+
+    @Column(name = "final_amount", precision = 10, scale = 2)
+    private BigDecimal finalAmount;
+
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Lob
+    @Column(name = "document", columnDefinition = "TEXT")
+    private String document; // JSON OrderDocument
+}
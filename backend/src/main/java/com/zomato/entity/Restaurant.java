@@ -51,12 +51,32 @@ public class Restaurant {
     @Column(name = "cuisine_type")
     private String cuisineType;
 
-    @Column(name = "average_rating", precision = 3, scale = 2)
+    // Rating aggregate over restaurant reviews, maintained by ReviewService in the review transaction
+    @Column(name = "average_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal averageRating = BigDecimal.ZERO;
 
-    @Column(name = "total_reviews")
+    @Column(name = "total_reviews", updatable = false)
     private Integer totalReviews = 0;
 
+    @Column(name = "rating_sum", updatable = false)
+    private Long ratingSum = 0L;
+
+    // Restaurant reviews per star rating
+    @Column(name = "rating_count_1", updatable = false)
+    private Integer ratingCount1 = 0;
+
+    @Column(name = "rating_count_2", updatable = false)
+    private Integer ratingCount2 = 0;
+
+    @Column(name = "rating_count_3", updatable = false)
+    private Integer ratingCount3 = 0;
+
+    @Column(name = "rating_count_4", updatable = false)
+    private Integer ratingCount4 = 0;
+
+    @Column(name = "rating_count_5", updatable = false)
+    private Integer ratingCount5 = 0;
+
     @Column(name = "delivery_time_minutes")
     private Integer deliveryTimeMinutes;
 
@@ -11,7 +11,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_restaurant_id", columnList = "restaurant_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,27 @@
+package com.zomato.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_carts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCart {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Lob
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload; // JSON snapshot of the in-memory cart
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.zomato.event;
+
+import com.zomato.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+
+    private Long orderId;
+
+    private String orderNumber;
+
+    private Long userId;
+
+    private Long restaurantId;
+
+    private OrderStatus status;
+
+    private String notes;
+
+    private Long changeSeq;
+
+    private LocalDateTime occurredAt;
+}
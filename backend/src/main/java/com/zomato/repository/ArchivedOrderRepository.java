@@ -0,0 +1,27 @@
+package com.zomato.repository;
+
+import com.zomato.dto.OrderSummary;
+import com.zomato.entity.ArchivedOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    List<ArchivedOrder> findByUserIdAndOrderIdLessThanOrderByOrderIdDesc(Long userId, Long before, Pageable pageable);
+
+    List<ArchivedOrder> findByRestaurantIdAndOrderIdLessThanOrderByOrderIdDesc(Long restaurantId, Long before,
+                                                                               Pageable pageable);
+
+    @Query("SELECT new com.zomato.dto.OrderSummary(a.orderId, a.orderNumber, a.restaurantId, a.restaurantName, " +
+           "a.itemCount, a.finalAmount, a.status, a.createdAt) " +
+           "FROM ArchivedOrder a WHERE a.userId = :userId AND a.orderId < :before ORDER BY a.orderId DESC")
+    List<OrderSummary> findUserSummaries(@Param("userId") Long userId,
+                                         @Param("before") Long before,
+                                         Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.zomato.repository;
+
+import com.zomato.entity.DeliveryEarning;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeliveryEarningRepository extends JpaRepository<DeliveryEarning, Long> {
+}
@@ -0,0 +1,16 @@
+package com.zomato.repository;
+
+import com.zomato.entity.DeliveryEarningRollup;
+import com.zomato.entity.EarningPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DeliveryEarningRollupRepository extends JpaRepository<DeliveryEarningRollup, Long> {
+
+    List<DeliveryEarningRollup> findByDeliveryPartnerIdAndPeriodTypeAndPeriodStartBetweenOrderByPeriodStartDesc(
+            Long deliveryPartnerId, EarningPeriod periodType, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,22 @@
+package com.zomato.repository;
+
+import com.zomato.entity.DeliveryPartner;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DeliveryPartnerRepository extends JpaRepository<DeliveryPartner, Long> {
+
+    Optional<DeliveryPartner> findByEmail(String email);
+
+    // Status changes lock the row so a concurrent dispatch claim is read before it is overwritten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM DeliveryPartner p WHERE p.id = :id")
+    Optional<DeliveryPartner> findForUpdateById(@Param("id") Long id);
+}
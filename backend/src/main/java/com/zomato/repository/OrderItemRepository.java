@@ -1,13 +1,38 @@
 package com.zomato.repository;
 
 import com.zomato.entity.OrderItem;
+import com.zomato.entity.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     List<OrderItem> findByOrderId(Long orderId);
+
+    @Query("SELECT oi FROM OrderItem oi JOIN FETCH oi.menuItem WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItem> findWithMenuItemByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // Rows of [orderId, restaurantId, kitchen minutes] for orders still being cooked
+    @Query("SELECT oi.order.id, oi.order.restaurant.id, " +
+           "SUM(oi.quantity * COALESCE(oi.menuItem.preparationTimeMinutes, :defaultMinutes)) " +
+           "FROM OrderItem oi WHERE oi.order.status IN :statuses GROUP BY oi.order.id, oi.order.restaurant.id")
+    List<Object[]> sumKitchenMinutesByOrder(@Param("statuses") Collection<OrderStatus> statuses,
+                                            @Param("defaultMinutes") Integer defaultMinutes);
+
+    // Rows of [orderId, menuItemId, preparationTimeMinutes]
+    @Query("SELECT oi.order.id, m.id, m.preparationTimeMinutes FROM OrderItem oi JOIN oi.menuItem m " +
+           "WHERE oi.order.createdAt >= :since")
+    List<Object[]> findPreparationTimesSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
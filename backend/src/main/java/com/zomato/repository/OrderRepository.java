@@ -1,10 +1,20 @@
 package com.zomato.repository;
 
 import com.zomato.entity.Order;
+import com.zomato.entity.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -16,4 +26,58 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByDeliveryPartnerIdOrderByCreatedAtDesc(Long deliveryPartnerId);
 
     List<Order> findByStatusOrderByCreatedAtDesc(com.zomato.entity.OrderStatus status);
+
+    @Query("SELECT MAX(o.changeSeq) FROM Order o")
+    Long findMaxChangeSeq();
+
+    @Query("SELECT o.id FROM Order o WHERE o.id > :after ORDER BY o.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT MAX(o.id) FROM Order o")
+    Long findMaxId();
+
+    @Query("SELECT o FROM Order o JOIN FETCH o.restaurant JOIN FETCH o.deliveryAddress " +
+           "LEFT JOIN FETCH o.deliveryPartner WHERE o.id IN :ids")
+    List<Order> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Status changes lock the row so a concurrent dispatch assignment is read before it is overwritten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findForUpdateById(@Param("id") Long id);
+
+    // Locked in id order so concurrent bulk updates over overlapping orders cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rows of [orderId, restaurantId, restaurant lat, restaurant lng, address lat, address lng]
+    @Query("SELECT o.id, r.id, r.latitude, r.longitude, a.latitude, a.longitude FROM Order o " +
+           "JOIN o.restaurant r JOIN o.deliveryAddress a WHERE o.createdAt >= :since")
+    List<Object[]> findLocationsSince(@Param("since") LocalDateTime since);
+
+    // Rows of [orderId, status, restaurant lat, restaurant lng] for orders still waiting for a delivery partner
+    @Query("SELECT o.id, o.status, r.latitude, r.longitude FROM Order o JOIN o.restaurant r " +
+           "WHERE o.deliveryPartner IS NULL AND o.status IN :statuses " +
+           "AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL ORDER BY o.createdAt")
+    List<Object[]> findAwaitingDispatch(@Param("statuses") Collection<OrderStatus> statuses, Pageable pageable);
+
+    // Rows of [orderId, deliveryPartnerId, createdAt] for delivered orders that have no earning yet
+    @Query("SELECT o.id, o.deliveryPartner.id, o.createdAt FROM Order o WHERE o.id > :after " +
+           "AND o.status = com.zomato.entity.OrderStatus.DELIVERED AND o.deliveryPartner IS NOT NULL " +
+           "AND NOT EXISTS (SELECT e.id FROM DeliveryEarning e WHERE e.orderId = o.id) ORDER BY o.id")
+    List<Object[]> findUnearnedDeliveries(@Param("after") Long after, Pageable pageable);
+
+    // Finished orders old enough to move to cold storage; a delivered order waits until its partner's
+    // earning has been computed, since the earnings job only reads hot orders
+    @Query("SELECT o.id FROM Order o WHERE o.id > :after AND o.status IN :statuses AND o.createdAt < :cutoff " +
+           "AND (o.status <> com.zomato.entity.OrderStatus.DELIVERED OR o.deliveryPartner IS NULL " +
+           "OR EXISTS (SELECT e.id FROM DeliveryEarning e WHERE e.orderId = o.id)) ORDER BY o.id")
+    List<Long> findArchivableIds(@Param("after") Long after,
+                                 @Param("statuses") Collection<OrderStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
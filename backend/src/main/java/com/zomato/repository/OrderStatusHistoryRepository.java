@@ -2,12 +2,32 @@ package com.zomato.repository;
 
 import com.zomato.entity.OrderStatusHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
 
     List<OrderStatusHistory> findByOrderIdOrderByCreatedAtDesc(Long orderId);
+
+    List<OrderStatusHistory> findByOrderIdInOrderByCreatedAtAscIdAsc(Collection<Long> orderIds);
+
+    // Rows of [orderId, status, createdAt] in replay order
+    @Query("SELECT h.order.id, h.status, h.createdAt FROM OrderStatusHistory h WHERE h.createdAt >= :since " +
+           "ORDER BY h.order.id, h.createdAt, h.id")
+    List<Object[]> findTimelineSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT h.order.id, h.status, h.createdAt FROM OrderStatusHistory h WHERE h.order.id IN :orderIds " +
+           "ORDER BY h.order.id, h.createdAt, h.id")
+    List<Object[]> findTimelineByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM OrderStatusHistory h WHERE h.order.id IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -0,0 +1,77 @@
+package com.zomato.repository;
+
+import com.zomato.dto.OrderSummary;
+import com.zomato.entity.OrderStatus;
+import com.zomato.entity.OrderView;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+
+    // Documents are patched read-modify-write, so patches hold the row to keep each other's changes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM OrderView v WHERE v.orderId = :orderId")
+    Optional<OrderView> findForUpdateById(@Param("orderId") Long orderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM OrderView v WHERE v.orderId IN :orderIds ORDER BY v.orderId")
+    List<OrderView> findForUpdateByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT v.document FROM OrderView v WHERE v.userId = :userId AND v.orderId < :before " +
+           "ORDER BY v.orderId DESC")
+    List<String> findUserDocuments(@Param("userId") Long userId,
+                                   @Param("before") Long before,
+                                   Pageable pageable);
+
+    @Query("SELECT v.document FROM OrderView v WHERE v.restaurantId = :restaurantId AND v.orderId < :before " +
+           "ORDER BY v.orderId DESC")
+    List<String> findRestaurantDocuments(@Param("restaurantId") Long restaurantId,
+                                         @Param("before") Long before,
+                                         Pageable pageable);
+
+    @Query("SELECT v.document FROM OrderView v WHERE v.deliveryPartnerId = :partnerId AND v.status IN :statuses " +
+           "ORDER BY v.orderId")
+    List<String> findPartnerDocuments(@Param("partnerId") Long partnerId,
+                                      @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("SELECT new com.zomato.dto.OrderSummary(v.orderId, v.orderNumber, v.restaurantId, v.restaurantName, " +
+           "v.itemCount, v.finalAmount, v.status, v.createdAt) " +
+           "FROM OrderView v WHERE v.userId = :userId AND v.orderId < :before ORDER BY v.orderId DESC")
+    List<OrderSummary> findUserSummaries(@Param("userId") Long userId,
+                                         @Param("before") Long before,
+                                         Pageable pageable);
+
+    @Query("SELECT v.document FROM OrderView v WHERE v.restaurantId = :restaurantId AND v.status IN :statuses " +
+           "ORDER BY v.orderId")
+    List<String> findRestaurantFeed(@Param("restaurantId") Long restaurantId,
+                                    @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("SELECT v.document FROM OrderView v WHERE v.restaurantId = :restaurantId AND v.changeSeq > :since " +
+           "AND v.changeSeq <= :watermark ORDER BY v.changeSeq")
+    List<String> findRestaurantFeedChanges(@Param("restaurantId") Long restaurantId,
+                                           @Param("since") Long since,
+                                           @Param("watermark") Long watermark,
+                                           Pageable pageable);
+
+    // Orders whose view is missing or lags behind the source row
+    @Query("SELECT o.id FROM Order o LEFT JOIN o.deliveryPartner p LEFT JOIN OrderView v ON v.orderId = o.id " +
+           "WHERE o.id > :after AND o.id <= :upTo AND (v.orderId IS NULL OR v.status <> o.status " +
+           "OR COALESCE(v.changeSeq, -1) <> COALESCE(o.changeSeq, -1) " +
+           "OR COALESCE(v.deliveryPartnerId, -1) <> COALESCE(p.id, -1)) ORDER BY o.id")
+    List<Long> findDriftedOrderIds(@Param("after") Long after, @Param("upTo") Long upTo);
+
+    @Modifying
+    @Query("DELETE FROM OrderView v WHERE v.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -16,6 +16,14 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
 
     List<Restaurant> findByIsVerifiedTrueAndIsActiveTrue();
 
+    @Query("SELECT r.id, r.latitude, r.longitude FROM Restaurant r WHERE r.isActive = true " +
+           "AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<Object[]> findActiveLocations();
+
+    @Query("SELECT r.averageRating, r.totalReviews, r.ratingCount1, r.ratingCount2, r.ratingCount3, r.ratingCount4, " +
+           "r.ratingCount5 FROM Restaurant r WHERE r.id = :id")
+    List<Object[]> findRatingSummary(@Param("id") Long id);
+
     @Query("SELECT r FROM Restaurant r WHERE r.isActive = true AND " +
            "(LOWER(r.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(r.cuisineType) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -1,7 +1,10 @@
 package com.zomato.repository;
 
 import com.zomato.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +15,13 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<Review> findByMenuItemIdOrderByCreatedAtDesc(Long menuItemId);
     boolean existsByUserIdAndRestaurantId(Long userId, Long restaurantId);
+
+    // Keyset page of review rows: id, reviewer name, rating, comment, images JSON, menu item id,
+    // verified purchase, created at
+    @Query("SELECT r.id, u.name, r.rating, r.comment, r.reviewImages, r.menuItem.id, r.isVerifiedPurchase, r.createdAt " +
+           "FROM Review r JOIN r.user u WHERE r.restaurant.id = :restaurantId AND r.id < :before ORDER BY r.id DESC")
+    List<Object[]> findRestaurantPage(@Param("restaurantId") Long restaurantId,
+                                      @Param("before") Long before,
+                                      Pageable pageable);
 }
 
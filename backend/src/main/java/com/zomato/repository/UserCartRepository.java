@@ -0,0 +1,9 @@
+package com.zomato.repository;
+
+import com.zomato.entity.UserCart;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserCartRepository extends JpaRepository<UserCart, Long> {
+}
@@ -0,0 +1,174 @@
+package com.zomato.service;
+
+import com.zomato.dto.OrderItemRequest;
+import com.zomato.entity.MenuItem;
+import com.zomato.entity.OrderStatus;
+import com.zomato.event.OrderEvent;
+import com.zomato.repository.OrderItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Tracks how many kitchen minutes each restaurant has in flight and turns away new orders once
+// a restaurant is over capacity. Counters are plain CAS loops, so admission never takes a lock.
+@Service
+public class KitchenAdmissionService {
+
+    // Statuses during which an order still occupies the kitchen
+    private static final EnumSet<OrderStatus> COOKING =
+            EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+
+    private record Charge(Long restaurantId, long minutes, long admittedAt) {
+    }
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Value("${app.kitchen.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.kitchen.capacity-minutes:240}")
+    private long capacityMinutes;
+
+    @Value("${app.kitchen.default-preparation-minutes:15}")
+    private int defaultPreparationMinutes;
+
+    @Value("${app.kitchen.max-hold-minutes:180}")
+    private long maxHoldMinutes;
+
+    private final Map<Long, AtomicLong> load = new ConcurrentHashMap<>();
+    private final Map<Long, Charge> charges = new ConcurrentHashMap<>();
+
+    public long weigh(List<OrderItemRequest> items, Map<Long, MenuItem> menuItems) {
+        long minutes = 0;
+        for (OrderItemRequest item : items) {
+            Integer preparation = menuItems.get(item.getMenuItemId()).getPreparationTimeMinutes();
+            minutes += (long) (preparation != null ? preparation : defaultPreparationMinutes) * item.getQuantity();
+        }
+        return minutes;
+    }
+
+    // Cheap pre-check before any order work is done
+    public void checkAccepting(Long restaurantId) {
+        if (enabled && currentLoad(restaurantId) >= capacityMinutes) {
+            throw new KitchenBusyException("Restaurant is not accepting more orders right now, please try again shortly");
+        }
+    }
+
+    // Reserves kitchen time for an order about to be written; released again if the transaction rolls back
+    public void admit(Long restaurantId, long minutes) {
+        if (!enabled) {
+            return;
+        }
+        AtomicLong counter = load.computeIfAbsent(restaurantId, id -> new AtomicLong());
+        while (true) {
+            long current = counter.get();
+            // An idle kitchen always takes the order, so one large order can never be rejected forever
+            if (current > 0 && current + minutes > capacityMinutes) {
+                throw new KitchenBusyException("Restaurant is not accepting more orders right now, please try again shortly");
+            }
+            if (counter.compareAndSet(current, current + minutes)) {
+                break;
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        counter.addAndGet(-minutes);
+                    }
+                }
+            });
+        }
+    }
+
+    // Binds an admitted reservation to its order once the placement commits
+    public void track(Long orderId, Long restaurantId, long minutes) {
+        if (!enabled) {
+            return;
+        }
+        Charge charge = new Charge(restaurantId, minutes, System.currentTimeMillis());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    charges.put(orderId, charge);
+                }
+            });
+        } else {
+            charges.put(orderId, charge);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (!COOKING.contains(event.getStatus())) {
+            release(event.getOrderId());
+        }
+    }
+
+    // Safety net for orders whose status is never advanced past the kitchen
+    @Scheduled(fixedDelayString = "${app.kitchen.sweep-interval-ms:60000}")
+    public void releaseExpired() {
+        long cutoff = System.currentTimeMillis() - maxHoldMinutes * 60_000L;
+        charges.forEach((orderId, charge) -> {
+            if (charge.admittedAt() < cutoff) {
+                release(orderId);
+            }
+        });
+    }
+
+    // Rebuilds the in-memory load from orders still in the kitchen when the application starts
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Object[] row : orderItemRepository.sumKitchenMinutesByOrder(COOKING, defaultPreparationMinutes)) {
+            Long orderId = (Long) row[0];
+            Long restaurantId = (Long) row[1];
+            long minutes = ((Number) row[2]).longValue();
+            if (charges.putIfAbsent(orderId, new Charge(restaurantId, minutes, now)) == null) {
+                load.computeIfAbsent(restaurantId, id -> new AtomicLong()).addAndGet(minutes);
+            }
+        }
+    }
+
+    public long currentLoad(Long restaurantId) {
+        AtomicLong counter = load.get(restaurantId);
+        return counter != null ? counter.get() : 0;
+    }
+
+    public Map<Long, Long> getLoad() {
+        Map<Long, Long> snapshot = new HashMap<>();
+        load.forEach((restaurantId, counter) -> {
+            if (counter.get() > 0) {
+                snapshot.put(restaurantId, counter.get());
+            }
+        });
+        return snapshot;
+    }
+
+    private void release(Long orderId) {
+        Charge charge = charges.remove(orderId);
+        if (charge != null) {
+            load.get(charge.restaurantId()).addAndGet(-charge.minutes());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.zomato.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown before any order rows are written, so a surge costs the caller one cheap rejection
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class KitchenBusyException extends RuntimeException {
+
+    public KitchenBusyException(String message) {
+        super(message);
+    }
+}
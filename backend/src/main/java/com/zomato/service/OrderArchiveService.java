@@ -0,0 +1,212 @@
+package com.zomato.service;
+
+import com.zomato.dto.OrderArchiveResult;
+import com.zomato.dto.OrderDocument;
+import com.zomato.dto.OrderDocumentItem;
+import com.zomato.dto.OrderSummary;
+import com.zomato.entity.ArchivedOrder;
+import com.zomato.entity.OrderStatus;
+import com.zomato.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Moves finished orders out of the hot tables into archived_orders in small, throttled batches.
+// Each batch is its own transaction, so locks on the hot tables are held only briefly.
+@Service
+public class OrderArchiveService {
+
+    private static final Set<OrderStatus> ARCHIVABLE = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository orderStatusHistoryRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.orders.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.orders.archive.after-days:180}")
+    private int afterDays;
+
+    @Value("${app.orders.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.orders.archive.pause-ms:250}")
+    private long pauseMs;
+
+    @Value("${app.orders.archive.max-batches-per-run:500}")
+    private int maxBatchesPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile OrderArchiveResult lastRun;
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    public OrderArchiveResult archive() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Order archival is already running");
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+            long archived = 0;
+            int batches = 0;
+            long after = 0;
+            while (batches < maxBatchesPerRun) {
+                List<Long> ids = orderRepository.findArchivableIds(after, ARCHIVABLE, cutoff,
+                        PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Integer moved = transactionTemplate.execute(status -> archiveBatch(ids));
+                archived += moved != null ? moved : 0;
+                batches++;
+                after = ids.get(ids.size() - 1);
+                if (ids.size() < batchSize) {
+                    break;
+                }
+                pause();
+            }
+            lastRun = new OrderArchiveResult(archived, batches, cutoff, LocalDateTime.now());
+            return lastRun;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public OrderArchiveResult getLastRun() {
+        return lastRun;
+    }
+
+    @Transactional(readOnly = true)
+    public ArchivedOrder find(Long orderId) {
+        return archivedOrderRepository.findById(orderId).orElse(null);
+    }
+
+    public OrderDocument read(ArchivedOrder archivedOrder) {
+        return read(archivedOrder.getDocument());
+    }
+
+    public OrderDocument read(byte[] document) {
+        return orderViewService.read(decompress(document));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDocument> getUserDocuments(Long userId, Long before, int limit) {
+        return readAll(archivedOrderRepository.findByUserIdAndOrderIdLessThanOrderByOrderIdDesc(
+                userId, before, PageRequest.of(0, limit)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDocument> getRestaurantDocuments(Long restaurantId, Long before, int limit) {
+        return readAll(archivedOrderRepository.findByRestaurantIdAndOrderIdLessThanOrderByOrderIdDesc(
+                restaurantId, before, PageRequest.of(0, limit)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderSummary> getUserSummaries(Long userId, Long before, int limit) {
+        return archivedOrderRepository.findUserSummaries(userId, before, PageRequest.of(0, limit));
+    }
+
+    private int archiveBatch(List<Long> orderIds) {
+        List<ArchivedOrder> rows = new ArrayList<>();
+        List<Long> moved = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        orderViewService.buildDocuments(orderIds, (order, document) -> {
+            // Re-checked inside the batch transaction in case the order changed since it was selected
+            if (!ARCHIVABLE.contains(order.getStatus())) {
+                return;
+            }
+            rows.add(new ArchivedOrder(order.getId(), order.getOrderNumber(), document.getUserId(),
+                    document.getRestaurantId(), order.getRestaurant().getOwnerId(), document.getRestaurantName(),
+                    document.getDeliveryPartnerId(), order.getStatus(),
+                    document.getOrderItems().stream().mapToInt(OrderDocumentItem::getQuantity).sum(),
+                    order.getFinalAmount(), order.getCreatedAt(), now,
+                    compress(orderViewService.write(document))));
+            moved.add(order.getId());
+        });
+        if (moved.isEmpty()) {
+            return 0;
+        }
+
+        archivedOrderRepository.saveAll(rows);
+        orderStatusHistoryRepository.deleteByOrderIdIn(moved);
+        orderItemRepository.deleteByOrderIdIn(moved);
+        orderViewRepository.deleteByOrderIdIn(moved);
+        orderRepository.deleteByIdIn(moved);
+        return moved.size();
+    }
+
+    private List<OrderDocument> readAll(List<ArchivedOrder> archivedOrders) {
+        List<OrderDocument> documents = new ArrayList<>(archivedOrders.size());
+        archivedOrders.forEach(archivedOrder -> documents.add(read(archivedOrder)));
+        return documents;
+    }
+
+    private void pause() {
+        // Throttle between batches so archival does not compete with live traffic for I/O and locks
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Order archival interrupted", e);
+        }
+    }
+
+    private static byte[] compress(String json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length() / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compress order document", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String decompress(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read archived order document", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.zomato.service;
+
+import com.zomato.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class OrderChangeSequence {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Sequence numbers handed out to transactions that have not finished yet
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+
+    @PostConstruct
+    public void init() {
+        Long max = orderRepository.findMaxChangeSeq();
+        sequence.set(max != null ? max : 0L);
+    }
+
+    public long next() {
+        long value = sequence.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.add(value);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(value);
+                }
+            });
+        }
+        return value;
+    }
+
+    // Highest sequence below which every change is committed (or rolled back). Feeds never
+    // return rows past it, otherwise a slow transaction could commit behind a client's cursor.
+    public long watermark() {
+        long current = sequence.get();
+        Long oldest = inFlight.isEmpty() ? null : inFlight.first();
+        return oldest != null ? Math.min(current, oldest - 1) : current;
+    }
+}
@@ -1,16 +1,39 @@
 package com.zomato.service;
 
+import com.zomato.dto.BulkStatusResult;
+import com.zomato.dto.BulkStatusUpdateRequest;
+import com.zomato.dto.OrderDocument;
+import com.zomato.dto.OrderFeedResponse;
 import com.zomato.dto.OrderItemRequest;
+import com.zomato.dto.OrderSummary;
+import com.zomato.dto.OrderSummaryPage;
 import com.zomato.dto.PlaceOrderRequest;
 import com.zomato.entity.*;
+import com.zomato.event.OrderEvent;
 import com.zomato.repository.*;
+import com.zomato.service.eta.EtaEngine;
+import com.zomato.service.eta.EtaEstimate;
+import com.zomato.service.pricing.Money;
+import com.zomato.service.pricing.PricingContext;
+import com.zomato.service.pricing.PricingEngine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -32,70 +55,138 @@ public class OrderService {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private OrderStatusHistoryRepository orderStatusHistoryRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DeliveryPartnerRepository deliveryPartnerRepository;
+
+    @Autowired
+    private OrderStreamService orderStreamService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OrderChangeSequence orderChangeSequence;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private KitchenAdmissionService kitchenAdmissionService;
+
+    @Autowired
+    private EtaEngine etaEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     public Order placeOrder(PlaceOrderRequest request) {
-        User user = userService.getCurrentUser();
+        kitchenAdmissionService.checkAccepting(request.getRestaurantId());
 
         // Get restaurant
         Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
 
-        // Get delivery address
-        Address address = addressRepository.findById(request.getAddressId())
-                .orElseThrow(() -> new RuntimeException("Address not found"));
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Order must contain at least one item");
+        }
 
-        // Validate menu items and calculate total
-        BigDecimal totalPrice = BigDecimal.ZERO;
+        // Load every menu item in one query and price the basket in paise
+        Map<Long, MenuItem> menuItems = new HashMap<>();
+        menuItemRepository.findAllById(request.getItems().stream().map(OrderItemRequest::getMenuItemId).toList())
+                .forEach(menuItem -> menuItems.put(menuItem.getId(), menuItem));
+
+        PricingContext pricing = new PricingContext(request.getItems().size());
+        pricing.setMinimumOrder(Money.toPaise(restaurant.getMinimumOrderAmount()));
+        pricing.setRestaurantDeliveryFee(Money.toPaise(restaurant.getDeliveryFee()));
+        pricing.setCouponCode(request.getCouponCode());
         for (OrderItemRequest itemRequest : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
+            MenuItem menuItem = menuItems.get(itemRequest.getMenuItemId());
+            if (menuItem == null || !menuItem.getRestaurant().getId().equals(restaurant.getId())) {
+                throw new RuntimeException("Menu item not found");
+            }
 
             if (!menuItem.getIsAvailable()) {
                 throw new RuntimeException("Menu item " + menuItem.getName() + " is not available");
             }
 
-            totalPrice = totalPrice.add(menuItem.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+            pricing.addLine(Money.toPaise(menuItem.getPrice()), itemRequest.getQuantity());
         }
+        pricingEngine.price(pricing);
 
-        // Check minimum order amount
-        if (totalPrice.compareTo(restaurant.getMinimumOrderAmount()) < 0) {
-            throw new RuntimeException("Order amount is below minimum order requirement");
+        return placePricedOrder(request, restaurant, menuItems, pricing);
+    }
+
+    // Persists an order whose items were already validated and priced, line i of the pricing
+    // context matching request item i. Used directly by cart checkout.
+    public Order placePricedOrder(PlaceOrderRequest request, Restaurant restaurant,
+                                  Map<Long, MenuItem> menuItems, PricingContext pricing) {
+        User user = userService.getCurrentUser();
+
+        // Get delivery address
+        Address address = addressRepository.findById(request.getAddressId())
+                .orElseThrow(() -> new RuntimeException("Address not found"));
+        if (!address.getUser().getId().equals(user.getId())) {
+            throw new RuntimeException("Address not found");
         }
 
+        // Estimated against the queue ahead of this order, so before its own kitchen time is reserved
+        EtaEstimate eta = etaEngine.estimate(restaurant, address, request.getItems(), menuItems);
+
+        // Reserve kitchen time before anything is written
+        long kitchenMinutes = kitchenAdmissionService.weigh(request.getItems(), menuItems);
+        kitchenAdmissionService.admit(restaurant.getId(), kitchenMinutes);
+
         // Create order
         Order order = new Order();
         order.setOrderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
         order.setUser(user);
         order.setRestaurant(restaurant);
         order.setDeliveryAddress(address);
-        order.setTotalPrice(totalPrice);
-        order.setDeliveryFee(restaurant.getDeliveryFee());
-        order.setTaxAmount(totalPrice.multiply(BigDecimal.valueOf(0.18))); // 18% GST
-        order.setDiscountAmount(BigDecimal.ZERO);
-        order.setFinalAmount(totalPrice.add(restaurant.getDeliveryFee()).add(order.getTaxAmount()));
+        order.setTotalPrice(Money.toBigDecimal(pricing.getItemsTotal()));
+        order.setDeliveryFee(Money.toBigDecimal(pricing.getDeliveryFee()));
+        order.setTaxAmount(Money.toBigDecimal(pricing.getTax()));
+        order.setDiscountAmount(Money.toBigDecimal(pricing.getDiscount()));
+        order.setFinalAmount(Money.toBigDecimal(pricing.getFinalAmount()));
         order.setStatus(OrderStatus.PENDING);
         order.setPaymentMethod(PaymentMethod.valueOf(request.getPaymentMethod()));
         order.setPaymentStatus(PaymentStatus.PENDING);
         order.setSpecialInstructions(request.getSpecialInstructions());
-        order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(restaurant.getDeliveryTimeMinutes()));
+        order.setEstimatedDeliveryTime(LocalDateTime.now().plusSeconds(Math.round(eta.getTotalMinutes() * 60)));
+        order.setChangeSeq(orderChangeSequence.next());
 
         order = orderRepository.save(order);
+        kitchenAdmissionService.track(order.getId(), restaurant.getId(), kitchenMinutes);
+        etaEngine.track(order.getId(), eta);
 
         // Create order items
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId()).get();
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int line = 0; line < request.getItems().size(); line++) {
+            OrderItemRequest itemRequest = request.getItems().get(line);
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
-            orderItem.setMenuItem(menuItem);
+            orderItem.setMenuItem(menuItems.get(itemRequest.getMenuItemId()));
             orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setUnitPrice(menuItem.getPrice());
-            orderItem.setTotalPrice(menuItem.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+            orderItem.setUnitPrice(Money.toBigDecimal(pricing.getUnitPrice(line)));
+            orderItem.setTotalPrice(Money.toBigDecimal(pricing.getLineTotal(line)));
             orderItem.setSpecialInstructions(itemRequest.getSpecialInstructions());
 
-            orderItemRepository.save(orderItem);
+            orderItems.add(orderItemRepository.save(orderItem));
         }
 
         // Create initial status history
@@ -104,32 +195,74 @@ public class OrderService {
         statusHistory.setStatus(OrderStatus.PENDING);
         statusHistory.setChangedBy("SYSTEM");
         statusHistory.setNotes("Order placed successfully");
+        orderStatusHistoryRepository.save(statusHistory);
+
+        orderViewService.onOrderPlaced(order, orderItems, statusHistory);
+        eventPublisher.publishEvent(toEvent(order, statusHistory.getNotes()));
 
         return order;
     }
 
-    public List<Order> getUserOrders() {
+    @Transactional(readOnly = true)
+    public List<OrderDocument> getUserOrders(Long before, int size) {
         User user = userService.getCurrentUser();
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+        int limit = Math.max(1, Math.min(size, 100));
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        List<OrderDocument> orders = orderViewService.readAll(
+                orderViewRepository.findUserDocuments(user.getId(), cursor, PageRequest.of(0, limit)));
+        return withArchived(orders, orderArchiveService.getUserDocuments(user.getId(), cursor, limit), limit);
     }
 
-    public Order getOrderById(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        // Check if user owns this order or is restaurant owner or delivery partner
+    @Transactional(readOnly = true)
+    public OrderSummaryPage getUserOrderSummaries(Long before, int size) {
         User user = userService.getCurrentUser();
-        if (!order.getUser().getId().equals(user.getId()) &&
-            !order.getRestaurant().getOwnerId().equals(user.getId()) &&
-            (order.getDeliveryPartner() == null || !order.getDeliveryPartner().getId().equals(user.getId()))) {
-            throw new RuntimeException("Unauthorized to access this order");
+        int pageSize = Math.max(1, Math.min(size, 50));
+
+        // Keyset on id: newer orders always have larger ids, so "before" stays stable while new orders arrive
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        // Unfinished orders stay hot however old they are, so archived ids interleave with hot ones and both
+        // sides are always read with the same keyset before merging
+        List<OrderSummary> orders = new ArrayList<>(orderViewRepository.findUserSummaries(
+                user.getId(), cursor, PageRequest.of(0, pageSize + 1)));
+        orders.addAll(orderArchiveService.getUserSummaries(user.getId(), cursor, pageSize + 1));
+        orders.sort(Comparator.comparing(OrderSummary::getId).reversed());
+
+        Long nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            nextCursor = orders.get(pageSize - 1).getId();
         }
+        return new OrderSummaryPage(orders, nextCursor);
+    }
 
-        return order;
+    public OrderDocument getOrderById(Long orderId) {
+        OrderView view = orderViewRepository.findById(orderId).orElse(null);
+        if (view == null) {
+            ArchivedOrder archivedOrder = orderArchiveService.find(orderId);
+            if (archivedOrder != null) {
+                checkOrderAccess(archivedOrder.getUserId(), archivedOrder.getRestaurantOwnerId(),
+                        archivedOrder.getDeliveryPartnerId());
+                return orderArchiveService.read(archivedOrder);
+            }
+
+            // Not materialized yet (e.g. order predates the read model): check access against the order row
+            // before building the view from the source tables
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            checkOrderAccess(order.getUser().getId(), order.getRestaurant().getOwnerId(),
+                    order.getDeliveryPartner() != null ? order.getDeliveryPartner().getId() : null);
+            orderViewService.rebuild(orderId);
+            view = orderViewRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+        }
+
+        checkOrderAccess(view.getUserId(), view.getRestaurantOwnerId(), view.getDeliveryPartnerId());
+        return orderViewService.read(view.getDocument());
     }
 
     public Order updateOrderStatus(Long orderId, OrderStatus newStatus, String notes) {
-        Order order = orderRepository.findById(orderId)
+        // Locked like the bulk path, so a dispatch assignment committing meanwhile is not overwritten
+        Order order = orderRepository.findForUpdateById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         // Check if user is restaurant owner
@@ -140,6 +273,7 @@ public class OrderService {
 
         order.setStatus(newStatus);
         order.setUpdatedAt(LocalDateTime.now());
+        order.setChangeSeq(orderChangeSequence.next());
 
         orderRepository.save(order);
 
@@ -149,21 +283,128 @@ public class OrderService {
         statusHistory.setStatus(newStatus);
         statusHistory.setChangedBy("RESTAURANT");
         statusHistory.setNotes(notes);
+        orderStatusHistoryRepository.save(statusHistory);
+
+        orderViewService.onStatusChanged(order, statusHistory);
+        eventPublisher.publishEvent(toEvent(order, notes));
 
         return order;
     }
 
-    public List<Order> getRestaurantOrders(Long restaurantId) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
-
-        // Check if user owns this restaurant
+    // Applies one target status to many orders: one locking query for the orders and their ownership,
+    // one JDBC batch for the order updates and one for the history rows
+    public List<BulkStatusResult> updateOrderStatuses(BulkStatusUpdateRequest request) {
         User user = userService.getCurrentUser();
-        if (!restaurant.getOwnerId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized to access restaurant orders");
+        OrderStatus target = request.getStatus();
+        List<Long> orderIds = request.getOrderIds().stream().distinct().toList();
+
+        Map<Long, Order> orders = new HashMap<>();
+        orderRepository.findForUpdateByIdIn(orderIds).forEach(order -> orders.put(order.getId(), order));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BulkStatusResult> results = new ArrayList<>(orderIds.size());
+        List<Order> updated = new ArrayList<>();
+        Map<Long, OrderStatusHistory> history = new HashMap<>();
+        for (Long orderId : orderIds) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                results.add(new BulkStatusResult(orderId, false, null, "Order not found"));
+                continue;
+            }
+            if (!order.getRestaurant().getOwnerId().equals(user.getId())) {
+                results.add(new BulkStatusResult(orderId, false, null, "Unauthorized to update order status"));
+                continue;
+            }
+            if (!order.getStatus().canTransitionTo(target)) {
+                results.add(new BulkStatusResult(orderId, false, order.getStatus(),
+                        "Cannot change status from " + order.getStatus() + " to " + target));
+                continue;
+            }
+
+            order.setStatus(target);
+            order.setUpdatedAt(now);
+            order.setChangeSeq(orderChangeSequence.next());
+            history.put(orderId, new OrderStatusHistory(null, order, target, "RESTAURANT", request.getNotes(), now));
+            updated.add(order);
+            results.add(new BulkStatusResult(orderId, true, target, null));
         }
+        if (updated.isEmpty()) {
+            return results;
+        }
+
+        // Order rows are flushed as one batch by Hibernate; history ids are IDENTITY generated, which
+        // disables Hibernate insert batching, so those rows go through a plain JDBC batch
+        orderRepository.flush();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_status_history (order_id, status, changed_by, notes, created_at) VALUES (?, ?, ?, ?, ?)",
+                updated, updated.size(), (statement, order) -> {
+                    OrderStatusHistory entry = history.get(order.getId());
+                    statement.setLong(1, order.getId());
+                    statement.setString(2, entry.getStatus().name());
+                    statement.setString(3, entry.getChangedBy());
+                    statement.setString(4, entry.getNotes());
+                    statement.setTimestamp(5, Timestamp.valueOf(entry.getCreatedAt()));
+                });
+
+        orderViewService.onStatusesChanged(updated, history);
+        updated.forEach(order -> eventPublisher.publishEvent(toEvent(order, request.getNotes())));
+        return results;
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDocument> getRestaurantOrders(Long restaurantId, Long before, int size) {
+        checkRestaurantOwner(restaurantId);
+        int limit = Math.max(1, Math.min(size, 100));
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        List<OrderDocument> orders = orderViewService.readAll(
+                orderViewRepository.findRestaurantDocuments(restaurantId, cursor, PageRequest.of(0, limit)));
+        return withArchived(orders, orderArchiveService.getRestaurantDocuments(restaurantId, cursor, limit), limit);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderFeedResponse getRestaurantFeed(Long restaurantId, List<OrderStatus> statuses, Long since, int limit) {
+        checkRestaurantOwner(restaurantId);
+
+        int pageSize = Math.max(1, Math.min(limit, 200));
+        long watermark = orderChangeSequence.watermark();
+        List<String> orders;
+        boolean hasMore = false;
+        long cursor = watermark;
+
+        if (since == null) {
+            // Snapshot of the active board; deltas from the returned cursor keep it current
+            Collection<OrderStatus> wanted = statuses == null || statuses.isEmpty()
+                    ? Arrays.stream(OrderStatus.values()).filter(status -> !status.isTerminal()).toList()
+                    : EnumSet.copyOf(statuses);
+            orders = orderViewRepository.findRestaurantFeed(restaurantId, wanted);
+        } else {
+            // Deltas include orders that left the active set so tablets can drop them
+            orders = orderViewRepository.findRestaurantFeedChanges(
+                    restaurantId, since, watermark, PageRequest.of(0, pageSize + 1));
+            if (orders.size() > pageSize) {
+                hasMore = true;
+                orders = orders.subList(0, pageSize);
+            }
+        }
+
+        List<OrderDocument> documents = orderViewService.readAll(orders);
+        if (hasMore) {
+            cursor = documents.get(documents.size() - 1).getChangeSeq();
+        }
+        return new OrderFeedResponse(cursor, hasMore, documents);
+    }
+
+    public SseEmitter streamOrder(Long orderId) {
+        // Same authorization as getOrderById; the current status is pushed first so clients never need to poll
+        OrderDocument order = getOrderById(orderId);
+        OrderEvent snapshot = new OrderEvent(order.getId(), order.getOrderNumber(), order.getUserId(),
+                order.getRestaurantId(), order.getStatus(), null, order.getChangeSeq(), LocalDateTime.now());
+        return orderStreamService.subscribeToOrder(orderId, snapshot);
+    }
 
-        return orderRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurantId);
+    public SseEmitter streamRestaurantOrders(Long restaurantId) {
+        checkRestaurantOwner(restaurantId);
+        return orderStreamService.subscribeToRestaurant(restaurantId);
     }
 
     public Order acceptOrder(Long orderId) {
@@ -181,4 +422,60 @@ public class OrderService {
     public Order markReadyForPickup(Long orderId) {
         return updateOrderStatus(orderId, OrderStatus.READY_FOR_PICKUP, "Order ready for pickup");
     }
+
+    private void checkOrderAccess(Long userId, Long restaurantOwnerId, Long deliveryPartnerId) {
+        // Check if user owns this order or is restaurant owner or delivery partner
+        User user = userService.getCurrentUser();
+        if (!userId.equals(user.getId()) &&
+            !user.getId().equals(restaurantOwnerId) &&
+            !isAssignedPartner(user, deliveryPartnerId)) {
+            throw new RuntimeException("Unauthorized to access this order");
+        }
+    }
+
+    // Delivery partners have their own ids, matched to the user account by email
+    private boolean isAssignedPartner(User user, Long deliveryPartnerId) {
+        return deliveryPartnerId != null && user.getRole() == Role.DELIVERY_PARTNER
+                && deliveryPartnerRepository.findByEmail(user.getEmail())
+                        .map(partner -> partner.getId().equals(deliveryPartnerId))
+                        .orElse(false);
+    }
+
+    // Both sides were read with the same keyset and limit, so the newest `limit` of the two are the page
+    private List<OrderDocument> withArchived(List<OrderDocument> orders, List<OrderDocument> archived, int limit) {
+        if (archived.isEmpty()) {
+            return orders;
+        }
+        List<OrderDocument> merged = new ArrayList<>(orders.size() + archived.size());
+        merged.addAll(orders);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(OrderDocument::getId).reversed());
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    private Restaurant checkRestaurantOwner(Long restaurantId) {
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+
+        // Check if user owns this restaurant
+        User user = userService.getCurrentUser();
+        if (!restaurant.getOwnerId().equals(user.getId())) {
+            throw new RuntimeException("Unauthorized to access restaurant orders");
+        }
+
+        return restaurant;
+    }
+
+    private OrderEvent toEvent(Order order, String notes) {
+        return new OrderEvent(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getUser().getId(),
+                order.getRestaurant().getId(),
+                order.getStatus(),
+                notes,
+                order.getChangeSeq(),
+                LocalDateTime.now()
+        );
+    }
 }
@@ -0,0 +1,168 @@
+package com.zomato.service;
+
+import com.zomato.event.OrderEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class OrderStreamService {
+
+    @Value("${app.orders.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.orders.stream.buffer-size:16}")
+    private int bufferSize;
+
+    private final Map<Long, Set<Subscriber>> orderSubscribers = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Subscriber>> restaurantSubscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "order-stream-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SseEmitter subscribeToOrder(Long orderId, OrderEvent snapshot) {
+        return subscribe(orderSubscribers, orderId, snapshot);
+    }
+
+    public SseEmitter subscribeToRestaurant(Long restaurantId) {
+        return subscribe(restaurantSubscribers, restaurantId, null);
+    }
+
+    // Fan out only once the status change is committed, so clients never see a rolled back transition
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        publish(orderSubscribers.get(event.getOrderId()), event);
+        publish(restaurantSubscribers.get(event.getRestaurantId()), event);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        orderSubscribers.values().forEach(subscribers -> subscribers.forEach(Subscriber::heartbeat));
+        restaurantSubscribers.values().forEach(subscribers -> subscribers.forEach(Subscriber::heartbeat));
+    }
+
+    public int getSubscriberCount() {
+        int count = 0;
+        for (Set<Subscriber> subscribers : orderSubscribers.values()) {
+            count += subscribers.size();
+        }
+        for (Set<Subscriber> subscribers : restaurantSubscribers.values()) {
+            count += subscribers.size();
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private SseEmitter subscribe(Map<Long, Set<Subscriber>> registry, Long key, OrderEvent snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, registry, key);
+        registry.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        if (snapshot != null) {
+            subscriber.offer(snapshot);
+        }
+        return emitter;
+    }
+
+    private void unregister(Map<Long, Set<Subscriber>> registry, Long key, Subscriber subscriber) {
+        registry.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private void publish(Set<Subscriber> subscribers, OrderEvent event) {
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<OrderEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final Map<Long, Set<Subscriber>> registry;
+        private final Long key;
+
+        private Subscriber(SseEmitter emitter, Map<Long, Set<Subscriber>> registry, Long key) {
+            this.emitter = emitter;
+            this.registry = registry;
+            this.key = key;
+        }
+
+        // A slow client only ever loses its oldest transitions; the latest status always gets through
+        private void offer(OrderEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            while (!buffer.offer(event)) {
+                buffer.poll();
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                OrderEvent event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getOrderId()))
+                            .name("order-status")
+                            .data(event));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void heartbeat() {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                buffer.clear();
+                unregister(registry, key, this);
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.zomato.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zomato.dto.OrderDocument;
+import com.zomato.dto.OrderDocumentAddress;
+import com.zomato.dto.OrderDocumentItem;
+import com.zomato.dto.OrderDocumentStatus;
+import com.zomato.dto.ReadModelCheckResult;
+import com.zomato.entity.*;
+import com.zomato.repository.OrderItemRepository;
+import com.zomato.repository.OrderRepository;
+import com.zomato.repository.OrderStatusHistoryRepository;
+import com.zomato.repository.OrderViewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+@Service
+@Transactional
+public class OrderViewService {
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository orderStatusHistoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.orders.read-model.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.orders.read-model.repair-drift:true}")
+    private boolean repairDrift;
+
+    private volatile ReadModelCheckResult lastCheck;
+
+    // Called from the OrderService write transactions, so the view commits or rolls back with the order
+    public OrderDocument onOrderPlaced(Order order, List<OrderItem> items, OrderStatusHistory history) {
+        OrderDocument document = toDocument(order, items, List.of(history));
+        save(new OrderView(), document, order.getRestaurant().getOwnerId());
+        return document;
+    }
+
+    public OrderDocument onStatusChanged(Order order, OrderStatusHistory history) {
+        OrderView view = orderViewRepository.findForUpdateById(order.getId()).orElse(null);
+        if (view == null) {
+            return rebuild(order.getId());
+        }
+        return patch(view, order, history);
+    }
+
+    // Same as onStatusChanged for many orders, loading all their views with one query
+    public void onStatusesChanged(List<Order> orders, Map<Long, OrderStatusHistory> history) {
+        Map<Long, OrderView> views = new HashMap<>();
+        orderViewRepository.findForUpdateByOrderIdIn(orders.stream().map(Order::getId).toList())
+                .forEach(view -> views.put(view.getOrderId(), view));
+
+        List<Long> missing = new ArrayList<>();
+        for (Order order : orders) {
+            OrderView view = views.get(order.getId());
+            if (view == null) {
+                missing.add(order.getId());
+            } else {
+                patch(view, order, history.get(order.getId()));
+            }
+        }
+        if (!missing.isEmpty()) {
+            rebuildBatch(missing);
+        }
+    }
+
+    // Partner assignment adds no status history entry, only the partner and change sequence move
+    public void onPartnersAssigned(Map<Long, Long> partnerIds, Map<Long, Long> changeSeqs, LocalDateTime updatedAt) {
+        List<Long> missing = new ArrayList<>();
+        Map<Long, OrderView> views = new HashMap<>();
+        orderViewRepository.findForUpdateByOrderIdIn(partnerIds.keySet())
+                .forEach(view -> views.put(view.getOrderId(), view));
+        for (Long orderId : partnerIds.keySet()) {
+            OrderView view = views.get(orderId);
+            if (view == null) {
+                missing.add(orderId);
+                continue;
+            }
+            OrderDocument document = read(view.getDocument());
+            document.setDeliveryPartnerId(partnerIds.get(orderId));
+            document.setChangeSeq(changeSeqs.get(orderId));
+            document.setUpdatedAt(updatedAt);
+            save(view, document, view.getRestaurantOwnerId());
+        }
+        if (!missing.isEmpty()) {
+            rebuildBatch(missing);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public OrderView getView(Long orderId) {
+        return orderViewRepository.findById(orderId).orElse(null);
+    }
+
+    public OrderDocument read(String json) {
+        try {
+            return objectMapper.readValue(json, OrderDocument.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read order document", e);
+        }
+    }
+
+    public List<OrderDocument> readAll(List<String> documents) {
+        List<OrderDocument> result = new ArrayList<>(documents.size());
+        documents.forEach(json -> result.add(read(json)));
+        return result;
+    }
+
+    // Rebuilds one view straight from the source tables
+    public OrderDocument rebuild(Long orderId) {
+        List<OrderDocument> documents = rebuildBatch(List.of(orderId));
+        if (documents.isEmpty()) {
+            throw new RuntimeException("Order not found");
+        }
+        return documents.get(0);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuildAll() {
+        long rebuilt = 0;
+        long after = 0;
+        while (true) {
+            List<Long> ids = orderRepository.findIdsAfter(after, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return rebuilt;
+            }
+            transactionTemplate.executeWithoutResult(status -> rebuildBatch(ids));
+            rebuilt += ids.size();
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.read-model.check-interval-ms:300000}",
+               initialDelayString = "${app.orders.read-model.check-interval-ms:300000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReadModelCheckResult checkConsistency() {
+        long checked = 0;
+        long drifted = 0;
+        long repaired = 0;
+        Long maxId = orderRepository.findMaxId();
+        long after = 0;
+        while (maxId != null && after < maxId) {
+            long upTo = Math.min(after + batchSize, maxId);
+            List<Long> driftedIds = orderViewRepository.findDriftedOrderIds(after, upTo);
+            drifted += driftedIds.size();
+            if (!driftedIds.isEmpty()) {
+                System.err.println("Order read model drift detected for orders " + driftedIds);
+                if (repairDrift) {
+                    transactionTemplate.executeWithoutResult(status -> rebuildBatch(driftedIds));
+                    repaired += driftedIds.size();
+                }
+            }
+            checked += upTo - after;
+            after = upTo;
+        }
+        lastCheck = new ReadModelCheckResult(checked, drifted, repaired, LocalDateTime.now());
+        return lastCheck;
+    }
+
+    public ReadModelCheckResult getLastCheck() {
+        return lastCheck;
+    }
+
+    // Builds documents straight from the source tables with three queries per batch
+    public void buildDocuments(List<Long> orderIds, BiConsumer<Order, OrderDocument> consumer) {
+        Map<Long, List<OrderItem>> itemsByOrder = new HashMap<>();
+        for (OrderItem item : orderItemRepository.findWithMenuItemByOrderIdIn(orderIds)) {
+            itemsByOrder.computeIfAbsent(item.getOrder().getId(), id -> new ArrayList<>()).add(item);
+        }
+        Map<Long, List<OrderStatusHistory>> historyByOrder = new HashMap<>();
+        for (OrderStatusHistory history : orderStatusHistoryRepository.findByOrderIdInOrderByCreatedAtAscIdAsc(orderIds)) {
+            historyByOrder.computeIfAbsent(history.getOrder().getId(), id -> new ArrayList<>()).add(history);
+        }
+
+        for (Order order : orderRepository.findWithDetailsByIdIn(orderIds)) {
+            consumer.accept(order, toDocument(order,
+                    itemsByOrder.getOrDefault(order.getId(), List.of()),
+                    historyByOrder.getOrDefault(order.getId(), List.of())));
+        }
+    }
+
+    public String write(OrderDocument document) {
+        try {
+            return objectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to write order document", e);
+        }
+    }
+
+    private List<OrderDocument> rebuildBatch(List<Long> orderIds) {
+        List<OrderDocument> documents = new ArrayList<>();
+        buildDocuments(orderIds, (order, document) -> {
+            OrderView view = orderViewRepository.findById(order.getId()).orElseGet(OrderView::new);
+            save(view, document, order.getRestaurant().getOwnerId());
+            documents.add(document);
+        });
+        return documents;
+    }
+
+    private OrderDocument patch(OrderView view, Order order, OrderStatusHistory history) {
+        // Items and address never change after placement, only the mutable fields are patched
+        OrderDocument document = read(view.getDocument());
+        document.setStatus(order.getStatus());
+        document.setPaymentStatus(order.getPaymentStatus());
+        document.setUpdatedAt(order.getUpdatedAt());
+        document.setChangeSeq(order.getChangeSeq());
+        document.setDeliveryPartnerId(order.getDeliveryPartner() != null ? order.getDeliveryPartner().getId() : null);
+        document.setEstimatedDeliveryTime(order.getEstimatedDeliveryTime());
+        document.getStatusHistory().add(toStatus(history));
+
+        save(view, document, view.getRestaurantOwnerId());
+        return document;
+    }
+
+    private void save(OrderView view, OrderDocument document, Long restaurantOwnerId) {
+        view.setOrderId(document.getId());
+        view.setOrderNumber(document.getOrderNumber());
+        view.setUserId(document.getUserId());
+        view.setRestaurantId(document.getRestaurantId());
+        view.setRestaurantOwnerId(restaurantOwnerId);
+        view.setRestaurantName(document.getRestaurantName());
+        view.setDeliveryPartnerId(document.getDeliveryPartnerId());
+        view.setStatus(document.getStatus());
+        view.setItemCount(document.getOrderItems().stream().mapToInt(OrderDocumentItem::getQuantity).sum());
+        view.setFinalAmount(document.getFinalAmount());
+        view.setChangeSeq(document.getChangeSeq());
+        view.setCreatedAt(document.getCreatedAt());
+        view.setUpdatedAt(document.getUpdatedAt());
+        view.setDocument(write(document));
+        orderViewRepository.save(view);
+    }
+
+    private OrderDocument toDocument(Order order, List<OrderItem> items, List<OrderStatusHistory> history) {
+        Restaurant restaurant = order.getRestaurant();
+        Address address = order.getDeliveryAddress();
+
+        OrderDocument document = new OrderDocument();
+        document.setId(order.getId());
+        document.setOrderNumber(order.getOrderNumber());
+        document.setUserId(order.getUser().getId());
+        document.setRestaurantId(restaurant.getId());
+        document.setRestaurantName(restaurant.getName());
+        document.setRestaurantImageUrl(restaurant.getImageUrl());
+        document.setDeliveryPartnerId(order.getDeliveryPartner() != null ? order.getDeliveryPartner().getId() : null);
+        document.setDeliveryAddress(new OrderDocumentAddress(address.getId(), address.getLabel(), address.getAddress(),
+                address.getLandmark(), address.getCity(), address.getState(), address.getPincode(),
+                address.getLatitude(), address.getLongitude()));
+        document.setTotalPrice(order.getTotalPrice());
+        document.setDeliveryFee(order.getDeliveryFee());
+        document.setTaxAmount(order.getTaxAmount());
+        document.setDiscountAmount(order.getDiscountAmount());
+        document.setFinalAmount(order.getFinalAmount());
+        document.setStatus(order.getStatus());
+        document.setPaymentMethod(order.getPaymentMethod());
+        document.setPaymentStatus(order.getPaymentStatus());
+        document.setSpecialInstructions(order.getSpecialInstructions());
+        document.setEstimatedDeliveryTime(order.getEstimatedDeliveryTime());
+        document.setCreatedAt(order.getCreatedAt());
+        document.setUpdatedAt(order.getUpdatedAt());
+        document.setChangeSeq(order.getChangeSeq());
+
+        for (OrderItem item : items) {
+            MenuItem menuItem = item.getMenuItem();
+            document.getOrderItems().add(new OrderDocumentItem(item.getId(), menuItem.getId(), menuItem.getName(),
+                    menuItem.getIsVegetarian(), item.getQuantity(), item.getUnitPrice(), item.getTotalPrice(),
+                    item.getSpecialInstructions()));
+        }
+        history.forEach(entry -> document.getStatusHistory().add(toStatus(entry)));
+        return document;
+    }
+
+    private OrderDocumentStatus toStatus(OrderStatusHistory history) {
+        return new OrderDocumentStatus(history.getStatus(), history.getChangedBy(), history.getNotes(),
+                history.getCreatedAt());
+    }
+}
@@ -0,0 +1,241 @@
+package com.zomato.service;
+
+import com.zomato.dto.OrderDocument;
+import com.zomato.dto.OrderDocumentItem;
+import com.zomato.dto.PurchaseIndexStats;
+import com.zomato.entity.OrderStatus;
+import com.zomato.event.OrderEvent;
+import com.zomato.util.LongHashSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Which users have had a delivered order from a restaurant, and which dishes they have had delivered, as
+// (user id << 32 | restaurant or menu item id) in two primitive sets. A verified-purchase check is one
+// hash probe instead of a join over orders and order_items. Delivered orders are added once their
+// status change commits; rebuild() reloads everything from live and archived orders.
+@Component
+public class PurchaseIndex {
+
+    private static final long MAX_ID = 0xFFFFFFFFL;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Value("${app.purchases.chunk-size:1000}")
+    private int chunkSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LongHashSet restaurants = new LongHashSet();
+    private LongHashSet menuItems = new LongHashSet();
+
+    // Orders delivered while a rebuild is reading, replayed into the new sets before they go live
+    private List<long[]> deliveredDuringRebuild;
+
+    // Until the first rebuild finishes, checks go to the database
+    private volatile boolean ready;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile PurchaseIndexStats lastRebuild;
+
+    public boolean hasOrderedFrom(Long userId, Long restaurantId) {
+        if (!ready || userId == null || restaurantId == null || !fits(userId) || !fits(restaurantId)) {
+            return jdbcTemplate.queryForObject("SELECT CASE WHEN EXISTS (SELECT 1 FROM orders " +
+                    "WHERE user_id = ? AND restaurant_id = ? AND status = 'DELIVERED') OR EXISTS (SELECT 1 " +
+                    "FROM archived_orders WHERE user_id = ? AND restaurant_id = ? AND status = 'DELIVERED') " +
+                    "THEN 1 ELSE 0 END", Integer.class, userId, restaurantId, userId, restaurantId) == 1;
+        }
+        lock.readLock().lock();
+        try {
+            return restaurants.contains(key(userId, restaurantId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Archived orders only keep their items inside the compressed document, so before the index is ready
+    // the fallback looks at live orders alone
+    public boolean hasOrderedItem(Long userId, Long menuItemId) {
+        if (!ready || userId == null || menuItemId == null || !fits(userId) || !fits(menuItemId)) {
+            return jdbcTemplate.queryForObject("SELECT CASE WHEN EXISTS (SELECT 1 FROM orders o " +
+                    "JOIN order_items oi ON oi.order_id = o.id WHERE o.user_id = ? AND oi.menu_item_id = ? " +
+                    "AND o.status = 'DELIVERED') THEN 1 ELSE 0 END", Integer.class, userId, menuItemId) == 1;
+        }
+        lock.readLock().lock();
+        try {
+            return menuItems.contains(key(userId, menuItemId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getStatus() != OrderStatus.DELIVERED) {
+            return;
+        }
+        List<Long> menuItemIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT menu_item_id FROM order_items WHERE order_id = ?", Long.class, event.getOrderId());
+        long[] purchase = new long[menuItemIds.size() + 2];
+        purchase[0] = event.getUserId();
+        purchase[1] = event.getRestaurantId();
+        for (int i = 0; i < menuItemIds.size(); i++) {
+            purchase[i + 2] = menuItemIds.get(i);
+        }
+        lock.writeLock().lock();
+        try {
+            add(restaurants, menuItems, purchase);
+            if (deliveredDuringRebuild != null) {
+                deliveredDuringRebuild.add(purchase);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild();
+    }
+
+    // Reads delivered orders in id order, one chunk per query, into new sets while checks keep using the
+    // old ones, then swaps them in
+    public PurchaseIndexStats rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RuntimeException("Purchase index rebuild is already running");
+        }
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            deliveredDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            LongHashSet newRestaurants = new LongHashSet();
+            LongHashSet newMenuItems = new LongHashSet();
+            loadLiveOrders(newRestaurants, newMenuItems);
+            loadArchivedOrders(newRestaurants, newMenuItems);
+
+            lock.writeLock().lock();
+            try {
+                for (long[] purchase : deliveredDuringRebuild) {
+                    add(newRestaurants, newMenuItems, purchase);
+                }
+                restaurants = newRestaurants;
+                menuItems = newMenuItems;
+                ready = true;
+                lastRebuild = new PurchaseIndexStats(newRestaurants.size(), newMenuItems.size(),
+                        newRestaurants.memoryBytes() + newMenuItems.memoryBytes(),
+                        System.currentTimeMillis() - started, LocalDateTime.now());
+                return lastRebuild;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                deliveredDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    public PurchaseIndexStats getStats() {
+        lock.readLock().lock();
+        try {
+            PurchaseIndexStats rebuilt = lastRebuild;
+            return new PurchaseIndexStats(restaurants.size(), menuItems.size(),
+                    restaurants.memoryBytes() + menuItems.memoryBytes(),
+                    rebuilt != null ? rebuilt.getRebuildMillis() : null,
+                    rebuilt != null ? rebuilt.getRebuiltAt() : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void loadLiveOrders(LongHashSet newRestaurants, LongHashSet newMenuItems) {
+        long after = 0;
+        while (true) {
+            Long upTo = jdbcTemplate.queryForObject("SELECT MAX(id) FROM (SELECT id FROM orders " +
+                    "WHERE status = 'DELIVERED' AND id > ? ORDER BY id LIMIT " + chunkSize + ") chunk", Long.class, after);
+            if (upTo == null) {
+                return;
+            }
+            jdbcTemplate.query("SELECT o.user_id, o.restaurant_id, oi.menu_item_id FROM orders o " +
+                            "JOIN order_items oi ON oi.order_id = o.id WHERE o.status = 'DELIVERED' " +
+                            "AND o.id > ? AND o.id <= ?",
+                    rs -> {
+                        long userId = rs.getLong(1);
+                        addPair(newRestaurants, userId, rs.getLong(2));
+                        addPair(newMenuItems, userId, rs.getLong(3));
+                    }, after, upTo);
+            after = upTo;
+        }
+    }
+
+    private void loadArchivedOrders(LongHashSet newRestaurants, LongHashSet newMenuItems) {
+        long after = 0;
+        while (true) {
+            long[] last = {after};
+            jdbcTemplate.query("SELECT order_id, user_id, restaurant_id, document FROM archived_orders " +
+                            "WHERE status = 'DELIVERED' AND order_id > ? ORDER BY order_id LIMIT " + chunkSize,
+                    rs -> {
+                        last[0] = rs.getLong(1);
+                        long userId = rs.getLong(2);
+                        addPair(newRestaurants, userId, rs.getLong(3));
+                        OrderDocument document = orderArchiveService.read(rs.getBytes(4));
+                        for (OrderDocumentItem item : document.getOrderItems()) {
+                            if (item.getMenuItemId() != null) {
+                                addPair(newMenuItems, userId, item.getMenuItemId());
+                            }
+                        }
+                    }, after);
+            if (last[0] == after) {
+                return;
+            }
+            after = last[0];
+        }
+    }
+
+    // {user id, restaurant id, menu item ids...}
+    private static void add(LongHashSet restaurantSet, LongHashSet menuItemSet, long[] purchase) {
+        addPair(restaurantSet, purchase[0], purchase[1]);
+        for (int i = 2; i < purchase.length; i++) {
+            addPair(menuItemSet, purchase[0], purchase[i]);
+        }
+    }
+
+    // Ids beyond 32 bits are left out and always checked against the database
+    private static void addPair(LongHashSet set, long userId, long otherId) {
+        if (fits(userId) && fits(otherId)) {
+            set.add(key(userId, otherId));
+        }
+    }
+
+    private static boolean fits(long id) {
+        return id > 0 && id <= MAX_ID;
+    }
+
+    private static long key(long userId, long otherId) {
+        return (userId << 32) | otherId;
+    }
+}
@@ -0,0 +1,190 @@
+package com.zomato.service;
+
+import com.zomato.dto.RatingReconcileResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// A restaurant's rating is kept as a running sum, count and star histogram of its restaurant reviews
+// (dish reviews are not counted), changed by a single-row UPDATE inside the review's own transaction, so the
+// aggregate commits or rolls back together with the review.
+@Service
+public class RestaurantRatingService {
+
+    private static final int STARS = 5;
+    private static final int MAX_REPORTED = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.ratings.reconcile-chunk-size:1000}")
+    private int chunkSize;
+
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    private volatile RatingReconcileResult lastReconcile;
+
+    // Must run inside the transaction writing the review; a null rating on either side means the review
+    // is being created or deleted. The average is listed first because MySQL applies SET clauses left
+    // to right; every database then computes it from the old sum and count.
+    public void apply(Long restaurantId, Integer oldRating, Integer newRating) {
+        if (Objects.equals(oldRating, newRating)) {
+            return;
+        }
+        long ratingDelta = (newRating != null ? newRating : 0) - (oldRating != null ? oldRating : 0);
+        int countDelta = (newRating != null ? 1 : 0) - (oldRating != null ? 1 : 0);
+        int[] starDeltas = new int[STARS];
+        if (oldRating != null) {
+            starDeltas[oldRating - 1]--;
+        }
+        if (newRating != null) {
+            starDeltas[newRating - 1]++;
+        }
+        jdbcTemplate.update("UPDATE restaurants SET " +
+                "average_rating = CASE WHEN COALESCE(total_reviews, 0) + ? > 0 " +
+                "THEN ROUND((COALESCE(rating_sum, 0) + ?) * 1.0 / (COALESCE(total_reviews, 0) + ?), 2) ELSE 0 END, " +
+                "rating_sum = COALESCE(rating_sum, 0) + ?, total_reviews = COALESCE(total_reviews, 0) + ?, " +
+                "rating_count_1 = COALESCE(rating_count_1, 0) + ?, rating_count_2 = COALESCE(rating_count_2, 0) + ?, " +
+                "rating_count_3 = COALESCE(rating_count_3, 0) + ?, rating_count_4 = COALESCE(rating_count_4, 0) + ?, " +
+                "rating_count_5 = COALESCE(rating_count_5, 0) + ? WHERE id = ?",
+                countDelta, ratingDelta, countDelta, ratingDelta, countDelta,
+                starDeltas[0], starDeltas[1], starDeltas[2], starDeltas[3], starDeltas[4], restaurantId);
+    }
+
+    @Scheduled(cron = "${app.ratings.reconcile-cron:0 45 3 * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    // Compares every restaurant's aggregate with its reviews, one id range per transaction, and repairs
+    // drifted rows. A repair only applies if the row still holds the values that were compared, so a review
+    // written meanwhile is never overwritten; the row is looked at again on the next run.
+    public RatingReconcileResult reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            throw new RuntimeException("Rating reconciliation is already running");
+        }
+        try {
+            int checked = 0;
+            int drifted = 0;
+            int repaired = 0;
+            List<Long> driftedIds = new ArrayList<>();
+            long after = 0;
+            while (true) {
+                long from = after;
+                long[] chunk = transactionTemplate.execute(status -> reconcileChunk(from, driftedIds));
+                if (chunk == null || chunk[0] == 0) {
+                    break;
+                }
+                checked += (int) chunk[0];
+                drifted += (int) chunk[1];
+                repaired += (int) chunk[2];
+                after = chunk[3];
+            }
+            lastReconcile = new RatingReconcileResult(checked, drifted, repaired, driftedIds, LocalDateTime.now());
+            return lastReconcile;
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    public RatingReconcileResult getLastReconcile() {
+        return lastReconcile;
+    }
+
+    // {checked, drifted, repaired, last id checked}. Aggregates are compared as
+    // {sum, count, one star, ..., five stars}.
+    private long[] reconcileChunk(long after, List<Long> driftedIds) {
+        Map<Long, long[]> stored = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, COALESCE(rating_sum, 0), COALESCE(total_reviews, 0), " +
+                        "COALESCE(rating_count_1, 0), COALESCE(rating_count_2, 0), COALESCE(rating_count_3, 0), " +
+                        "COALESCE(rating_count_4, 0), COALESCE(rating_count_5, 0) FROM restaurants WHERE id > ? " +
+                        "ORDER BY id LIMIT " + chunkSize,
+                rs -> {
+                    long[] aggregate = new long[STARS + 2];
+                    for (int i = 0; i < aggregate.length; i++) {
+                        aggregate[i] = rs.getLong(i + 2);
+                    }
+                    stored.put(rs.getLong(1), aggregate);
+                }, after);
+        if (stored.isEmpty()) {
+            return new long[]{0, 0, 0, after};
+        }
+        long last = after;
+        for (Long id : stored.keySet()) {
+            last = id;
+        }
+        Map<Long, long[]> actual = new HashMap<>();
+        jdbcTemplate.query("SELECT restaurant_id, rating, COUNT(*) FROM reviews WHERE restaurant_id > ? " +
+                        "AND restaurant_id <= ? AND menu_item_id IS NULL GROUP BY restaurant_id, rating",
+                rs -> {
+                    int rating = rs.getInt(2);
+                    long count = rs.getLong(3);
+                    long[] aggregate = actual.computeIfAbsent(rs.getLong(1), id -> new long[STARS + 2]);
+                    aggregate[0] += rating * count;
+                    aggregate[1] += count;
+                    if (rating >= 1 && rating <= STARS) {
+                        aggregate[rating + 1] += count;
+                    }
+                }, after, last);
+
+        // id, then the correct aggregate, then the aggregate that was compared
+        List<long[]> repairs = new ArrayList<>();
+        stored.forEach((id, aggregate) -> {
+            long[] truth = actual.getOrDefault(id, new long[STARS + 2]);
+            if (!Arrays.equals(truth, aggregate)) {
+                long[] repair = new long[1 + 2 * (STARS + 2)];
+                repair[0] = id;
+                System.arraycopy(truth, 0, repair, 1, truth.length);
+                System.arraycopy(aggregate, 0, repair, 1 + truth.length, aggregate.length);
+                repairs.add(repair);
+                if (driftedIds.size() < MAX_REPORTED) {
+                    driftedIds.add(id);
+                }
+            }
+        });
+        int repaired = 0;
+        if (!repairs.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(
+                    "UPDATE restaurants SET average_rating = ?, rating_sum = ?, total_reviews = ?, rating_count_1 = ?, " +
+                    "rating_count_2 = ?, rating_count_3 = ?, rating_count_4 = ?, rating_count_5 = ? WHERE id = ? " +
+                    "AND COALESCE(rating_sum, 0) = ? AND COALESCE(total_reviews, 0) = ? " +
+                    "AND COALESCE(rating_count_1, 0) = ? AND COALESCE(rating_count_2, 0) = ? " +
+                    "AND COALESCE(rating_count_3, 0) = ? AND COALESCE(rating_count_4, 0) = ? " +
+                    "AND COALESCE(rating_count_5, 0) = ?",
+                    repairs, repairs.size(), (statement, repair) -> {
+                        statement.setBigDecimal(1, repair[2] > 0
+                                ? BigDecimal.valueOf(repair[1]).divide(BigDecimal.valueOf(repair[2]), 2, RoundingMode.HALF_UP)
+                                : BigDecimal.ZERO);
+                        for (int i = 0; i < STARS + 2; i++) {
+                            statement.setLong(2 + i, repair[1 + i]);
+                        }
+                        statement.setLong(STARS + 4, repair[0]);
+                        for (int i = 0; i < STARS + 2; i++) {
+                            statement.setLong(STARS + 5 + i, repair[STARS + 3 + i]);
+                        }
+                    })[0];
+            for (int count : counts) {
+                repaired += count > 0 ? 1 : 0;
+            }
+        }
+        return new long[]{stored.size(), repairs.size(), repaired, last};
+    }
+}
@@ -2,6 +2,7 @@ package com.zomato.service;
 
 import com.zomato.dto.MenuCategoryRequest;
 import com.zomato.dto.MenuItemRequest;
+import com.zomato.dto.NearbyRestaurant;
 import com.zomato.dto.RestaurantRequest;
 import com.zomato.entity.MenuCategory;
 import com.zomato.entity.MenuItem;
@@ -10,11 +11,18 @@ import com.zomato.entity.User;
 import com.zomato.repository.MenuCategoryRepository;
 import com.zomato.repository.MenuItemRepository;
 import com.zomato.repository.RestaurantRepository;
+import com.zomato.service.geo.RestaurantLocations;
+import com.zomato.service.popularity.BestsellerService;
+import com.zomato.service.ranking.RestaurantCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -32,6 +40,15 @@ public class RestaurantService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RestaurantLocations restaurantLocations;
+
+    @Autowired
+    private BestsellerService bestsellerService;
+
+    @Autowired
+    private RestaurantCatalog restaurantCatalog;
+
     public List<Restaurant> getAllRestaurants() {
         return restaurantRepository.findByIsActiveTrue();
     }
@@ -41,14 +58,33 @@ public class RestaurantService {
     }
 
     public Restaurant getRestaurantById(Long id) {
-        return restaurantRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+        return findRestaurant(id);
     }
 
     public List<Restaurant> searchRestaurants(String searchTerm) {
         return restaurantRepository.searchRestaurants(searchTerm);
     }
 
+    // Ranked from the in-memory positions; only the restaurants returned are loaded
+    @Transactional(readOnly = true)
+    public List<NearbyRestaurant> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        List<RestaurantLocations.Match> matches = restaurantLocations.nearest(latitude, longitude, radiusKm, limit);
+        Map<Long, Restaurant> restaurants = restaurantRepository
+                .findAllById(matches.stream().map(RestaurantLocations.Match::restaurantId).toList()).stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        List<NearbyRestaurant> result = new ArrayList<>(matches.size());
+        for (RestaurantLocations.Match match : matches) {
+            Restaurant restaurant = restaurants.get(match.restaurantId());
+            if (restaurant == null || !Boolean.TRUE.equals(restaurant.getIsActive())) {
+                continue;
+            }
+            result.add(new NearbyRestaurant(restaurant.getId(), restaurant.getName(), restaurant.getCuisineType(),
+                    restaurant.getImageUrl(), restaurant.getAverageRating(), restaurant.getDeliveryTimeMinutes(),
+                    restaurant.getCostForTwo(), restaurant.getDeliveryFee(), match.distanceKm()));
+        }
+        return result;
+    }
+
     public Restaurant createRestaurant(RestaurantRequest request) {
         User currentUser = userService.getCurrentUser();
 
@@ -76,6 +112,8 @@ public class RestaurantService {
         restaurant.setIsEcoFriendly(request.getIsEcoFriendly());
         restaurant.setOwnerId(currentUser.getId());
 
+        restaurantLocations.invalidate();
+        restaurantCatalog.invalidate();
         return restaurantRepository.save(restaurant);
     }
 
@@ -111,6 +149,8 @@ public class RestaurantService {
         restaurant.setHasAc(request.getHasAc());
         restaurant.setIsEcoFriendly(request.getIsEcoFriendly());
 
+        restaurantLocations.invalidate();
+        restaurantCatalog.invalidate();
         return restaurantRepository.save(restaurant);
     }
 
@@ -120,7 +160,7 @@ public class RestaurantService {
     }
 
     public MenuCategory createCategory(Long restaurantId, MenuCategoryRequest request) {
-        Restaurant restaurant = getRestaurantById(restaurantId);
+        Restaurant restaurant = findRestaurant(restaurantId);
 
         // Check if current user owns this restaurant
         User currentUser = userService.getCurrentUser();
@@ -169,11 +209,13 @@ public class RestaurantService {
 
     // Menu Item operations
     public List<MenuItem> getRestaurantMenuItems(Long restaurantId) {
-        return menuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId);
+        List<MenuItem> menuItems = menuItemRepository.findByRestaurantIdAndIsAvailableTrue(restaurantId);
+        bestsellerService.markBestsellers(restaurantId, menuItems);
+        return menuItems;
     }
 
     public MenuItem createMenuItem(Long restaurantId, MenuItemRequest request) {
-        Restaurant restaurant = getRestaurantById(restaurantId);
+        Restaurant restaurant = findRestaurant(restaurantId);
 
         // Check if current user owns this restaurant
         User currentUser = userService.getCurrentUser();
@@ -245,4 +287,9 @@ public class RestaurantService {
 
         menuItemRepository.delete(menuItem);
     }
+
+    private Restaurant findRestaurant(Long id) {
+        return restaurantRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+    }
 }
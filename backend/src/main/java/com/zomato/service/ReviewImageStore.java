@@ -0,0 +1,292 @@
+package com.zomato.service;
+
+import com.zomato.dto.ReviewImage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+// Uploaded review photos, stored on local disk under the SHA-256 of their content:
+//   <dir>/<first two hex digits>/<sha256>.<jpg|png>          the original
+//   <dir>/<first two hex digits>/<sha256>.thumb.<jpg|png>    its thumbnail, once generated
+// An upload is streamed through the digest into a temporary file and then moved into place, so the same photo
+// uploaded twice is stored once and no upload is ever held in memory whole. Thumbnails are made on a small
+// bounded pool; until one exists its URL serves a placeholder.
+@Component
+public class ReviewImageStore {
+
+    public static final String URL_PREFIX = "/api/reviews/public/images/";
+
+    private static final Pattern NAME = Pattern.compile("[0-9a-f]{64}\\.(jpg|png)");
+    private static final int BUFFER_SIZE = 8192;
+
+    @Value("${app.reviews.images.dir:data/review-images}")
+    private String directory;
+
+    @Value("${app.reviews.images.max-bytes:10485760}")
+    private long maxBytes;
+
+    @Value("${app.reviews.images.thumbnail-size:320}")
+    private int thumbnailSize;
+
+    @Value("${app.reviews.images.thumbnail-threads:2}")
+    private int thumbnailThreads;
+
+    @Value("${app.reviews.images.thumbnail-queue:200}")
+    private int thumbnailQueue;
+
+    private ThreadPoolExecutor thumbnailer;
+
+    // Images with a thumbnail queued or in progress, so repeated requests do not queue it twice
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private byte[] placeholder;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        // A full queue rejects the task rather than blocking the upload; the next request for the
+        // thumbnail queues it again
+        thumbnailer = new ThreadPoolExecutor(thumbnailThreads, thumbnailThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(thumbnailQueue), runnable -> {
+            Thread thread = new Thread(runnable, "review-thumbnail-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        placeholder = renderPlaceholder();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thumbnailer.shutdownNow();
+    }
+
+    public ReviewImage store(InputStream body) {
+        Path temp = null;
+        try {
+            Path uploads = Paths.get(directory, "tmp");
+            Files.createDirectories(uploads);
+            temp = Files.createTempFile(uploads, "upload", ".part");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String extension = null;
+            long size = 0;
+            try (InputStream in = new DigestInputStream(body, digest); OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                    if (extension == null) {
+                        extension = detectType(buffer, read);
+                    }
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new RuntimeException("Image is larger than " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new RuntimeException("Image is empty");
+            }
+
+            String name = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path target = imagePath(name);
+            boolean duplicate = Files.exists(target);
+            if (!duplicate) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    duplicate = true; // The same photo finished uploading concurrently
+                }
+            }
+            boolean ready = Files.exists(thumbnailPath(name));
+            if (!ready) {
+                requestThumbnail(name);
+            }
+            return new ReviewImage(name, URL_PREFIX + name, URL_PREFIX + name + "/thumbnail", ready, size, duplicate);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store image", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    // Null when no such image was uploaded
+    public Path find(String name) {
+        if (!NAME.matcher(name).matches()) {
+            return null;
+        }
+        Path path = imagePath(name);
+        return Files.exists(path) ? path : null;
+    }
+
+    // Null until the thumbnail has been generated, in which case it is queued if it is not already
+    public Path findThumbnail(String name) {
+        if (find(name) == null) {
+            return null;
+        }
+        Path path = thumbnailPath(name);
+        if (Files.exists(path)) {
+            return path;
+        }
+        requestThumbnail(name);
+        return null;
+    }
+
+    public byte[] getPlaceholder() {
+        return placeholder;
+    }
+
+    // Thumbnail URL for an image URL from store(); other URLs are their own thumbnail
+    public String thumbnailUrl(String imageUrl) {
+        return imageUrl != null && imageUrl.startsWith(URL_PREFIX) ? imageUrl + "/thumbnail" : imageUrl;
+    }
+
+    public static String contentType(String name) {
+        return name.endsWith(".png") ? "image/png" : "image/jpeg";
+    }
+
+    private void requestThumbnail(String name) {
+        if (!pending.add(name)) {
+            return;
+        }
+        try {
+            thumbnailer.execute(() -> {
+                try {
+                    writeThumbnail(name);
+                } finally {
+                    pending.remove(name);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(name);
+        }
+    }
+
+    private void writeThumbnail(String name) {
+        Path source = imagePath(name);
+        Path target = thumbnailPath(name);
+        Path temp = null;
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return; // Not decodable; the placeholder stays
+            }
+            ImageReader reader = readers.next();
+            BufferedImage image;
+            try {
+                reader.setInput(input, true, true);
+                // Decode only every n-th pixel of large photos, so a 12 megapixel upload never becomes a
+                // 48 MB raster; the remaining downscale is done with interpolation
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longest / (thumbnailSize * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+            double scale = Math.min(1.0, (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight()));
+            int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+            boolean png = name.endsWith(".png");
+            BufferedImage thumbnail = new BufferedImage(width, height,
+                    png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = thumbnail.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(image, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            temp = Files.createTempFile(target.getParent(), "thumb", ".part");
+            ImageIO.write(thumbnail, png ? "png" : "jpg", temp.toFile());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            // Left without a thumbnail; the next request for it tries again
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private Path imagePath(String name) {
+        return Paths.get(directory, name.substring(0, 2), name);
+    }
+
+    private Path thumbnailPath(String name) {
+        int dot = name.lastIndexOf('.');
+        return Paths.get(directory, name.substring(0, 2), name.substring(0, dot) + ".thumb" + name.substring(dot));
+    }
+
+    // Only JPEG and PNG are accepted, recognised by their leading bytes rather than the declared content type
+    private static String detectType(byte[] head, int length) {
+        if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G'
+                && head[4] == '\r' && head[5] == '\n' && head[6] == 0x1A && head[7] == '\n') {
+            return "png";
+        }
+        throw new RuntimeException("Only JPEG and PNG images are supported");
+    }
+
+    private static byte[] renderPlaceholder() {
+        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, new Color(0xE0, 0xE0, 0xE0).getRGB());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // A stray temporary file is harmless
+            }
+        }
+    }
+}
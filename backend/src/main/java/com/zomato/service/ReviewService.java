@@ -1,6 +1,8 @@
 package com.zomato.service;
 
+import com.zomato.dto.ReviewPage;
 import com.zomato.dto.ReviewRequest;
+import com.zomato.dto.ReviewSummary;
 import com.zomato.entity.Review;
 import com.zomato.entity.Restaurant;
 import com.zomato.entity.User;
@@ -8,12 +10,19 @@ import com.zomato.repository.MenuItemRepository;
 import com.zomato.repository.RestaurantRepository;
 import com.zomato.repository.ReviewRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -34,6 +43,15 @@ public class ReviewService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private RestaurantRatingService restaurantRatingService;
+
+    @Autowired
+    private PurchaseIndex purchaseIndex;
+
+    @Autowired
+    private ReviewImageStore reviewImageStore;
+
     public Review createReview(ReviewRequest request) {
         User user = userService.getCurrentUser(); // Gets user from JWT token
 
@@ -67,17 +85,58 @@ public class ReviewService {
             }
         }
 
-        // Check if user has ordered from this restaurant (for verified purchase badge)
-        // This would require checking order history
-        review.setIsVerifiedPurchase(false); // Can be enhanced later
+        // Verified purchase badge: a delivered order of the dish, or from the restaurant for restaurant reviews
+        review.setIsVerifiedPurchase(request.getMenuItemId() != null
+                ? purchaseIndex.hasOrderedItem(user.getId(), request.getMenuItemId())
+                : purchaseIndex.hasOrderedFrom(user.getId(), restaurant.getId()));
 
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        if (saved.getMenuItem() == null) {
+            restaurantRatingService.apply(restaurant.getId(), null, saved.getRating());
+        }
+        return saved;
     }
 
     public List<Review> getRestaurantReviews(Long restaurantId) {
         return reviewRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurantId);
     }
 
+    // Keyset on id like the order history; reads only the columns shown, with the reviewer joined in the same query
+    @Transactional(readOnly = true)
+    public ReviewPage getRestaurantReviewPage(Long restaurantId, Long before, int size) {
+        int pageSize = Math.max(1, Math.min(size, 50));
+        List<Object[]> rows = reviewRepository.findRestaurantPage(restaurantId,
+                before != null ? before : Long.MAX_VALUE, PageRequest.of(0, pageSize + 1));
+
+        List<ReviewSummary> reviews = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (Object[] row : rows.subList(0, Math.min(rows.size(), pageSize))) {
+            List<String> images = readImages((String) row[4]);
+            List<String> thumbnails = new ArrayList<>(images.size());
+            images.forEach(image -> thumbnails.add(reviewImageStore.thumbnailUrl(image)));
+            reviews.add(new ReviewSummary((Long) row[0], (String) row[1], (Integer) row[2], (String) row[3],
+                    images, thumbnails, (Long) row[5], (Boolean) row[6], (LocalDateTime) row[7]));
+        }
+        Long nextCursor = rows.size() > pageSize ? reviews.get(pageSize - 1).getId() : null;
+
+        ReviewPage page = new ReviewPage(null, null, null, reviews, nextCursor);
+        if (before == null) {
+            List<Object[]> summary = restaurantRepository.findRatingSummary(restaurantId);
+            if (summary.isEmpty()) {
+                throw new RuntimeException("Restaurant not found");
+            }
+            Object[] header = summary.get(0);
+            Map<Integer, Integer> histogram = new LinkedHashMap<>();
+            for (int stars = 5; stars >= 1; stars--) {
+                Integer count = (Integer) header[stars + 1];
+                histogram.put(stars, count != null ? count : 0);
+            }
+            page.setAverageRating((BigDecimal) header[0]);
+            page.setTotalReviews((Integer) header[1]);
+            page.setRatingHistogram(histogram);
+        }
+        return page;
+    }
+
     public List<Review> getUserReviews() {
         User user = userService.getCurrentUser();
         return reviewRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
@@ -94,6 +153,9 @@ public class ReviewService {
             throw new RuntimeException("Unauthorized to update this review");
         }
 
+        if (review.getMenuItem() == null && review.getRestaurant() != null) {
+            restaurantRatingService.apply(review.getRestaurant().getId(), review.getRating(), request.getRating());
+        }
         review.setRating(request.getRating());
         review.setComment(request.getComment());
 
@@ -120,6 +182,20 @@ public class ReviewService {
         }
 
         reviewRepository.delete(review);
+        if (review.getMenuItem() == null && review.getRestaurant() != null) {
+            restaurantRatingService.apply(review.getRestaurant().getId(), review.getRating(), null);
+        }
     }
-}
 
+    private List<String> readImages(String json) {
+        if (json == null || json.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read review images", e);
+        }
+    }
+}
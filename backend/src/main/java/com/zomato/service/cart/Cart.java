@@ -0,0 +1,68 @@
+package com.zomato.service.cart;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-user basket. Callers synchronize on the cart while mutating it.
+@Data
+@NoArgsConstructor
+public class Cart {
+
+    private Long userId;
+    private Long restaurantId;
+    private String restaurantName;
+    private long minimumOrder; // paise
+    private long deliveryFee; // paise
+    private String couponCode;
+    private Map<Long, CartLine> lines = new LinkedHashMap<>();
+
+    // Running sum of line totals, adjusted on every change instead of re-summing
+    private long itemsTotal;
+
+    @JsonIgnore
+    private List<String> warnings = new ArrayList<>();
+
+    @JsonIgnore
+    private volatile long lastAccess;
+
+    @JsonIgnore
+    private volatile boolean dirty;
+
+    public Cart(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setQuantity(CartLine line, int quantity) {
+        itemsTotal += line.getUnitPrice() * (quantity - line.getQuantity());
+        line.setQuantity(quantity);
+        if (quantity == 0) {
+            lines.remove(line.getMenuItemId());
+        }
+    }
+
+    public void reprice(CartLine line, long unitPrice) {
+        itemsTotal += (unitPrice - line.getUnitPrice()) * line.getQuantity();
+        line.setUnitPrice(unitPrice);
+    }
+
+    public void clear() {
+        lines.clear();
+        itemsTotal = 0;
+        restaurantId = null;
+        restaurantName = null;
+        minimumOrder = 0;
+        deliveryFee = 0;
+        couponCode = null;
+        warnings.clear();
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+}
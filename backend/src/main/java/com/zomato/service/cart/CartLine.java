@@ -0,0 +1,23 @@
+package com.zomato.service.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLine {
+
+    private Long menuItemId;
+    private String name;
+    private long unitPrice; // paise
+    private int quantity;
+    private boolean available;
+    private String specialInstructions;
+    private long validatedAt; // epoch millis of the last price/availability check
+
+    public long getLineTotal() {
+        return unitPrice * quantity;
+    }
+}
@@ -0,0 +1,362 @@
+package com.zomato.service.cart;
+
+import com.zomato.dto.AlsoOrderedItem;
+import com.zomato.dto.CartItemRequest;
+import com.zomato.dto.CartLineResponse;
+import com.zomato.dto.CartResponse;
+import com.zomato.dto.CheckoutRequest;
+import com.zomato.dto.OrderItemRequest;
+import com.zomato.dto.PlaceOrderRequest;
+import com.zomato.entity.MenuItem;
+import com.zomato.entity.Order;
+import com.zomato.entity.Restaurant;
+import com.zomato.repository.MenuItemRepository;
+import com.zomato.repository.RestaurantRepository;
+import com.zomato.service.KitchenAdmissionService;
+import com.zomato.service.OrderService;
+import com.zomato.service.UserService;
+import com.zomato.service.pricing.Money;
+import com.zomato.service.pricing.PricingContext;
+import com.zomato.service.popularity.AlsoOrderedService;
+import com.zomato.service.pricing.PricingEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional
+public class CartService {
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private KitchenAdmissionService kitchenAdmissionService;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private AlsoOrderedService alsoOrderedService;
+
+    @Value("${app.cart.revalidate-after-seconds:60}")
+    private long revalidateAfterSeconds;
+
+    @Value("${app.cart.max-lines:50}")
+    private int maxLines;
+
+    public CartResponse getCart() {
+        Cart cart = currentCart();
+        synchronized (cart) {
+            revalidate(cart);
+            return quote(cart);
+        }
+    }
+
+    public CartResponse addItem(CartItemRequest request) {
+        MenuItem menuItem = menuItemRepository.findById(request.getMenuItemId())
+                .orElseThrow(() -> new RuntimeException("Menu item not found"));
+        if (!menuItem.getIsAvailable()) {
+            throw new RuntimeException("Menu item " + menuItem.getName() + " is not available");
+        }
+
+        Cart cart = currentCart();
+        synchronized (cart) {
+            Long restaurantId = menuItem.getRestaurant().getId();
+            if (cart.isEmpty()) {
+                // Restaurant terms are captured once per cart for quotes and checked again at checkout
+                Restaurant restaurant = menuItem.getRestaurant();
+                cart.setRestaurantId(restaurantId);
+                cart.setRestaurantName(restaurant.getName());
+                cart.setMinimumOrder(Money.toPaise(restaurant.getMinimumOrderAmount()));
+                cart.setDeliveryFee(Money.toPaise(restaurant.getDeliveryFee()));
+            } else if (!restaurantId.equals(cart.getRestaurantId())) {
+                throw new RuntimeException("Cart contains items from another restaurant");
+            }
+
+            CartLine line = cart.getLines().get(menuItem.getId());
+            if (line == null) {
+                if (cart.getLines().size() >= maxLines) {
+                    throw new RuntimeException("Cart cannot contain more than " + maxLines + " items");
+                }
+                line = new CartLine(menuItem.getId(), menuItem.getName(), 0, 0, true, null, 0);
+                cart.getLines().put(menuItem.getId(), line);
+            }
+            refresh(cart, line, menuItem, System.currentTimeMillis());
+            cart.setQuantity(line, line.getQuantity() + request.getQuantity());
+            if (request.getSpecialInstructions() != null) {
+                line.setSpecialInstructions(request.getSpecialInstructions());
+            }
+            cartStore.markChanged(cart);
+            return quote(cart);
+        }
+    }
+
+    public CartResponse updateQuantity(Long menuItemId, int quantity) {
+        if (quantity < 0) {
+            throw new RuntimeException("Quantity cannot be negative");
+        }
+        Cart cart = currentCart();
+        synchronized (cart) {
+            CartLine line = cart.getLines().get(menuItemId);
+            if (line == null) {
+                throw new RuntimeException("Item is not in the cart");
+            }
+            cart.setQuantity(line, quantity);
+            resetIfEmpty(cart);
+            cartStore.markChanged(cart);
+            return quote(cart);
+        }
+    }
+
+    public List<AlsoOrderedItem> getAlsoOrdered(int limit) {
+        Cart cart = currentCart();
+        LinkedHashSet<Long> menuItemIds;
+        synchronized (cart) {
+            menuItemIds = new LinkedHashSet<>(cart.getLines().keySet());
+        }
+        return alsoOrderedService.recommend(menuItemIds, limit);
+    }
+
+    public CartResponse removeItem(Long menuItemId) {
+        return updateQuantity(menuItemId, 0);
+    }
+
+    public CartResponse applyCoupon(String code) {
+        Cart cart = currentCart();
+        synchronized (cart) {
+            // Price once with the coupon so an invalid code is rejected up front
+            PricingContext pricing = toQuote(cart);
+            pricing.setCouponCode(code);
+            pricingEngine.price(pricing);
+            cart.setCouponCode(code.trim().toUpperCase());
+            cartStore.markChanged(cart);
+            return quote(cart);
+        }
+    }
+
+    public CartResponse removeCoupon() {
+        Cart cart = currentCart();
+        synchronized (cart) {
+            cart.setCouponCode(null);
+            cartStore.markChanged(cart);
+            return quote(cart);
+        }
+    }
+
+    public CartResponse clearCart() {
+        Cart cart = currentCart();
+        synchronized (cart) {
+            cart.clear();
+            cartStore.markChanged(cart);
+            return quote(cart);
+        }
+    }
+
+    public Order checkout(CheckoutRequest request) {
+        Cart cart = currentCart();
+        synchronized (cart) {
+            if (cart.isEmpty()) {
+                throw new RuntimeException("Cart is empty");
+            }
+            kitchenAdmissionService.checkAccepting(cart.getRestaurantId());
+            Restaurant restaurant = restaurantRepository.findById(cart.getRestaurantId())
+                    .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+
+            // The order rows need the menu items anyway, so the final check reuses that single query
+            Map<Long, MenuItem> menuItems = new HashMap<>();
+            menuItemRepository.findAllById(cart.getLines().keySet())
+                    .forEach(menuItem -> menuItems.put(menuItem.getId(), menuItem));
+            long now = System.currentTimeMillis();
+            boolean changed = refreshTerms(cart, restaurant);
+            for (CartLine line : new ArrayList<>(cart.getLines().values())) {
+                changed |= refresh(cart, line, menuItems.get(line.getMenuItemId()), now);
+            }
+            if (changed) {
+                cartStore.markChanged(cart);
+                throw new RuntimeException("Cart has changed, please review it before placing the order");
+            }
+
+            PlaceOrderRequest orderRequest = new PlaceOrderRequest();
+            orderRequest.setRestaurantId(cart.getRestaurantId());
+            orderRequest.setAddressId(request.getAddressId());
+            orderRequest.setPaymentMethod(request.getPaymentMethod());
+            orderRequest.setSpecialInstructions(request.getSpecialInstructions());
+            orderRequest.setCouponCode(cart.getCouponCode());
+            orderRequest.setItems(new ArrayList<>());
+            for (CartLine line : cart.getLines().values()) {
+                orderRequest.getItems().add(new OrderItemRequest(line.getMenuItemId(), line.getQuantity(),
+                        line.getSpecialInstructions()));
+            }
+
+            PricingContext pricing = new PricingContext(cart.getLines().size());
+            pricing.setMinimumOrder(Money.toPaise(restaurant.getMinimumOrderAmount()));
+            pricing.setRestaurantDeliveryFee(Money.toPaise(restaurant.getDeliveryFee()));
+            for (CartLine line : cart.getLines().values()) {
+                pricing.addLine(line.getUnitPrice(), line.getQuantity());
+            }
+            pricing.setCouponCode(cart.getCouponCode());
+            pricingEngine.price(pricing);
+
+            Order order = orderService.placePricedOrder(orderRequest, restaurant, menuItems, pricing);
+
+            // Only empty the cart once the order is durable, so a rolled back or retried checkout keeps it
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    synchronized (cart) {
+                        cart.clear();
+                        cartStore.markChanged(cart);
+                    }
+                }
+            });
+            return order;
+        }
+    }
+
+    private Cart currentCart() {
+        return cartStore.get(userService.getCurrentUser().getId());
+    }
+
+    // Reloads only the lines whose last check is older than the revalidation window
+    private void revalidate(Cart cart) {
+        long now = System.currentTimeMillis();
+        long staleBefore = now - revalidateAfterSeconds * 1000;
+        List<Long> staleIds = new ArrayList<>();
+        for (CartLine line : cart.getLines().values()) {
+            if (line.getValidatedAt() < staleBefore) {
+                staleIds.add(line.getMenuItemId());
+            }
+        }
+        if (staleIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, MenuItem> menuItems = new HashMap<>();
+        menuItemRepository.findAllById(staleIds).forEach(menuItem -> menuItems.put(menuItem.getId(), menuItem));
+        for (Long menuItemId : staleIds) {
+            refresh(cart, cart.getLines().get(menuItemId), menuItems.get(menuItemId), now);
+        }
+        resetIfEmpty(cart);
+        cartStore.markChanged(cart);
+    }
+
+    // Applies the current menu price and availability to a line, returns true when something changed
+    private boolean refresh(Cart cart, CartLine line, MenuItem menuItem, long now) {
+        if (menuItem == null || !menuItem.getRestaurant().getId().equals(cart.getRestaurantId())) {
+            cart.getWarnings().add(line.getName() + " is no longer on the menu and was removed");
+            cart.setQuantity(line, 0);
+            return true;
+        }
+
+        boolean changed = false;
+        long price = Money.toPaise(menuItem.getPrice());
+        if (line.getQuantity() > 0 && price != line.getUnitPrice()) {
+            cart.getWarnings().add("Price of " + menuItem.getName() + " changed to " + menuItem.getPrice());
+            changed = true;
+        }
+        cart.reprice(line, price);
+
+        if (line.isAvailable() && !menuItem.getIsAvailable()) {
+            cart.getWarnings().add(menuItem.getName() + " is currently not available");
+            changed = true;
+        }
+        line.setAvailable(menuItem.getIsAvailable());
+        line.setName(menuItem.getName());
+        line.setValidatedAt(now);
+        return changed || !line.isAvailable();
+    }
+
+    // Applies the restaurant's current delivery fee and minimum order, returns true when either changed
+    private boolean refreshTerms(Cart cart, Restaurant restaurant) {
+        boolean changed = false;
+        long deliveryFee = Money.toPaise(restaurant.getDeliveryFee());
+        if (deliveryFee != cart.getDeliveryFee()) {
+            cart.getWarnings().add("Delivery fee changed to " + restaurant.getDeliveryFee());
+            cart.setDeliveryFee(deliveryFee);
+            changed = true;
+        }
+        long minimumOrder = Money.toPaise(restaurant.getMinimumOrderAmount());
+        if (minimumOrder != cart.getMinimumOrder()) {
+            cart.getWarnings().add("Minimum order changed to " + restaurant.getMinimumOrderAmount());
+            cart.setMinimumOrder(minimumOrder);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private void resetIfEmpty(Cart cart) {
+        if (cart.isEmpty()) {
+            cart.clear();
+        }
+    }
+
+    // Priced from the cart's running total rather than its lines. The minimum order is reported instead of
+    // enforced so a partially filled cart can still be shown.
+    private PricingContext toQuote(Cart cart) {
+        PricingContext pricing = new PricingContext(0);
+        pricing.setItemsTotal(cart.getItemsTotal());
+        pricing.setRestaurantDeliveryFee(cart.getDeliveryFee());
+        return pricing;
+    }
+
+    private CartResponse quote(Cart cart) {
+        CartResponse response = new CartResponse();
+        response.setRestaurantId(cart.getRestaurantId());
+        response.setRestaurantName(cart.getRestaurantName());
+        for (CartLine line : cart.getLines().values()) {
+            response.getItems().add(new CartLineResponse(line.getMenuItemId(), line.getName(),
+                    Money.toBigDecimal(line.getUnitPrice()), line.getQuantity(),
+                    Money.toBigDecimal(line.getLineTotal()), line.isAvailable(), line.getSpecialInstructions()));
+        }
+
+        PricingContext pricing = toQuote(cart);
+        if (cart.getCouponCode() != null && !cart.isEmpty()) {
+            pricing.setCouponCode(cart.getCouponCode());
+            try {
+                pricingEngine.price(pricing);
+            } catch (RuntimeException e) {
+                cart.getWarnings().add("Coupon " + cart.getCouponCode() + " was removed: " + e.getMessage());
+                cart.setCouponCode(null);
+                cartStore.markChanged(cart);
+                pricing = toQuote(cart);
+                pricingEngine.price(pricing);
+            }
+        } else {
+            pricingEngine.price(pricing);
+        }
+
+        response.setCouponCode(cart.getCouponCode());
+        response.setItemsTotal(Money.toBigDecimal(cart.getItemsTotal()));
+        response.setDiscountAmount(Money.toBigDecimal(pricing.getDiscount()));
+        response.setDeliveryFee(Money.toBigDecimal(pricing.getDeliveryFee()));
+        response.setTaxAmount(Money.toBigDecimal(pricing.getTax()));
+        response.setFinalAmount(Money.toBigDecimal(pricing.getFinalAmount()));
+        response.setMinimumOrderAmount(Money.toBigDecimal(cart.getMinimumOrder()));
+        response.setMeetsMinimumOrder(cart.getItemsTotal() >= cart.getMinimumOrder());
+        response.getWarnings().addAll(cart.getWarnings());
+        cart.getWarnings().clear();
+        return response;
+    }
+}
@@ -0,0 +1,128 @@
+package com.zomato.service.cart;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zomato.entity.UserCart;
+import com.zomato.repository.UserCartRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory carts keyed by user id. Idle carts are evicted after the TTL; with persistence
+// enabled, changed carts are written behind to user_carts and reloaded on the next access.
+@Component
+public class CartStore {
+
+    @Autowired
+    private UserCartRepository userCartRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.cart.ttl-minutes:120}")
+    private long ttlMinutes;
+
+    @Value("${app.cart.persistent:false}")
+    private boolean persistent;
+
+    private final Map<Long, Cart> carts = new ConcurrentHashMap<>();
+
+    // Touched inside compute, so eviction, which rechecks the access time under the same lock, never drops
+    // a cart just handed out
+    public Cart get(Long userId) {
+        return carts.compute(userId, (id, cart) -> {
+            Cart current = cart != null ? cart : load(id);
+            current.setLastAccess(System.currentTimeMillis());
+            return current;
+        });
+    }
+
+    public void markChanged(Cart cart) {
+        cart.setDirty(true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval-ms:30000}")
+    public void flush() {
+        if (!persistent) {
+            return;
+        }
+        carts.values().forEach(this::tryPersist);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMinutes * 60_000L;
+        carts.forEach((userId, cart) -> {
+            if (cart.getLastAccess() >= cutoff || (persistent && !tryPersist(cart))) {
+                return;
+            }
+            // Kept if it was fetched or changed while being written, or could not be written at all
+            carts.computeIfPresent(userId, (id, current) -> current == cart && current.getLastAccess() < cutoff
+                    && !(persistent && current.isDirty()) ? null : current);
+        });
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Cart load(Long userId) {
+        if (persistent) {
+            UserCart stored = userCartRepository.findById(userId).orElse(null);
+            if (stored != null) {
+                try {
+                    Cart cart = objectMapper.readValue(stored.getPayload(), Cart.class);
+                    // Prices may have moved while the cart was parked, force a full revalidation
+                    cart.getLines().values().forEach(line -> line.setValidatedAt(0));
+                    return cart;
+                } catch (JsonProcessingException e) {
+                    System.err.println("Discarding unreadable cart for user " + userId + ": " + e.getMessage());
+                }
+            }
+        }
+        return new Cart(userId);
+    }
+
+    // One unwritable cart must not stop the others; it stays dirty and is retried on the next flush
+    private boolean tryPersist(Cart cart) {
+        try {
+            persist(cart);
+            return true;
+        } catch (RuntimeException e) {
+            cart.setDirty(true);
+            System.err.println("Failed to persist cart for user " + cart.getUserId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void persist(Cart cart) {
+        if (!cart.isDirty()) {
+            return;
+        }
+        String payload;
+        synchronized (cart) {
+            cart.setDirty(false);
+            try {
+                payload = objectMapper.writeValueAsString(cart);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Failed to serialize cart", e);
+            }
+        }
+        if (cart.isEmpty()) {
+            userCartRepository.deleteById(cart.getUserId());
+        } else {
+            userCartRepository.save(new UserCart(cart.getUserId(), payload, LocalDateTime.now()));
+        }
+    }
+}
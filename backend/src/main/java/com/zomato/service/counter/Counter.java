@@ -0,0 +1,31 @@
+package com.zomato.service.counter;
+
+// Aggregate columns maintained through CounterService. Amounts are counted in units of 10^-scale,
+// so money columns with two decimals are counted in paise.
+public enum Counter {
+
+    PARTNER_DELIVERIES("delivery_partners", "total_deliveries", 0),
+    PARTNER_EARNINGS("delivery_partners", "total_earnings", 2);
+
+    private final String table;
+    private final String column;
+    private final int scale;
+
+    Counter(String table, String column, int scale) {
+        this.table = table;
+        this.column = column;
+        this.scale = scale;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+}
@@ -0,0 +1,212 @@
+package com.zomato.service.counter;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Hot aggregate columns such as the partner totals are never load-modify-saved. Writers add to a
+// striped in-memory adder per row, and a flush turns all pending deltas into one batched
+// "SET x = x + ?" per column, so writers never wait on each other or on a row lock.
+// The counted columns are mapped updatable = false, so entity saves cannot overwrite them.
+@Service
+public class CounterService {
+
+    private record Delta(Long id, long units) {
+    }
+
+    private static final int RECONCILE_ATTEMPTS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Counter, Map<Long, LongAdder>> pending = new EnumMap<>(Counter.class);
+
+    // Exact reads see the column and the pending deltas together; a flush moves deltas between the two
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    // Transactions that have started to commit but not yet added their deltas
+    private final AtomicInteger committing = new AtomicInteger();
+
+    public CounterService() {
+        for (Counter counter : Counter.values()) {
+            pending.put(counter, new ConcurrentHashMap<>());
+        }
+    }
+
+    // Applied once the surrounding transaction commits, so rolled back writes are never counted
+    public void add(Counter counter, Long id, long units) {
+        if (units == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean counted;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    committing.incrementAndGet();
+                    counted = true;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (!counted) {
+                        return;
+                    }
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            apply(counter, id, units);
+                        }
+                    } finally {
+                        committing.decrementAndGet();
+                    }
+                }
+            });
+        } else {
+            apply(counter, id, units);
+        }
+    }
+
+    public void add(Counter counter, Long id, BigDecimal amount) {
+        add(counter, id, amount.movePointRight(counter.getScale()).longValueExact());
+    }
+
+    // Persisted value plus the deltas not flushed yet, in units of the counter's scale
+    public long get(Counter counter, Long id) {
+        flushLock.readLock().lock();
+        try {
+            BigDecimal persisted = jdbcTemplate.queryForObject(
+                    "SELECT " + counter.getColumn() + " FROM " + counter.getTable() + " WHERE id = ?",
+                    BigDecimal.class, id);
+            long units = persisted != null ? persisted.movePointRight(counter.getScale()).longValue() : 0;
+            LongAdder adder = pending.get(counter).get(id);
+            return adder != null ? units + adder.sum() : units;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public BigDecimal getAmount(Counter counter, Long id) {
+        return BigDecimal.valueOf(get(counter, id), counter.getScale());
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval-ms:2000}")
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            Map<Counter, List<Delta>> deltas = new EnumMap<>(Counter.class);
+            for (Map.Entry<Counter, Map<Long, LongAdder>> entry : pending.entrySet()) {
+                List<Delta> changed = new ArrayList<>();
+                entry.getValue().forEach((id, adder) -> {
+                    // Subtracting what was read, rather than resetting, keeps increments that race the read
+                    long units = adder.sum();
+                    if (units != 0) {
+                        adder.add(-units);
+                        changed.add(new Delta(id, units));
+                    }
+                });
+                if (!changed.isEmpty()) {
+                    deltas.put(entry.getKey(), changed);
+                }
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> deltas.forEach(this::write));
+            } catch (RuntimeException e) {
+                // Put the deltas back so they are retried on the next flush rather than lost
+                deltas.forEach((counter, changed) -> changed.forEach(delta -> adder(counter, delta.id()).add(delta.units())));
+                throw e;
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Recomputes every counter from its source rows, repairing deltas lost when the process died between flushes.
+    // A transaction that commits before the recount reads its rows but adds its delta after would be counted
+    // twice, so a recount that overlapped such a commit is rolled back and retried.
+    public void reconcile() {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            flushLock.writeLock().lock();
+            try {
+                flush();
+                Boolean reconciled = transactionTemplate.execute(status -> {
+                    jdbcTemplate.update("UPDATE delivery_partners p SET " +
+                            "total_deliveries = (SELECT COUNT(*) FROM delivery_earnings e " +
+                            "WHERE e.delivery_partner_id = p.id), " +
+                            "total_earnings = (SELECT COALESCE(SUM(e.total_amount), 0) FROM delivery_earnings e " +
+                            "WHERE e.delivery_partner_id = p.id)");
+                    // A transaction still committing may be in the recount with its delta held back by the lock
+                    if (committing.get() > 0) {
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                    return true;
+                });
+                if (Boolean.TRUE.equals(reconciled)) {
+                    return;
+                }
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+            // Let the commits in flight add their deltas before recounting again
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while reconciling counters", e);
+            }
+        }
+        throw new RuntimeException("Counters are busy, reconcile again later");
+    }
+
+    private void write(Counter counter, List<Delta> deltas) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE " + counter.getTable() + " SET " + counter.getColumn() + " = COALESCE(" + counter.getColumn() +
+                ", 0) + ? WHERE id = ?",
+                deltas, deltas.size(), (statement, delta) -> {
+                    statement.setBigDecimal(1, BigDecimal.valueOf(delta.units(), counter.getScale()));
+                    statement.setLong(2, delta.id());
+                });
+    }
+
+    // Under the read lock so no delta lands while a flush or reconcile holds the write lock
+    private void apply(Counter counter, Long id, long units) {
+        flushLock.readLock().lock();
+        try {
+            adder(counter, id).add(units);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private LongAdder adder(Counter counter, Long id) {
+        return pending.get(counter).computeIfAbsent(id, key -> new LongAdder());
+    }
+}
@@ -0,0 +1,324 @@
+package com.zomato.service.delivery;
+
+import com.zomato.dto.EarningStatement;
+import com.zomato.dto.EarningsRunResult;
+import com.zomato.dto.OrderDocumentStatus;
+import com.zomato.entity.DeliveryEarningRollup;
+import com.zomato.entity.EarningPeriod;
+import com.zomato.entity.OrderStatus;
+import com.zomato.repository.DeliveryEarningRollupRepository;
+import com.zomato.repository.OrderRepository;
+import com.zomato.repository.OrderStatusHistoryRepository;
+import com.zomato.service.counter.Counter;
+import com.zomato.service.counter.CounterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Computes an earning for every delivered order, walking the orders in id-ordered chunks so memory stays
+// flat however large the backlog is. Each chunk is one transaction that batch-inserts the earning rows,
+// adds to the partner totals and folds the chunk into the daily and weekly rollups statements are read from.
+@Service
+public class DeliveryEarningService {
+
+    private record Earning(Long orderId, Long partnerId, LocalDateTime deliveredAt, BigDecimal distanceKm,
+                           BigDecimal baseAmount, BigDecimal distanceAmount, BigDecimal incentiveAmount,
+                           BigDecimal totalAmount) {
+    }
+
+    private record RollupKey(Long partnerId, EarningPeriod periodType, LocalDate periodStart) {
+    }
+
+    private static final class Totals {
+        int deliveries;
+        BigDecimal distanceKm = BigDecimal.ZERO;
+        BigDecimal baseAmount = BigDecimal.ZERO;
+        BigDecimal distanceAmount = BigDecimal.ZERO;
+        BigDecimal incentiveAmount = BigDecimal.ZERO;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        void add(Earning earning) {
+            deliveries++;
+            distanceKm = distanceKm.add(earning.distanceKm());
+            baseAmount = baseAmount.add(earning.baseAmount());
+            distanceAmount = distanceAmount.add(earning.distanceAmount());
+            incentiveAmount = incentiveAmount.add(earning.incentiveAmount());
+            totalAmount = totalAmount.add(earning.totalAmount());
+        }
+    }
+
+    private static final BigDecimal MAX_DISTANCE_KM = new BigDecimal("999.99");
+
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository orderStatusHistoryRepository;
+
+    @Autowired
+    private DeliveryEarningRollupRepository deliveryEarningRollupRepository;
+
+    @Autowired
+    private OrderTrackService orderTrackService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.delivery.earnings.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.delivery.earnings.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.delivery.earnings.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${app.delivery.earnings.base-amount:30}")
+    private BigDecimal baseAmount;
+
+    @Value("${app.delivery.earnings.per-km:8}")
+    private BigDecimal perKm;
+
+    @Value("${app.delivery.earnings.peak-incentive:10}")
+    private BigDecimal peakIncentive;
+
+    @Value("${app.delivery.earnings.peak-hours:12,13,19,20,21}")
+    private Set<Integer> peakHours;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile EarningsRunResult lastRun;
+
+    @Scheduled(fixedDelayString = "${app.delivery.earnings.interval-ms:300000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    public EarningsRunResult run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Earnings computation is already running");
+        }
+        try {
+            long orders = 0;
+            int chunks = 0;
+            BigDecimal total = BigDecimal.ZERO;
+            long after = 0;
+            List<Long> failed = new ArrayList<>();
+            while (chunks < maxChunksPerRun) {
+                List<Object[]> rows = orderRepository.findUnearnedDeliveries(after, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                try {
+                    total = total.add(transactionTemplate.execute(status -> processChunk(rows)));
+                    orders += rows.size();
+                } catch (RuntimeException e) {
+                    // One bad order (an unreadable track, a rollup insert race) must not hold back everyone
+                    // else's earnings: redo the chunk order by order and move past the ones that still fail
+                    for (Object[] row : rows) {
+                        try {
+                            List<Object[]> single = List.<Object[]>of(row);
+                            total = total.add(transactionTemplate.execute(status -> processChunk(single)));
+                            orders++;
+                        } catch (RuntimeException orderFailure) {
+                            System.err.println("Skipping earning for order " + row[0] + ": "
+                                    + orderFailure.getMessage());
+                            if (failed.size() < MAX_REPORTED_FAILURES) {
+                                failed.add((Long) row[0]);
+                            }
+                        }
+                    }
+                }
+                chunks++;
+                after = (Long) rows.get(rows.size() - 1)[0];
+                if (rows.size() < chunkSize) {
+                    break;
+                }
+            }
+            lastRun = new EarningsRunResult(orders, chunks, total, failed, LocalDateTime.now());
+            return lastRun;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public EarningsRunResult getLastRun() {
+        return lastRun;
+    }
+
+    // Served from the rollups only; a statement costs one row per period whatever the delivery volume
+    @Transactional(readOnly = true)
+    public List<EarningStatement> getStatements(Long deliveryPartnerId, EarningPeriod period, LocalDate from, LocalDate to) {
+        List<EarningStatement> statements = new ArrayList<>();
+        for (DeliveryEarningRollup rollup : deliveryEarningRollupRepository
+                .findByDeliveryPartnerIdAndPeriodTypeAndPeriodStartBetweenOrderByPeriodStartDesc(
+                        deliveryPartnerId, period, periodStart(period, from), to)) {
+            LocalDate end = period == EarningPeriod.DAILY
+                    ? rollup.getPeriodStart()
+                    : rollup.getPeriodStart().plusDays(6);
+            statements.add(new EarningStatement(deliveryPartnerId, period, rollup.getPeriodStart(), end,
+                    rollup.getDeliveries(), rollup.getDistanceKm(), rollup.getBaseAmount(),
+                    rollup.getDistanceAmount(), rollup.getIncentiveAmount(), rollup.getTotalAmount()));
+        }
+        return statements;
+    }
+
+    private BigDecimal processChunk(List<Object[]> rows) {
+        List<Long> orderIds = rows.stream().map(row -> (Long) row[0]).toList();
+        Map<Long, List<OrderDocumentStatus>> timelines = new HashMap<>();
+        for (Object[] row : orderStatusHistoryRepository.findTimelineByOrderIdIn(orderIds)) {
+            timelines.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new OrderDocumentStatus((OrderStatus) row[1], null, null, (LocalDateTime) row[2]));
+        }
+
+        List<Earning> earnings = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long orderId = (Long) row[0];
+            Long partnerId = (Long) row[1];
+            LocalDateTime createdAt = (LocalDateTime) row[2];
+            List<OrderDocumentStatus> timeline = timelines.getOrDefault(orderId, List.of());
+            earnings.add(compute(orderId, partnerId, deliveredAt(timeline, createdAt),
+                    orderTrackService.distanceKm(partnerId, createdAt, timeline)));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // delivery_earnings ids are IDENTITY generated, which disables Hibernate insert batching
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO delivery_earnings (delivery_partner_id, order_id, base_amount, distance_amount, " +
+                "incentive_amount, total_amount, distance_km, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                earnings, earnings.size(), (statement, earning) -> {
+                    statement.setLong(1, earning.partnerId());
+                    statement.setLong(2, earning.orderId());
+                    statement.setBigDecimal(3, earning.baseAmount());
+                    statement.setBigDecimal(4, earning.distanceAmount());
+                    statement.setBigDecimal(5, earning.incentiveAmount());
+                    statement.setBigDecimal(6, earning.totalAmount());
+                    statement.setBigDecimal(7, earning.distanceKm());
+                    statement.setTimestamp(8, Timestamp.valueOf(now));
+                });
+
+        Map<Long, Totals> partners = new HashMap<>();
+        Map<RollupKey, Totals> rollups = new LinkedHashMap<>();
+        for (Earning earning : earnings) {
+            partners.computeIfAbsent(earning.partnerId(), id -> new Totals()).add(earning);
+            LocalDate day = earning.deliveredAt().toLocalDate();
+            rollups.computeIfAbsent(new RollupKey(earning.partnerId(), EarningPeriod.DAILY, day),
+                    key -> new Totals()).add(earning);
+            rollups.computeIfAbsent(new RollupKey(earning.partnerId(), EarningPeriod.WEEKLY,
+                    periodStart(EarningPeriod.WEEKLY, day)), key -> new Totals()).add(earning);
+        }
+
+        partners.forEach((partnerId, totals) -> {
+            counterService.add(Counter.PARTNER_DELIVERIES, partnerId, totals.deliveries);
+            counterService.add(Counter.PARTNER_EARNINGS, partnerId, totals.totalAmount);
+        });
+        upsertRollups(rollups, now);
+
+        return earnings.stream().map(Earning::totalAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // Adds the chunk onto existing rollup rows, then inserts the periods seen for the first time. The
+    // unique key on (partner, period, start) turns a concurrent insert of the same period into a failed,
+    // rolled back chunk that the next run picks up again, never into a double count.
+    private void upsertRollups(Map<RollupKey, Totals> rollups, LocalDateTime now) {
+        List<Map.Entry<RollupKey, Totals>> entries = new ArrayList<>(rollups.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE delivery_earning_rollups SET deliveries = deliveries + ?, distance_km = distance_km + ?, " +
+                "base_amount = base_amount + ?, distance_amount = distance_amount + ?, " +
+                "incentive_amount = incentive_amount + ?, total_amount = total_amount + ?, updated_at = ? " +
+                "WHERE delivery_partner_id = ? AND period_type = ? AND period_start = ?",
+                entries, entries.size(), (statement, entry) -> {
+                    setTotals(statement, 1, entry.getValue());
+                    statement.setTimestamp(7, Timestamp.valueOf(now));
+                    statement.setLong(8, entry.getKey().partnerId());
+                    statement.setString(9, entry.getKey().periodType().name());
+                    statement.setDate(10, Date.valueOf(entry.getKey().periodStart()));
+                })[0];
+
+        List<Map.Entry<RollupKey, Totals>> missing = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[i] == 0) {
+                missing.add(entries.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO delivery_earning_rollups (deliveries, distance_km, base_amount, distance_amount, " +
+                "incentive_amount, total_amount, updated_at, delivery_partner_id, period_type, period_start) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                missing, missing.size(), (statement, entry) -> {
+                    setTotals(statement, 1, entry.getValue());
+                    statement.setTimestamp(7, Timestamp.valueOf(now));
+                    statement.setLong(8, entry.getKey().partnerId());
+                    statement.setString(9, entry.getKey().periodType().name());
+                    statement.setDate(10, Date.valueOf(entry.getKey().periodStart()));
+                });
+    }
+
+    private Earning compute(Long orderId, Long partnerId, LocalDateTime deliveredAt, double trackKm) {
+        BigDecimal distanceKm = BigDecimal.valueOf(trackKm).setScale(2, RoundingMode.HALF_UP).min(MAX_DISTANCE_KM);
+        BigDecimal distanceAmount = perKm.multiply(distanceKm).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal incentive = peakHours.contains(deliveredAt.getHour()) ? peakIncentive : BigDecimal.ZERO;
+        BigDecimal base = baseAmount.setScale(2, RoundingMode.HALF_UP);
+        incentive = incentive.setScale(2, RoundingMode.HALF_UP);
+        return new Earning(orderId, partnerId, deliveredAt, distanceKm, base, distanceAmount, incentive,
+                base.add(distanceAmount).add(incentive));
+    }
+
+    private static LocalDateTime deliveredAt(List<OrderDocumentStatus> timeline, LocalDateTime fallback) {
+        LocalDateTime deliveredAt = fallback;
+        for (OrderDocumentStatus status : timeline) {
+            if (status.getStatus() == OrderStatus.DELIVERED) {
+                deliveredAt = status.getCreatedAt();
+            }
+        }
+        return deliveredAt;
+    }
+
+    private static LocalDate periodStart(EarningPeriod period, LocalDate day) {
+        return period == EarningPeriod.WEEKLY ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+    }
+
+    private static void setTotals(java.sql.PreparedStatement statement, int first, Totals totals)
+            throws java.sql.SQLException {
+        statement.setInt(first, totals.deliveries);
+        statement.setBigDecimal(first + 1, totals.distanceKm);
+        statement.setBigDecimal(first + 2, totals.baseAmount);
+        statement.setBigDecimal(first + 3, totals.distanceAmount);
+        statement.setBigDecimal(first + 4, totals.incentiveAmount);
+        statement.setBigDecimal(first + 5, totals.totalAmount);
+    }
+}
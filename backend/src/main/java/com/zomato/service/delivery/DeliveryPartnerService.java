@@ -0,0 +1,234 @@
+package com.zomato.service.delivery;
+
+import com.zomato.dto.EarningStatement;
+import com.zomato.dto.EarningTotals;
+import com.zomato.dto.LocationPing;
+import com.zomato.dto.NearbyPartner;
+import com.zomato.dto.OrderDocument;
+import com.zomato.entity.DeliveryPartner;
+import com.zomato.entity.DeliveryStatus;
+import com.zomato.entity.EarningPeriod;
+import com.zomato.entity.OrderStatus;
+import com.zomato.entity.Role;
+import com.zomato.entity.User;
+import com.zomato.repository.DeliveryPartnerRepository;
+import com.zomato.repository.OrderViewRepository;
+import com.zomato.repository.UserRepository;
+import com.zomato.service.OrderViewService;
+import com.zomato.service.counter.Counter;
+import com.zomato.service.counter.CounterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Location pings only touch the in-memory index; the database sees one batched write per flush
+// interval carrying each partner's latest position, however many pings arrived in between.
+@Service
+public class DeliveryPartnerService {
+
+    private static final EnumSet<OrderStatus> ACTIVE = EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.PREPARING,
+            OrderStatus.READY_FOR_PICKUP, OrderStatus.PICKED_UP, OrderStatus.ON_THE_WAY);
+
+    @Autowired
+    private DeliveryPartnerRepository deliveryPartnerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private PartnerLocationIndex partnerLocationIndex;
+
+    @Autowired
+    private LocationHistoryStore locationHistoryStore;
+
+    @Autowired
+    private DeliveryEarningService deliveryEarningService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.delivery.location.max-future-skew-ms:60000}")
+    private long maxFutureSkewMs;
+
+    @Value("${app.delivery.location.fresh-for-ms:120000}")
+    private long freshForMs;
+
+    @Value("${app.delivery.location.evict-after-ms:3600000}")
+    private long evictAfterMs;
+
+    @Value("${app.delivery.location.max-batch:100}")
+    private int maxBatch;
+
+    // Saves a partner lookup per ping; the email to partner mapping never changes
+    private final Map<String, Long> partnerIds = new ConcurrentHashMap<>();
+
+    public boolean recordLocation(LocationPing ping) {
+        return record(currentPartnerId(), ping, System.currentTimeMillis());
+    }
+
+    // Pings buffered on the device while offline, uploaded in one request
+    public int recordLocations(List<LocationPing> pings) {
+        if (pings.size() > maxBatch) {
+            throw new RuntimeException("Cannot record more than " + maxBatch + " locations at once");
+        }
+        Long partnerId = currentPartnerId();
+        long now = System.currentTimeMillis();
+        int accepted = 0;
+        for (LocationPing ping : pings) {
+            if (record(partnerId, ping, now)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Transactional
+    public DeliveryPartner updateStatus(DeliveryStatus status) {
+        if (status == DeliveryStatus.SUSPENDED) {
+            throw new RuntimeException("Delivery partners cannot suspend themselves");
+        }
+        DeliveryPartner partner = deliveryPartnerRepository.findForUpdateById(currentPartnerId())
+                .orElseThrow(() -> new RuntimeException("Delivery partner not found"));
+        if (partner.getStatus() == DeliveryStatus.SUSPENDED) {
+            throw new RuntimeException("Delivery partner is suspended");
+        }
+        if (partner.getStatus() == DeliveryStatus.BUSY) {
+            // Released by the dispatcher once the assigned order is delivered or cancelled
+            throw new RuntimeException("Finish the current delivery before changing status");
+        }
+        partner.setStatus(status);
+        partner.setIsAvailable(status == DeliveryStatus.AVAILABLE);
+        DeliveryPartner saved = deliveryPartnerRepository.save(partner);
+        // The dispatcher only offers partners the index marks available, so it follows the committed row
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                partnerLocationIndex.setAvailable(saved.getId(), status == DeliveryStatus.AVAILABLE);
+            }
+        });
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDocument> getAssignedOrders() {
+        return orderViewService.readAll(orderViewRepository.findPartnerDocuments(currentPartnerId(), ACTIVE));
+    }
+
+    public List<EarningStatement> getStatements(EarningPeriod period, LocalDate from, LocalDate to) {
+        return deliveryEarningService.getStatements(currentPartnerId(), period, from, to);
+    }
+
+    // Lifetime totals including earnings not yet flushed to the partner row
+    public EarningTotals getTotals() {
+        Long partnerId = currentPartnerId();
+        return new EarningTotals(partnerId, counterService.get(Counter.PARTNER_DELIVERIES, partnerId),
+                counterService.getAmount(Counter.PARTNER_EARNINGS, partnerId));
+    }
+
+    public List<NearbyPartner> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        long freshAfter = System.currentTimeMillis() - freshForMs;
+        List<NearbyPartner> result = new ArrayList<>();
+        for (PartnerLocationIndex.Match match : partnerLocationIndex.nearest(latitude, longitude, radiusKm, limit,
+                freshAfter, true)) {
+            PartnerLocation location = match.location();
+            result.add(new NearbyPartner(location.getPartnerId(), location.getLatitude(), location.getLongitude(),
+                    match.distanceKm(), location.getRecordedAt()));
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.delivery.location.flush-interval-ms:5000}")
+    public void flushLocations() {
+        List<PartnerLocation> changed = partnerLocationIndex.drainDirty();
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE delivery_partners SET current_latitude = ?, current_longitude = ? WHERE id = ?",
+                    changed, changed.size(), (statement, location) -> {
+                        statement.setDouble(1, location.getLatitude());
+                        statement.setDouble(2, location.getLongitude());
+                        statement.setLong(3, location.getPartnerId());
+                    });
+        } catch (RuntimeException e) {
+            // Retried with whatever is newest at the next flush
+            changed.forEach(location -> partnerLocationIndex.markDirty(location.getPartnerId()));
+            throw e;
+        }
+    }
+
+    // Partners that stopped sending pings drop out of the index; their last position stays in the table
+    @Scheduled(fixedDelayString = "${app.delivery.location.evict-interval-ms:60000}")
+    public void evictStale() {
+        partnerLocationIndex.evictOlderThan(System.currentTimeMillis() - evictAfterMs);
+    }
+
+    private boolean record(Long partnerId, LocationPing ping, long now) {
+        long recordedAt = ping.getRecordedAt() != null ? ping.getRecordedAt() : now;
+        if (recordedAt > now + maxFutureSkewMs) {
+            // A clock far ahead would otherwise pin the partner to this position until it catches up
+            recordedAt = now;
+        }
+        // History keeps every ping, including late ones the live index rejects as out of date
+        locationHistoryStore.append(partnerId, ping.getLatitude(), ping.getLongitude(), recordedAt);
+        return partnerLocationIndex.update(partnerId, ping.getLatitude(), ping.getLongitude(), recordedAt);
+    }
+
+    private Long currentPartnerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = authentication.getName();
+        Long partnerId = partnerIds.get(email);
+        if (partnerId == null) {
+            DeliveryPartner partner = deliveryPartnerRepository.findByEmail(email)
+                    .orElseGet(() -> register(email));
+            partnerId = partner.getId();
+            partnerIds.put(email, partnerId);
+            if (!partnerLocationIndex.hasAvailability(partnerId)) {
+                partnerLocationIndex.setAvailable(partnerId, partner.getStatus() == DeliveryStatus.AVAILABLE
+                        && Boolean.TRUE.equals(partner.getIsAvailable()));
+            }
+        }
+        return partnerId;
+    }
+
+    // Partner accounts sign up as users; the partner profile is created on first use
+    private DeliveryPartner register(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != Role.DELIVERY_PARTNER) {
+            throw new RuntimeException("User is not a delivery partner");
+        }
+        DeliveryPartner partner = new DeliveryPartner();
+        partner.setName(user.getName());
+        partner.setEmail(user.getEmail());
+        partner.setPassword(user.getPassword());
+        partner.setPhoneNumber(user.getPhoneNumber());
+        partner.setStatus(DeliveryStatus.OFFLINE);
+        partner.setIsAvailable(false);
+        return deliveryPartnerRepository.save(partner);
+    }
+}
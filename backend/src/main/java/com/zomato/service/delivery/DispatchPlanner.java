@@ -0,0 +1,273 @@
+package com.zomato.service.delivery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Matches orders to partners for one dispatch tick. Every order only considers its nearest few
+// available partners from the location index. Small batches are solved exactly with the Hungarian
+// method; large ones take a greedy cheapest-edge-first matching followed by local improvement.
+public class DispatchPlanner {
+
+    public record Job(Long orderId, double latitude, double longitude, double readyInMinutes) {
+    }
+
+    public record Assignment(Long orderId, Long partnerId, double distanceKm, double pickupMinutes) {
+    }
+
+    private record Pickup(double latitude, double longitude) {
+    }
+
+    // Far above any real cost in minutes, yet small enough to keep the potentials exact
+    private static final double INFEASIBLE = 1e9;
+
+    private final PartnerLocationIndex index;
+    private final double radiusKm;
+    private final int candidatesPerOrder;
+    private final int exactMaxOrders;
+    private final double minutesPerKm;
+    private final double lateWeight;
+    private final int improvementPasses;
+
+    public DispatchPlanner(PartnerLocationIndex index, double radiusKm, int candidatesPerOrder, int exactMaxOrders,
+                           double minutesPerKm, double lateWeight, int improvementPasses) {
+        this.index = index;
+        this.radiusKm = radiusKm;
+        this.candidatesPerOrder = candidatesPerOrder;
+        this.exactMaxOrders = exactMaxOrders;
+        this.minutesPerKm = minutesPerKm;
+        this.lateWeight = lateWeight;
+        this.improvementPasses = improvementPasses;
+    }
+
+    public List<Assignment> plan(List<Job> jobs, long freshAfter) {
+        // Orders from the same restaurant share one pickup point, and so one candidate query. The query
+        // goes deeper for busy restaurants, otherwise all their orders would compete for the same few partners.
+        Map<Pickup, List<Integer>> pickups = new HashMap<>();
+        for (int j = 0; j < jobs.size(); j++) {
+            Job job = jobs.get(j);
+            pickups.computeIfAbsent(new Pickup(job.latitude(), job.longitude()), key -> new ArrayList<>()).add(j);
+        }
+
+        // Partners get dense local ids so the solvers work on plain arrays
+        Map<Long, Integer> partnerSlots = new HashMap<>();
+        List<Long> partnerIds = new ArrayList<>();
+        int[][] candidates = new int[jobs.size()][];
+        double[][] costs = new double[jobs.size()][];
+        double[][] distances = new double[jobs.size()][];
+
+        pickups.forEach((pickup, members) -> {
+            List<PartnerLocationIndex.Match> matches = index.nearest(pickup.latitude(), pickup.longitude(), radiusKm,
+                    candidatesPerOrder + members.size() - 1, freshAfter, true);
+            int[] slots = new int[matches.size()];
+            double[] distance = new double[matches.size()];
+            for (int c = 0; c < matches.size(); c++) {
+                Long partnerId = matches.get(c).location().getPartnerId();
+                Integer slot = partnerSlots.get(partnerId);
+                if (slot == null) {
+                    slot = partnerIds.size();
+                    partnerSlots.put(partnerId, slot);
+                    partnerIds.add(partnerId);
+                }
+                slots[c] = slot;
+                distance[c] = matches.get(c).distanceKm();
+            }
+            for (int j : members) {
+                candidates[j] = slots;
+                distances[j] = distance;
+                costs[j] = new double[slots.length];
+                for (int c = 0; c < slots.length; c++) {
+                    costs[j][c] = cost(distance[c] * minutesPerKm, jobs.get(j).readyInMinutes());
+                }
+            }
+        });
+
+        int[] chosen = jobs.size() <= exactMaxOrders
+                ? solveExact(candidates, costs, partnerIds.size())
+                : solveGreedy(candidates, costs, partnerIds.size());
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (int j = 0; j < jobs.size(); j++) {
+            if (chosen[j] >= 0) {
+                int c = chosen[j];
+                assignments.add(new Assignment(jobs.get(j).orderId(), partnerIds.get(candidates[j][c]),
+                        distances[j][c], distances[j][c] * minutesPerKm));
+            }
+        }
+        return assignments;
+    }
+
+    // Minutes the partner spends driving to the restaurant, plus a penalty for every minute the food
+    // waits on the counter because the partner arrives after it is ready
+    double cost(double travelMinutes, double readyInMinutes) {
+        return travelMinutes + lateWeight * Math.max(0, travelMinutes - readyInMinutes);
+    }
+
+    // Returns, per job, the index into its candidate list, or -1 when it stays unassigned
+    private int[] solveGreedy(int[][] candidates, double[][] costs, int partnerCount) {
+        int edgeCount = 0;
+        for (int[] row : candidates) {
+            edgeCount += row.length;
+        }
+        // Costs are non-negative, so their float bits sort like the values themselves; packing them above
+        // the edge number lets a primitive sort order the edges without boxing
+        int[] edgeJobs = new int[edgeCount];
+        int[] edgeCandidates = new int[edgeCount];
+        long[] order = new long[edgeCount];
+        int e = 0;
+        for (int j = 0; j < candidates.length; j++) {
+            for (int c = 0; c < candidates[j].length; c++) {
+                edgeJobs[e] = j;
+                edgeCandidates[e] = c;
+                order[e] = ((long) Float.floatToIntBits((float) costs[j][c]) << 32) | e;
+                e++;
+            }
+        }
+        Arrays.sort(order);
+
+        int[] chosen = new int[candidates.length];
+        Arrays.fill(chosen, -1);
+        int[] owner = new int[partnerCount];
+        Arrays.fill(owner, -1);
+        for (long packed : order) {
+            int edge = (int) packed;
+            int j = edgeJobs[edge];
+            int c = edgeCandidates[edge];
+            int partner = candidates[j][c];
+            if (chosen[j] < 0 && owner[partner] < 0) {
+                chosen[j] = c;
+                owner[partner] = j;
+            }
+        }
+
+        improve(candidates, costs, chosen, owner);
+        return chosen;
+    }
+
+    // Local search over the greedy result: move a job to a cheaper free partner, or swap partners
+    // between two jobs when that lowers their combined cost
+    private void improve(int[][] candidates, double[][] costs, int[] chosen, int[] owner) {
+        for (int pass = 0; pass < improvementPasses; pass++) {
+            boolean improved = false;
+            for (int a = 0; a < candidates.length; a++) {
+                for (int c = 0; c < candidates[a].length; c++) {
+                    int partner = candidates[a][c];
+                    double current = chosen[a] >= 0 ? costs[a][chosen[a]] : INFEASIBLE;
+                    if (costs[a][c] >= current) {
+                        continue;
+                    }
+                    int b = owner[partner];
+                    if (b < 0) {
+                        if (chosen[a] >= 0) {
+                            owner[candidates[a][chosen[a]]] = -1;
+                        }
+                        chosen[a] = c;
+                        owner[partner] = a;
+                        improved = true;
+                        continue;
+                    }
+                    if (b == a || chosen[a] < 0) {
+                        continue;
+                    }
+                    // b would take a's current partner, which must be one of b's candidates
+                    int mine = candidates[a][chosen[a]];
+                    int back = indexOf(candidates[b], mine);
+                    if (back >= 0 && costs[a][c] + costs[b][back] < current + costs[b][chosen[b]]) {
+                        chosen[a] = c;
+                        chosen[b] = back;
+                        owner[partner] = a;
+                        owner[mine] = b;
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+    }
+
+    // Hungarian method with potentials, O(n^2 m) for n jobs and m partners
+    private int[] solveExact(int[][] candidates, double[][] costs, int partnerCount) {
+        int n = candidates.length;
+        int[] chosen = new int[n];
+        Arrays.fill(chosen, -1);
+        if (n == 0 || partnerCount == 0) {
+            return chosen;
+        }
+        // Rows must not outnumber columns, so missing partners are padded with dummy columns
+        // that mean "left unassigned this tick"
+        int m = Math.max(partnerCount, n);
+        double[][] matrix = new double[n][m];
+        for (int j = 0; j < n; j++) {
+            Arrays.fill(matrix[j], INFEASIBLE);
+            for (int c = 0; c < candidates[j].length; c++) {
+                matrix[j][candidates[j][c]] = costs[j][c];
+            }
+        }
+
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] match = new int[m + 1]; // column -> row, 1-based, 0 when free
+        int[] way = new int[m + 1];
+        for (int row = 1; row <= n; row++) {
+            match[0] = row;
+            int column = 0;
+            double[] min = new double[m + 1];
+            Arrays.fill(min, Double.MAX_VALUE);
+            boolean[] used = new boolean[m + 1];
+            do {
+                used[column] = true;
+                int current = match[column];
+                double delta = Double.MAX_VALUE;
+                int next = 0;
+                for (int k = 1; k <= m; k++) {
+                    if (!used[k]) {
+                        double reduced = matrix[current - 1][k - 1] - u[current] - v[k];
+                        if (reduced < min[k]) {
+                            min[k] = reduced;
+                            way[k] = column;
+                        }
+                        if (min[k] < delta) {
+                            delta = min[k];
+                            next = k;
+                        }
+                    }
+                }
+                for (int k = 0; k <= m; k++) {
+                    if (used[k]) {
+                        u[match[k]] += delta;
+                        v[k] -= delta;
+                    } else {
+                        min[k] -= delta;
+                    }
+                }
+                column = next;
+            } while (match[column] != 0);
+            do {
+                int previous = way[column];
+                match[column] = match[previous];
+                column = previous;
+            } while (column != 0);
+        }
+
+        for (int k = 1; k <= m; k++) {
+            int j = match[k] - 1;
+            if (j >= 0 && k - 1 < partnerCount && matrix[j][k - 1] < INFEASIBLE) {
+                chosen[j] = indexOf(candidates[j], k - 1);
+            }
+        }
+        return chosen;
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,254 @@
+package com.zomato.service.delivery;
+
+import com.zomato.dto.DispatchResult;
+import com.zomato.entity.OrderStatus;
+import com.zomato.event.OrderEvent;
+import com.zomato.repository.OrderRepository;
+import com.zomato.service.OrderChangeSequence;
+import com.zomato.service.OrderViewService;
+import com.zomato.service.eta.EtaEngine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Assigns delivery partners to orders in batches on a short tick. The plan is made in memory from
+// the location index; it is committed with conditional updates, so an order or partner that
+// changed since the plan was made is skipped rather than double-booked.
+@Service
+public class DispatchService {
+
+    private static final EnumSet<OrderStatus> DISPATCHABLE =
+            EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.READY_FOR_PICKUP);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private OrderChangeSequence orderChangeSequence;
+
+    @Autowired
+    private PartnerLocationIndex partnerLocationIndex;
+
+    @Autowired
+    private EtaEngine etaEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.dispatch.max-orders-per-tick:10000}")
+    private int maxOrdersPerTick;
+
+    @Value("${app.dispatch.lookahead-minutes:10}")
+    private double lookaheadMinutes;
+
+    @Value("${app.dispatch.radius-km:8}")
+    private double radiusKm;
+
+    @Value("${app.dispatch.candidates-per-order:8}")
+    private int candidatesPerOrder;
+
+    @Value("${app.dispatch.exact-max-orders:60}")
+    private int exactMaxOrders;
+
+    @Value("${app.dispatch.late-weight:2}")
+    private double lateWeight;
+
+    @Value("${app.dispatch.improvement-passes:3}")
+    private int improvementPasses;
+
+    @Value("${app.eta.default-minutes-per-km:3}")
+    private double minutesPerKm;
+
+    @Value("${app.delivery.location.fresh-for-ms:120000}")
+    private long freshForMs;
+
+    private DispatchPlanner planner;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile DispatchResult lastRun;
+
+    @PostConstruct
+    public void init() {
+        planner = new DispatchPlanner(partnerLocationIndex, radiusKm, candidatesPerOrder, exactMaxOrders,
+                minutesPerKm, lateWeight, improvementPasses);
+    }
+
+    @Scheduled(fixedDelayString = "${app.dispatch.tick-ms:5000}")
+    public void scheduledDispatch() {
+        if (enabled) {
+            dispatch();
+        }
+    }
+
+    public DispatchResult dispatch() {
+        if (!running.compareAndSet(false, true)) {
+            return lastRun;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            List<DispatchPlanner.Job> jobs = collectJobs();
+            List<DispatchPlanner.Assignment> planned = jobs.isEmpty()
+                    ? List.of()
+                    : planner.plan(jobs, started - freshForMs);
+            long planMillis = System.currentTimeMillis() - started;
+
+            // Take the planned partners out of the pool first, so pings and other ticks stop offering them
+            List<DispatchPlanner.Assignment> reserved = new ArrayList<>(planned.size());
+            for (DispatchPlanner.Assignment assignment : planned) {
+                if (partnerLocationIndex.tryReserve(assignment.partnerId())) {
+                    reserved.add(assignment);
+                }
+            }
+            int assigned = reserved.isEmpty() ? 0 : commit(reserved);
+
+            lastRun = new DispatchResult(jobs.size(), planned.size(), assigned, planMillis,
+                    System.currentTimeMillis() - started, LocalDateTime.now());
+            return lastRun;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public DispatchResult getLastRun() {
+        return lastRun;
+    }
+
+    // Finished deliveries put the partner back into the pool. The order's transaction has already committed,
+    // so the release needs a transaction of its own to be written at all.
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderEvent(OrderEvent event) {
+        if (!event.getStatus().isTerminal()) {
+            return;
+        }
+        List<Long> partnerIds = jdbcTemplate.queryForList(
+                "SELECT delivery_partner_id FROM orders WHERE id = ? AND delivery_partner_id IS NOT NULL",
+                Long.class, event.getOrderId());
+        if (partnerIds.isEmpty()) {
+            return;
+        }
+        Long partnerId = partnerIds.get(0);
+        int released = jdbcTemplate.update(
+                "UPDATE delivery_partners SET status = 'AVAILABLE', is_available = true WHERE id = ? AND status = 'BUSY'",
+                partnerId);
+        if (released > 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    partnerLocationIndex.setAvailable(partnerId, true);
+                }
+            });
+        }
+    }
+
+    private List<DispatchPlanner.Job> collectJobs() {
+        List<DispatchPlanner.Job> jobs = new ArrayList<>();
+        for (Object[] row : orderRepository.findAwaitingDispatch(DISPATCHABLE, PageRequest.of(0, maxOrdersPerTick))) {
+            Long orderId = (Long) row[0];
+            OrderStatus status = (OrderStatus) row[1];
+            double readyIn = 0;
+            if (status != OrderStatus.READY_FOR_PICKUP) {
+                // Orders still cooking are only dispatched once the kitchen is close to done
+                Double predicted = etaEngine.minutesUntilReady(orderId);
+                if (predicted == null || predicted > lookaheadMinutes) {
+                    continue;
+                }
+                readyIn = predicted;
+            }
+            jobs.add(new DispatchPlanner.Job(orderId, (Double) row[2], (Double) row[3], readyIn));
+        }
+        return jobs;
+    }
+
+    private int commit(List<DispatchPlanner.Assignment> reserved) {
+        Map<Long, Long> partnerIds = new HashMap<>();
+        Map<Long, Long> changeSeqs = new HashMap<>();
+        List<Long> returned = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Partner first: only one tick or request can flip a partner from AVAILABLE to BUSY
+                int[] partnerRows = jdbcTemplate.batchUpdate(
+                        "UPDATE delivery_partners SET status = 'BUSY', is_available = false " +
+                        "WHERE id = ? AND status = 'AVAILABLE' AND is_available = true",
+                        reserved, reserved.size(),
+                        (statement, assignment) -> statement.setLong(1, assignment.partnerId()))[0];
+                List<DispatchPlanner.Assignment> claimed = new ArrayList<>();
+                for (int i = 0; i < reserved.size(); i++) {
+                    if (partnerRows[i] > 0) {
+                        claimed.add(reserved.get(i));
+                    }
+                }
+                if (claimed.isEmpty()) {
+                    return;
+                }
+
+                Map<Long, Long> sequence = new HashMap<>();
+                claimed.forEach(assignment -> sequence.put(assignment.orderId(), orderChangeSequence.next()));
+                int[] orderRows = jdbcTemplate.batchUpdate(
+                        "UPDATE orders SET delivery_partner_id = ?, change_seq = ?, updated_at = ? " +
+                        "WHERE id = ? AND delivery_partner_id IS NULL AND status IN ('CONFIRMED', 'PREPARING', 'READY_FOR_PICKUP')",
+                        claimed, claimed.size(), (statement, assignment) -> {
+                            statement.setLong(1, assignment.partnerId());
+                            statement.setLong(2, sequence.get(assignment.orderId()));
+                            statement.setTimestamp(3, Timestamp.valueOf(now));
+                            statement.setLong(4, assignment.orderId());
+                        })[0];
+
+                for (int i = 0; i < claimed.size(); i++) {
+                    DispatchPlanner.Assignment assignment = claimed.get(i);
+                    if (orderRows[i] > 0) {
+                        partnerIds.put(assignment.orderId(), assignment.partnerId());
+                        changeSeqs.put(assignment.orderId(), sequence.get(assignment.orderId()));
+                    } else {
+                        // Order was cancelled or assigned elsewhere in the meantime
+                        returned.add(assignment.partnerId());
+                    }
+                }
+                if (!returned.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE delivery_partners SET status = 'AVAILABLE', is_available = true WHERE id = ?",
+                            returned, returned.size(), (statement, partnerId) -> statement.setLong(1, partnerId));
+                }
+                if (!partnerIds.isEmpty()) {
+                    orderViewService.onPartnersAssigned(partnerIds, changeSeqs, now);
+                }
+            });
+        } catch (RuntimeException e) {
+            reserved.forEach(assignment -> partnerLocationIndex.setAvailable(assignment.partnerId(), true));
+            throw e;
+        }
+        // Partners whose row was not AVAILABLE stay out of the pool until their status is updated again
+        returned.forEach(partnerId -> partnerLocationIndex.setAvailable(partnerId, true));
+        return partnerIds.size();
+    }
+}
@@ -0,0 +1,348 @@
+package com.zomato.service.delivery;
+
+import com.zomato.dto.TrackPoint;
+import com.zomato.util.VarInts;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Location history of every partner, one append-only segment file per partner per (UTC) day:
+//   <dir>/<yyyy-MM-dd>/<partnerId>.seg
+// Pings are buffered in memory and appended as blocks on each flush. A block is
+//   varint payload length | payload | CRC-32 of the payload (4 bytes)
+// and its payload
+//   varint count | first point | (delta time, delta lat, delta lng) per further point
+// with time in epoch millis, coordinates in units of 1e-7 degrees and every number a zigzag varint,
+// so a point a few seconds and metres after the previous one takes about six bytes.
+// Reads stop at the first block that is torn or fails its checksum. Before the first append to a file after a
+// restart, the file is cut back to its last intact block so new blocks never follow a torn one.
+@Component
+public class LocationHistoryStore {
+
+    private static final double SCALE = 1e7;
+
+    private static final int CHECKSUM_BYTES = 4;
+
+    private record SegmentKey(long partnerId, LocalDate day) {
+    }
+
+    private static final class Pending {
+        long[] times = new long[16];
+        int[] latitudes = new int[16];
+        int[] longitudes = new int[16];
+        int size;
+
+        void add(long time, int latitude, int longitude) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            times[size] = time;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+    }
+
+    @Value("${app.delivery.history.dir:data/location-history}")
+    private String directory;
+
+    @Value("${app.delivery.history.retention-days:90}")
+    private int retentionDays;
+
+    private final Map<SegmentKey, Pending> pending = new ConcurrentHashMap<>();
+
+    // Segment files already cut back to their last intact block by this process
+    private final Set<SegmentKey> verified = ConcurrentHashMap.newKeySet();
+
+    // Readers see the segment file and the pending buffer together; flushes move points between the two
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    public void append(long partnerId, double latitude, double longitude, long recordedAt) {
+        int lat = (int) Math.round(latitude * SCALE);
+        int lng = (int) Math.round(longitude * SCALE);
+        pending.compute(new SegmentKey(partnerId, dayOf(recordedAt)), (key, points) -> {
+            Pending target = points != null ? points : new Pending();
+            target.add(recordedAt, lat, lng);
+            return target;
+        });
+    }
+
+    // Points of one partner recorded in [from, to], sorted by time
+    public List<TrackPoint> read(long partnerId, long from, long to) {
+        List<TrackPoint> points = new ArrayList<>();
+        flushLock.readLock().lock();
+        try {
+            for (LocalDate day = dayOf(from); !day.isAfter(dayOf(to)); day = day.plusDays(1)) {
+                SegmentKey key = new SegmentKey(partnerId, day);
+                readSegment(segmentPath(key), from, to, points);
+                pending.computeIfPresent(key, (k, buffered) -> {
+                    for (int i = 0; i < buffered.size; i++) {
+                        addIfInRange(points, buffered.times[i], buffered.latitudes[i], buffered.longitudes[i], from, to);
+                    }
+                    return buffered;
+                });
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        points.sort(Comparator.comparingLong(TrackPoint::getRecordedAt));
+        return points;
+    }
+
+    @Scheduled(fixedDelayString = "${app.delivery.history.flush-interval-ms:10000}")
+    public void flush() {
+        for (SegmentKey key : new ArrayList<>(pending.keySet())) {
+            flushLock.writeLock().lock();
+            try {
+                Pending points = pending.remove(key);
+                if (points != null && points.size > 0) {
+                    write(key, points);
+                }
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Scheduled(cron = "${app.delivery.history.purge-cron:0 15 4 * * *}")
+    public void purgeExpired() {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        LocalDate oldest = LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays);
+        // Late pings for an older day are rare; their file is simply checked again
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        verified.removeIf(key -> key.day().isBefore(yesterday));
+        try (DirectoryStream<Path> days = Files.newDirectoryStream(root)) {
+            for (Path day : days) {
+                LocalDate date = parseDay(day.getFileName().toString());
+                if (date != null && date.isBefore(oldest)) {
+                    deleteDirectory(day);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to purge location history", e);
+        }
+    }
+
+    private void write(SegmentKey key, Pending points) {
+        byte[] block = encodeBlock(points.times, points.latitudes, points.longitudes, points.size);
+        Path path = segmentPath(key);
+        try {
+            Files.createDirectories(path.getParent());
+            if (!verified.contains(key)) {
+                truncateTornTail(path);
+                verified.add(key);
+            }
+            Files.write(path, block, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // A partial append may have left a torn block; check the file again before the retry
+            verified.remove(key);
+            // Put the points back so they are retried on the next flush rather than lost
+            pending.merge(key, points, (current, failed) -> {
+                for (int i = 0; i < current.size; i++) {
+                    failed.add(current.times[i], current.latitudes[i], current.longitudes[i]);
+                }
+                return failed;
+            });
+            throw new RuntimeException("Failed to write location history segment " + path, e);
+        }
+    }
+
+    private static void truncateTornTail(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) {
+                return;
+            }
+            int valid = validLength(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            if (valid < size) {
+                System.err.println("Truncating torn location history segment " + path + " from " + size
+                        + " to " + valid + " bytes");
+                channel.truncate(valid);
+            }
+        }
+    }
+
+    private void readSegment(Path path, long from, long to, List<TrackPoint> points) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return;
+            }
+            decodeSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), from, to, points);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read location history segment " + path, e);
+        }
+    }
+
+    // One block holding the first size points, sorted by time so the deltas stay small even when a batch of
+    // offline pings arrives late
+    static byte[] encodeBlock(long[] times, int[] latitudes, int[] longitudes, int size) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> times[i]));
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(size * 6 + 16);
+        VarInts.writeUnsigned(payload, size);
+        long time = 0;
+        int lat = 0;
+        int lng = 0;
+        for (int i : order) {
+            VarInts.writeSigned(payload, times[i] - time);
+            VarInts.writeSigned(payload, (long) latitudes[i] - lat);
+            VarInts.writeSigned(payload, (long) longitudes[i] - lng);
+            time = times[i];
+            lat = latitudes[i];
+            lng = longitudes[i];
+        }
+        byte[] bytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        int checksum = (int) crc.getValue();
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream(bytes.length + 5 + CHECKSUM_BYTES);
+        VarInts.writeUnsigned(block, bytes.length);
+        block.writeBytes(bytes);
+        block.write(checksum >>> 24);
+        block.write(checksum >>> 16);
+        block.write(checksum >>> 8);
+        block.write(checksum);
+        return block.toByteArray();
+    }
+
+    // Adds the points in [from, to] of every block up to the first torn or corrupt one
+    static void decodeSegment(ByteBuffer buffer, long from, long to, List<TrackPoint> points) {
+        ByteBuffer payload;
+        while ((payload = nextBlock(buffer)) != null) {
+            try {
+                decodePayload(payload, from, to, points);
+            } catch (IllegalArgumentException | BufferUnderflowException e) {
+                // Checksum matched but the contents do not parse; its length is still sound, so skip just this block
+            }
+        }
+    }
+
+    // Length of the segment up to the end of its last intact block
+    static int validLength(ByteBuffer buffer) {
+        int valid = buffer.position();
+        while (nextBlock(buffer) != null) {
+            valid = buffer.position();
+        }
+        return valid;
+    }
+
+    // The payload of the block at the buffer's position, advancing past it. Null at the end of the buffer and
+    // at a torn or corrupt block, since nothing after one can be trusted to start on a block boundary.
+    private static ByteBuffer nextBlock(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        long length;
+        try {
+            length = VarInts.readUnsigned(buffer);
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining() - CHECKSUM_BYTES) {
+            return null;
+        }
+        ByteBuffer payload = buffer.slice(buffer.position(), (int) length);
+        buffer.position(buffer.position() + (int) length);
+        int checksum = buffer.getInt();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue() == checksum ? payload : null;
+    }
+
+    private static void decodePayload(ByteBuffer payload, long from, long to, List<TrackPoint> points) {
+        long count = VarInts.readUnsigned(payload);
+        // Each point takes at least three bytes
+        if (count < 0 || count > payload.remaining() / 3) {
+            throw new IllegalArgumentException("Point count " + count + " exceeds block");
+        }
+        List<TrackPoint> decoded = new ArrayList<>();
+        long time = 0;
+        long lat = 0;
+        long lng = 0;
+        for (long i = 0; i < count; i++) {
+            time += VarInts.readSigned(payload);
+            lat += VarInts.readSigned(payload);
+            lng += VarInts.readSigned(payload);
+            addIfInRange(decoded, time, lat, lng, from, to);
+        }
+        points.addAll(decoded);
+    }
+
+    private static void addIfInRange(List<TrackPoint> points, long time, long lat, long lng, long from, long to) {
+        if (time >= from && time <= to) {
+            points.add(new TrackPoint(time, lat / SCALE, lng / SCALE));
+        }
+    }
+
+    private Path segmentPath(SegmentKey key) {
+        return Paths.get(directory, key.day().toString(), key.partnerId() + ".seg");
+    }
+
+    private static LocalDate dayOf(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    private static LocalDate parseDay(String name) {
+        try {
+            return LocalDate.parse(name);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void deleteDirectory(Path path) throws IOException {
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.zomato.service.delivery;
+
+import com.zomato.dto.OrderDocument;
+import com.zomato.dto.OrderDocumentStatus;
+import com.zomato.dto.OrderTrack;
+import com.zomato.dto.TrackPoint;
+import com.zomato.service.OrderService;
+import com.zomato.util.Geo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// Reconstructs the path a partner drove for an order from the location history
+@Service
+public class OrderTrackService {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private LocationHistoryStore locationHistoryStore;
+
+    @Value("${app.delivery.history.max-speed-kmh:120}")
+    private double maxSpeedKmh;
+
+    public OrderTrack getTrack(Long orderId) {
+        // Same access rules as the order itself: the customer, the restaurant owner or the assigned partner
+        OrderDocument order = orderService.getOrderById(orderId);
+        if (order.getDeliveryPartnerId() == null) {
+            throw new RuntimeException("No delivery partner is assigned to this order");
+        }
+        return track(order);
+    }
+
+    // Length of the track the partner drove for a delivered order, as used for earnings
+    public double distanceKm(Long deliveryPartnerId, LocalDateTime createdAt, List<OrderDocumentStatus> history) {
+        LocalDateTime[] window = window(createdAt, history);
+        return distanceKm(locationHistoryStore.read(deliveryPartnerId, toMillis(window[0]), toMillis(window[1])));
+    }
+
+    private OrderTrack track(OrderDocument order) {
+        LocalDateTime[] window = window(order.getCreatedAt(), order.getStatusHistory());
+        List<TrackPoint> points = locationHistoryStore.read(order.getDeliveryPartnerId(),
+                toMillis(window[0]), toMillis(window[1]));
+        return new OrderTrack(order.getId(), order.getDeliveryPartnerId(), window[0], window[1], distanceKm(points), points);
+    }
+
+    // The track runs from pickup (or the order becoming ready, for orders never marked picked up)
+    // until the order reached a final status, or until now while it is still on its way
+    private static LocalDateTime[] window(LocalDateTime createdAt, List<OrderDocumentStatus> history) {
+        LocalDateTime from = createdAt;
+        LocalDateTime ready = null;
+        LocalDateTime pickedUp = null;
+        LocalDateTime to = null;
+        for (OrderDocumentStatus status : history) {
+            switch (status.getStatus()) {
+                case READY_FOR_PICKUP -> ready = status.getCreatedAt();
+                case PICKED_UP -> pickedUp = status.getCreatedAt();
+                case DELIVERED, CANCELLED -> to = status.getCreatedAt();
+                default -> {
+                }
+            }
+        }
+        if (pickedUp != null) {
+            from = pickedUp;
+        } else if (ready != null) {
+            from = ready;
+        }
+        return new LocalDateTime[]{from, to != null ? to : LocalDateTime.now()};
+    }
+
+    // Sum of the legs between consecutive points, skipping GPS jumps no vehicle could have driven
+    private double distanceKm(List<TrackPoint> points) {
+        double total = 0;
+        TrackPoint last = null;
+        for (TrackPoint point : points) {
+            if (last != null) {
+                double leg = Geo.distanceKm(last.getLatitude(), last.getLongitude(), point.getLatitude(), point.getLongitude());
+                double hours = (point.getRecordedAt() - last.getRecordedAt()) / 3_600_000.0;
+                if (hours > 0 && leg / hours > maxSpeedKmh) {
+                    continue;
+                }
+                total += leg;
+            }
+            last = point;
+        }
+        return total;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
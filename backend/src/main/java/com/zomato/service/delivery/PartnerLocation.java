@@ -0,0 +1,16 @@
+package com.zomato.service.delivery;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Immutable latest position of one partner; replaced wholesale on every accepted ping
+@Getter
+@AllArgsConstructor
+public class PartnerLocation {
+
+    private final Long partnerId;
+    private final double latitude;
+    private final double longitude;
+    private final long recordedAt;
+    private final long cell;
+}
@@ -0,0 +1,202 @@
+package com.zomato.service.delivery;
+
+import com.zomato.util.Geo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory uniform grid over partner positions. Each partner is in exactly one cell; nearest
+// queries scan rings of cells outwards from the query point and stop once no closer partner can exist.
+@Component
+public class PartnerLocationIndex {
+
+    public record Match(PartnerLocation location, double distanceKm) {
+    }
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    @Value("${app.delivery.index.cell-degrees:0.01}")
+    private double cellDegrees;
+
+    private final Map<Long, PartnerLocation> locations = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> availability = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    // Last write wins by device time, so pings that arrive out of order never move a partner backwards
+    public boolean update(Long partnerId, double latitude, double longitude, long recordedAt) {
+        boolean[] accepted = new boolean[1];
+        locations.compute(partnerId, (id, previous) -> {
+            if (previous != null && previous.getRecordedAt() > recordedAt) {
+                return previous;
+            }
+            long cell = cellOf(latitude, longitude);
+            if (previous == null || previous.getCell() != cell) {
+                if (previous != null) {
+                    removeFromCell(previous.getCell(), id);
+                }
+                addToCell(cell, id);
+            }
+            accepted[0] = true;
+            return new PartnerLocation(id, latitude, longitude, recordedAt, cell);
+        });
+        if (accepted[0]) {
+            dirty.add(partnerId);
+        }
+        return accepted[0];
+    }
+
+    public PartnerLocation get(Long partnerId) {
+        return locations.get(partnerId);
+    }
+
+    public void remove(Long partnerId) {
+        locations.computeIfPresent(partnerId, (id, previous) -> {
+            removeFromCell(previous.getCell(), id);
+            return null;
+        });
+    }
+
+    public void setAvailable(Long partnerId, boolean available) {
+        availability.put(partnerId, available);
+    }
+
+    public boolean isAvailable(Long partnerId) {
+        return Boolean.TRUE.equals(availability.get(partnerId));
+    }
+
+    public boolean hasAvailability(Long partnerId) {
+        return availability.containsKey(partnerId);
+    }
+
+    // Atomically takes an available partner out of the pool; false if someone else got there first
+    public boolean tryReserve(Long partnerId) {
+        return availability.replace(partnerId, Boolean.TRUE, Boolean.FALSE);
+    }
+
+    public List<Match> nearest(double latitude, double longitude, double radiusKm, int limit,
+                               long freshAfter, boolean availableOnly) {
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.comparingDouble(Match::distanceKm).reversed());
+        int row = (int) Math.floor(latitude / cellDegrees);
+        int column = (int) Math.floor(longitude / cellDegrees);
+        double cosLatitude = Math.max(0.1, Math.cos(Math.toRadians(latitude)));
+        // Width of a cell along its narrower (east-west) side bounds how far each ring reaches
+        double cellKm = cellDegrees * KM_PER_DEGREE * cosLatitude;
+        int maxRing = (int) Math.ceil(radiusKm / cellKm) + 1;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                for (int c = column - ring; c <= column + ring; c++) {
+                    if (Math.abs(r - row) != ring && Math.abs(c - column) != ring) {
+                        continue;
+                    }
+                    Set<Long> members = cells.get(key(r, c));
+                    if (members == null) {
+                        continue;
+                    }
+                    for (Long partnerId : members) {
+                        if (availableOnly && !isAvailable(partnerId)) {
+                            continue;
+                        }
+                        PartnerLocation location = locations.get(partnerId);
+                        if (location == null || location.getRecordedAt() < freshAfter) {
+                            continue;
+                        }
+                        // Flat-earth distance is accurate to well under a percent at city scale and
+                        // needs no trigonometry, so it is used for ranking; winners get the exact value below
+                        double dLatitude = location.getLatitude() - latitude;
+                        double dLongitude = (location.getLongitude() - longitude) * cosLatitude;
+                        double distance = Math.sqrt(dLatitude * dLatitude + dLongitude * dLongitude) * KM_PER_DEGREE;
+                        if (distance > radiusKm || (best.size() >= limit && distance >= best.peek().distanceKm())) {
+                            continue;
+                        }
+                        best.add(new Match(location, distance));
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+            // Everything beyond this ring is at least ring * cellKm away
+            if (best.size() >= limit && best.peek().distanceKm() <= ring * cellKm) {
+                break;
+            }
+        }
+
+        List<Match> result = new ArrayList<>(best.size());
+        for (Match match : best) {
+            PartnerLocation location = match.location();
+            result.add(new Match(location, Geo.distanceKm(latitude, longitude, location.getLatitude(), location.getLongitude())));
+        }
+        result.sort(Comparator.comparingDouble(Match::distanceKm));
+        return result;
+    }
+
+    public List<PartnerLocation> drainDirty() {
+        List<PartnerLocation> changed = new ArrayList<>();
+        for (Long partnerId : dirty) {
+            dirty.remove(partnerId);
+            PartnerLocation location = locations.get(partnerId);
+            if (location != null) {
+                changed.add(location);
+            }
+        }
+        return changed;
+    }
+
+    // Puts positions back in the next flush after a failed write
+    public void markDirty(Long partnerId) {
+        dirty.add(partnerId);
+    }
+
+    public void evictOlderThan(long cutoff) {
+        locations.values().forEach(location -> {
+            if (location.getRecordedAt() < cutoff) {
+                locations.computeIfPresent(location.getPartnerId(), (id, current) -> {
+                    if (current.getRecordedAt() >= cutoff) {
+                        return current;
+                    }
+                    removeFromCell(current.getCell(), id);
+                    return null;
+                });
+            }
+        });
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    // Adds under the map's lock for the cell, so a concurrent removeFromCell cannot drop the set in between
+    private void addToCell(long cell, Long partnerId) {
+        cells.compute(cell, (key, members) -> {
+            if (members == null) {
+                members = ConcurrentHashMap.newKeySet();
+            }
+            members.add(partnerId);
+            return members;
+        });
+    }
+
+    private void removeFromCell(long cell, Long partnerId) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(partnerId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key((int) Math.floor(latitude / cellDegrees), (int) Math.floor(longitude / cellDegrees));
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
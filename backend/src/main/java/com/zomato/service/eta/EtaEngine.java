@@ -0,0 +1,330 @@
+package com.zomato.service.eta;
+
+import com.zomato.dto.OrderItemRequest;
+import com.zomato.dto.RestaurantEtaStats;
+import com.zomato.entity.Address;
+import com.zomato.entity.MenuItem;
+import com.zomato.entity.OrderStatus;
+import com.zomato.entity.Restaurant;
+import com.zomato.event.OrderEvent;
+import com.zomato.repository.OrderItemRepository;
+import com.zomato.repository.OrderRepository;
+import com.zomato.repository.OrderStatusHistoryRepository;
+import com.zomato.service.KitchenAdmissionService;
+import com.zomato.service.geo.DistanceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Learns preparation and delivery times from order status timestamps and predicts delivery ETAs.
+// Everything the placement path reads is already in memory, so an estimate is a handful of map
+// lookups and arithmetic; learning happens after commit from the order events.
+@Service
+public class EtaEngine {
+
+    private static final class RestaurantStats {
+        final Ewma prepMinutes;
+        final Ewma prepRatio; // actual / nominal preparation time
+        final P2Quantile error = new P2Quantile(0.9); // actual - predicted preparation time
+
+        RestaurantStats(double alpha) {
+            prepMinutes = new Ewma(alpha);
+            prepRatio = new Ewma(alpha);
+        }
+    }
+
+    private static final class Timeline {
+        final EtaEstimate estimate;
+        final long placedAt;
+        volatile long confirmedAt;
+        volatile long readyAt;
+        volatile long pickedUpAt;
+
+        Timeline(EtaEstimate estimate, long placedAt) {
+            this.estimate = estimate;
+            this.placedAt = placedAt;
+        }
+    }
+
+    @Autowired
+    private KitchenAdmissionService kitchenAdmissionService;
+
+    @Autowired
+    private DistanceService distanceService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository orderStatusHistoryRepository;
+
+    @Value("${app.eta.alpha:0.2}")
+    private double alpha;
+
+    @Value("${app.eta.min-samples:5}")
+    private int minSamples;
+
+    @Value("${app.eta.kitchen-parallelism:4}")
+    private int kitchenParallelism;
+
+    @Value("${app.eta.default-minutes-per-km:3}")
+    private double defaultMinutesPerKm;
+
+    @Value("${app.eta.default-pickup-minutes:5}")
+    private double defaultPickupMinutes;
+
+    @Value("${app.eta.default-travel-minutes:15}")
+    private double defaultTravelMinutes;
+
+    @Value("${app.eta.warmup-days:14}")
+    private int warmupDays;
+
+    @Value("${app.kitchen.default-preparation-minutes:15}")
+    private int defaultPreparationMinutes;
+
+    private final Map<Long, RestaurantStats> restaurants = new ConcurrentHashMap<>();
+    private final Map<Long, Ewma> items = new ConcurrentHashMap<>();
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+    private volatile Ewma minutesPerKm;
+    private volatile Ewma pickupMinutes;
+
+    public EtaEstimate estimate(Restaurant restaurant, Address address, List<OrderItemRequest> orderItems,
+                                Map<Long, MenuItem> menuItems) {
+        RestaurantStats stats = restaurants.get(restaurant.getId());
+        double ratio = ratio(stats);
+
+        long[] menuItemIds = new long[orderItems.size()];
+        Integer[] nominal = new Integer[orderItems.size()];
+        for (int i = 0; i < orderItems.size(); i++) {
+            MenuItem menuItem = menuItems.get(orderItems.get(i).getMenuItemId());
+            menuItemIds[i] = menuItem.getId();
+            nominal[i] = menuItem.getPreparationTimeMinutes();
+        }
+        List<Long> bottleneck = new ArrayList<>(2);
+        double[] kitchen = predictPreparation(ratio, menuItemIds, nominal, bottleneck);
+        double nominalPrep = kitchen[0];
+        double prep = kitchen[1];
+
+        // Kitchen minutes already in flight, spread over the stations working in parallel
+        double queue = kitchenAdmissionService.currentLoad(restaurant.getId()) * ratio / kitchenParallelism;
+        double buffer = stats != null && stats.error.getCount() >= minSamples ? Math.max(0, stats.error.get()) : 0;
+
+        double distance = distanceService.distanceKm(restaurant.getLatitude(), restaurant.getLongitude(),
+                address.getLatitude(), address.getLongitude());
+        double travel = Double.isNaN(distance)
+                ? defaultTravelMinutes
+                : learned(pickupMinutes, defaultPickupMinutes) + distance * learned(minutesPerKm, defaultMinutesPerKm);
+
+        return new EtaEstimate(restaurant.getId(), bottleneck, nominalPrep, prep, queue, travel, distance,
+                queue + prep + buffer + travel);
+    }
+
+    public void track(Long orderId, EtaEstimate estimate) {
+        timelines.put(orderId, new Timeline(estimate, System.currentTimeMillis()));
+    }
+
+    // Predicted minutes until the kitchen hands the order over; null when the order is not tracked
+    public Double minutesUntilReady(Long orderId) {
+        Timeline timeline = timelines.get(orderId);
+        if (timeline == null) {
+            return null;
+        }
+        if (timeline.readyAt > 0) {
+            return 0.0;
+        }
+        EtaEstimate estimate = timeline.estimate;
+        long readyAt = timeline.placedAt
+                + (long) ((estimate.getQueueMinutes() + estimate.getPredictedPrepMinutes()) * 60_000);
+        return Math.max(0, readyAt - System.currentTimeMillis()) / 60_000.0;
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        long at = toMillis(event.getOccurredAt());
+        observe(event.getOrderId(), event.getStatus(), at);
+    }
+
+    public RestaurantEtaStats getStats(Long restaurantId) {
+        RestaurantStats stats = restaurants.get(restaurantId);
+        return new RestaurantEtaStats(restaurantId,
+                stats != null ? stats.prepMinutes.getCount() : 0L,
+                stats != null ? stats.prepMinutes.get() : null,
+                stats != null ? stats.prepRatio.get() : null,
+                stats != null ? stats.error.get() : null,
+                kitchenAdmissionService.currentLoad(restaurantId),
+                learned(minutesPerKm, defaultMinutesPerKm),
+                learned(pickupMinutes, defaultPickupMinutes));
+    }
+
+    // Orders that never reach a final status would otherwise stay tracked forever
+    @Scheduled(fixedDelayString = "${app.eta.sweep-interval-ms:3600000}")
+    public void dropStale() {
+        long cutoff = System.currentTimeMillis() - 24 * 60 * 60_000L;
+        timelines.values().removeIf(timeline -> timeline.placedAt < cutoff);
+    }
+
+    // Replays recent status history so estimates are useful right after a restart
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime since = LocalDateTime.now().minusDays(warmupDays);
+
+        Map<Long, Object[]> locations = new HashMap<>();
+        for (Object[] row : orderRepository.findLocationsSince(since)) {
+            locations.put((Long) row[0], row);
+        }
+        Map<Long, List<Object[]>> preparation = new HashMap<>();
+        for (Object[] row : orderItemRepository.findPreparationTimesSince(since)) {
+            preparation.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+        }
+
+        Long current = null;
+        for (Object[] row : orderStatusHistoryRepository.findTimelineSince(since)) {
+            Long orderId = (Long) row[0];
+            OrderStatus status = (OrderStatus) row[1];
+            long at = toMillis((LocalDateTime) row[2]);
+            if (!orderId.equals(current)) {
+                current = orderId;
+                Object[] location = locations.get(orderId);
+                List<Object[]> prepRows = preparation.get(orderId);
+                if (location == null || prepRows == null) {
+                    continue;
+                }
+                timelines.put(orderId, new Timeline(replayEstimate(location, prepRows), at));
+            }
+            observe(orderId, status, at);
+        }
+    }
+
+    private EtaEstimate replayEstimate(Object[] location, List<Object[]> prepRows) {
+        Long restaurantId = (Long) location[1];
+        long[] menuItemIds = new long[prepRows.size()];
+        Integer[] nominal = new Integer[prepRows.size()];
+        for (int i = 0; i < prepRows.size(); i++) {
+            menuItemIds[i] = (Long) prepRows.get(i)[1];
+            nominal[i] = (Integer) prepRows.get(i)[2];
+        }
+        List<Long> bottleneck = new ArrayList<>(2);
+        double[] kitchen = predictPreparation(ratio(restaurants.get(restaurantId)), menuItemIds, nominal, bottleneck);
+        double prep = kitchen[1];
+        double distance = distanceService.distanceKm((Double) location[2], (Double) location[3],
+                (Double) location[4], (Double) location[5]);
+        return new EtaEstimate(restaurantId, bottleneck, kitchen[0], prep, 0, 0, distance, prep);
+    }
+
+    // The slowest dish decides when the order is ready. Returns {nominal, predicted} minutes and
+    // collects the dishes that set the nominal time, which are the ones the outcome is credited to.
+    private double[] predictPreparation(double ratio, long[] menuItemIds, Integer[] nominalMinutes, List<Long> bottleneck) {
+        double nominalPrep = 0;
+        double prep = 0;
+        for (int i = 0; i < menuItemIds.length; i++) {
+            double nominal = nominalMinutes[i] != null ? nominalMinutes[i] : defaultPreparationMinutes;
+            Ewma learned = items.get(menuItemIds[i]);
+            if (nominal > nominalPrep) {
+                nominalPrep = nominal;
+                bottleneck.clear();
+            }
+            if (nominal == nominalPrep && !bottleneck.contains(menuItemIds[i])) {
+                bottleneck.add(menuItemIds[i]);
+            }
+            prep = Math.max(prep, learned != null && learned.getCount() >= minSamples ? learned.get() : nominal * ratio);
+        }
+        return new double[]{nominalPrep, prep};
+    }
+
+    private double ratio(RestaurantStats stats) {
+        return stats != null && stats.prepRatio.getCount() >= minSamples ? stats.prepRatio.get() : 1.0;
+    }
+
+    private void observe(Long orderId, OrderStatus status, long at) {
+        Timeline timeline = timelines.get(orderId);
+        if (timeline == null) {
+            return;
+        }
+        switch (status) {
+            case CONFIRMED -> timeline.confirmedAt = at;
+            case READY_FOR_PICKUP -> {
+                timeline.readyAt = at;
+                long start = timeline.confirmedAt > 0 ? timeline.confirmedAt : timeline.placedAt;
+                learnPreparation(timeline.estimate, (at - start) / 60_000.0);
+            }
+            case PICKED_UP -> {
+                timeline.pickedUpAt = at;
+                if (timeline.readyAt > 0) {
+                    pickupEwma().update((at - timeline.readyAt) / 60_000.0);
+                }
+            }
+            case DELIVERED -> {
+                long start = timeline.pickedUpAt > 0 ? timeline.pickedUpAt : timeline.readyAt;
+                double distance = timeline.estimate.getDistanceKm();
+                // Very short trips are dominated by parking and handover, not distance
+                if (start > 0 && !Double.isNaN(distance) && distance >= 0.5) {
+                    minutesPerKmEwma().update((at - start) / 60_000.0 / distance);
+                }
+                timelines.remove(orderId);
+            }
+            case CANCELLED -> timelines.remove(orderId);
+            default -> {
+            }
+        }
+    }
+
+    private void learnPreparation(EtaEstimate estimate, double actualMinutes) {
+        if (actualMinutes <= 0) {
+            return;
+        }
+        RestaurantStats stats = restaurants.computeIfAbsent(estimate.getRestaurantId(), id -> new RestaurantStats(alpha));
+        stats.prepMinutes.update(actualMinutes);
+        if (estimate.getNominalPrepMinutes() > 0) {
+            stats.prepRatio.update(actualMinutes / estimate.getNominalPrepMinutes());
+        }
+        stats.error.add(actualMinutes - estimate.getPredictedPrepMinutes());
+        for (Long menuItemId : estimate.getBottleneckItemIds()) {
+            items.computeIfAbsent(menuItemId, id -> new Ewma(alpha)).update(actualMinutes);
+        }
+    }
+
+    private Ewma pickupEwma() {
+        if (pickupMinutes == null) {
+            synchronized (this) {
+                if (pickupMinutes == null) {
+                    pickupMinutes = new Ewma(alpha);
+                }
+            }
+        }
+        return pickupMinutes;
+    }
+
+    private Ewma minutesPerKmEwma() {
+        if (minutesPerKm == null) {
+            synchronized (this) {
+                if (minutesPerKm == null) {
+                    minutesPerKm = new Ewma(alpha);
+                }
+            }
+        }
+        return minutesPerKm;
+    }
+
+    private double learned(Ewma ewma, double fallback) {
+        return ewma != null && ewma.getCount() >= minSamples ? ewma.get() : fallback;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
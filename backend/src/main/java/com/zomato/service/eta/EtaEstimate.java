@@ -0,0 +1,21 @@
+package com.zomato.service.eta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Breakdown of one placement-time estimate, kept until the order is delivered so the model can learn from it
+@Data
+@AllArgsConstructor
+public class EtaEstimate {
+
+    private Long restaurantId;
+    private List<Long> bottleneckItemIds;
+    private double nominalPrepMinutes;
+    private double predictedPrepMinutes;
+    private double queueMinutes;
+    private double travelMinutes;
+    private double distanceKm; // NaN when either side has no coordinates
+    private double totalMinutes;
+}
@@ -0,0 +1,26 @@
+package com.zomato.service.eta;
+
+// Exponentially weighted moving average. Reads are a volatile load so the placement path never blocks.
+public class Ewma {
+
+    private final double alpha;
+    private volatile double value;
+    private volatile long count;
+
+    public Ewma(double alpha) {
+        this.alpha = alpha;
+    }
+
+    public synchronized void update(double sample) {
+        value = count == 0 ? sample : value + alpha * (sample - value);
+        count++;
+    }
+
+    public double get() {
+        return value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
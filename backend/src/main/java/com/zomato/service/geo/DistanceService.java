@@ -0,0 +1,118 @@
+package com.zomato.service.geo;
+
+import com.zomato.util.Geo;
+import com.zomato.util.LongFloatCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Shared restaurant-to-address distances. With the cache on, single lookups snap both ends to a grid cell
+// and cache the distance between the cell centres per (unordered) cell pair, so the same pair always yields
+// the same value whichever coordinates inside the cells asked first. With the default 0.001 degree cells that is
+// within about 150 m of the exact figure. In road mode the straight-line distance is scaled by a
+// detour factor, which the ETA model's learned minutes per km absorbs once it has samples.
+@Service
+public class DistanceService {
+
+    private static final double NO_FACTOR = 1.0;
+    private static final double KM_PER_DEGREE = Math.toRadians(Geo.EARTH_RADIUS_KM);
+
+    @Value("${app.distance.mode:haversine}")
+    private String mode;
+
+    @Value("${app.distance.road-factor:1.35}")
+    private double roadFactor;
+
+    @Value("${app.distance.cell-degrees:0.001}")
+    private double cellDegrees;
+
+    // 0 computes every lookup. A probe costs more than a haversine when most pairs are new (about 245 ns
+    // against 130 ns in DistanceServiceBenchmark), so the cache only pays for a costlier distance model.
+    @Value("${app.distance.cache-size:0}")
+    private int cacheSize;
+
+    private LongFloatCache cache;
+    private double factor;
+
+    @PostConstruct
+    void init() {
+        cache = cacheSize > 0 ? new LongFloatCache(cacheSize) : null;
+        factor = "haversine".equalsIgnoreCase(mode) ? NO_FACTOR : roadFactor;
+    }
+
+    // NaN when either side has no coordinates
+    public double distanceKm(Double lat1, Double lng1, Double lat2, Double lng2) {
+        if (lat1 == null || lng1 == null || lat2 == null || lng2 == null) {
+            return Double.NaN;
+        }
+        return distanceKm(lat1.doubleValue(), lng1.doubleValue(), lat2.doubleValue(), lng2.doubleValue());
+    }
+
+    public double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        if (cache == null) {
+            return factor * Geo.distanceKm(lat1, lng1, lat2, lng2);
+        }
+        long from = cellOf(lat1, lng1);
+        long to = cellOf(lat2, lng2);
+        long key = pairKey(from, to);
+        float cached = cache.get(key);
+        if (!Float.isNaN(cached)) {
+            return cached;
+        }
+        double fromLat = centreLatitude(from);
+        float distance = (float) (factor * haversine(fromLat, Math.cos(Math.toRadians(fromLat)), centreLongitude(from),
+                centreLatitude(to), centreLongitude(to)));
+        cache.put(key, distance);
+        return distance;
+    }
+
+    // One origin against many destinations: out[i] is the distance to (latitudes[i], longitudes[i]).
+    // Ranking a whole city needs no cache: over city distances the equirectangular projection is within
+    // 0.1% of the great circle and costs a square root per destination, several times cheaper than a
+    // cache probe, which mostly misses when every address is paired with every restaurant.
+    public void distancesKm(double latitude, double longitude, double[] latitudes, double[] longitudes, int count,
+                            double[] out) {
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double scale = factor * KM_PER_DEGREE;
+        for (int i = 0; i < count; i++) {
+            double dLat = latitudes[i] - latitude;
+            double dLng = (longitudes[i] - longitude) * cosLat;
+            out[i] = scale * Math.sqrt(dLat * dLat + dLng * dLng);
+        }
+    }
+
+    public void clearCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    // Latitude and longitude cell numbers packed side by side; both fit in 32 bits at any sane cell size
+    private long cellOf(double latitude, double longitude) {
+        long row = (long) Math.floor(latitude / cellDegrees);
+        long column = (long) Math.floor(longitude / cellDegrees);
+        return (row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private double centreLatitude(long cell) {
+        return ((cell >> 32) + 0.5) * cellDegrees;
+    }
+
+    private double centreLongitude(long cell) {
+        return ((int) cell + 0.5) * cellDegrees;
+    }
+
+    // Distance is symmetric, so both directions share an entry
+    private static long pairKey(long a, long b) {
+        long low = Math.min(a, b);
+        long high = Math.max(a, b);
+        return low * 0x9E3779B97F4A7C15L + Long.rotateLeft(high, 31);
+    }
+
+    private static double haversine(double lat1, double cosLat1, double lng1, double lat2, double lng2) {
+        double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinLng = Math.sin(Math.toRadians(lng2 - lng1) / 2);
+        double a = sinLat * sinLat + cosLat1 * Math.cos(Math.toRadians(lat2)) * sinLng * sinLng;
+        return 2 * Geo.EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,103 @@
+package com.zomato.service.geo;
+
+import com.zomato.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Positions of all active restaurants held as parallel primitive arrays, so ranking every restaurant
+// by distance from an address needs no query and no per-restaurant objects
+@Component
+public class RestaurantLocations {
+
+    public record Match(Long restaurantId, double distanceKm) {
+    }
+
+    private record Snapshot(long[] ids, double[] latitudes, double[] longitudes) {
+    }
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private DistanceService distanceService;
+
+    private volatile Snapshot snapshot;
+
+    // Nearest restaurants within the radius, closest first
+    public List<Match> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        Snapshot current = snapshot();
+        int count = current.ids().length;
+        double[] distances = new double[count];
+        distanceService.distancesKm(latitude, longitude, current.latitudes(), current.longitudes(), count, distances);
+
+        // Distance and position packed in one long sort by distance; non-negative float bits order like the floats
+        long[] ranked = new long[count];
+        int within = 0;
+        for (int i = 0; i < count; i++) {
+            if (distances[i] <= radiusKm) {
+                ranked[within++] = ((long) Float.floatToIntBits((float) distances[i]) << 32) | i;
+            }
+        }
+        Arrays.sort(ranked, 0, within);
+
+        List<Match> result = new ArrayList<>(Math.min(limit, within));
+        for (int i = 0; i < within && result.size() < limit; i++) {
+            int index = (int) ranked[i];
+            result.add(new Match(current.ids()[index], distances[index]));
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.distance.restaurants-refresh-ms:60000}")
+    public void refresh() {
+        snapshot = load();
+    }
+
+    private Snapshot load() {
+        List<Object[]> rows = restaurantRepository.findActiveLocations();
+        long[] ids = new long[rows.size()];
+        double[] latitudes = new double[rows.size()];
+        double[] longitudes = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = (Long) rows.get(i)[0];
+            latitudes[i] = (Double) rows.get(i)[1];
+            longitudes[i] = (Double) rows.get(i)[2];
+        }
+        return new Snapshot(ids, latitudes, longitudes);
+    }
+
+    // Reloaded on next use once the change that moved or added a restaurant has committed
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot = null;
+                }
+            });
+        } else {
+            snapshot = null;
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,310 @@
+package com.zomato.service.popularity;
+
+import com.zomato.dto.AlsoOrderedItem;
+import com.zomato.dto.OrderDocumentItem;
+import com.zomato.dto.RecommendationRebuildResult;
+import com.zomato.entity.OrderStatus;
+import com.zomato.event.OrderEvent;
+import com.zomato.service.OrderArchiveService;
+import com.zomato.util.LongHashSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// "Customers also ordered": dishes that share delivered orders with a dish at the same restaurant. Each
+// restaurant has a co-occurrence matrix that every delivered order updates; restaurants whose matrix changed
+// have their top neighbours per dish republished on a schedule, with the dish details, so the cart page
+// gets its suggestions from a map lookup. rebuild() recounts the whole order history, live and archived,
+// one restaurant per fork/join task.
+@Service
+public class AlsoOrderedService {
+
+    private record Delivered(long restaurantId, long orderId, long[] itemIds) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Value("${app.recommendations.neighbours:10}")
+    private int neighbourCount;
+
+    @Value("${app.recommendations.min-together:2}")
+    private int minTogether;
+
+    // Large group orders would add pairs quadratically while saying little about what goes together
+    @Value("${app.recommendations.max-items-per-order:30}")
+    private int maxItemsPerOrder;
+
+    // Rebuild tasks each hold a database connection while they run
+    @Value("${app.recommendations.rebuild-parallelism:4}")
+    private int parallelism;
+
+    private final Map<Long, CoOccurrenceMatrix> matrices = new ConcurrentHashMap<>();
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    // Menu item id to the dishes most often ordered with it, best first
+    private final Map<Long, List<AlsoOrderedItem>> neighbours = new ConcurrentHashMap<>();
+
+    // Restaurant id to the dish ids it last published, so dishes that left the menu are unpublished
+    private final Map<Long, long[]> published = new ConcurrentHashMap<>();
+
+    // Orders delivered while a rebuild runs, replayed into a rebuilt matrix if its queries missed them
+    private final Object rebuildLock = new Object();
+    private List<Delivered> deliveredDuringRebuild;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile RecommendationRebuildResult lastRebuild;
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getStatus() != OrderStatus.DELIVERED) {
+            return;
+        }
+        long[] itemIds = jdbcTemplate.queryForList("SELECT DISTINCT menu_item_id FROM order_items WHERE order_id = ?",
+                Long.class, event.getOrderId()).stream().mapToLong(Long::longValue).toArray();
+        synchronized (rebuildLock) {
+            CoOccurrenceMatrix matrix = matrices.computeIfAbsent(event.getRestaurantId(), id -> new CoOccurrenceMatrix());
+            synchronized (matrix) {
+                matrix.addOrder(itemIds, maxItemsPerOrder);
+            }
+            if (deliveredDuringRebuild != null) {
+                deliveredDuringRebuild.add(new Delivered(event.getRestaurantId(), event.getOrderId(), itemIds));
+            }
+        }
+        changed.add(event.getRestaurantId());
+    }
+
+    // Suggestions for a basket: each dish's neighbours, scores summed over the basket, minus what is in it
+    public List<AlsoOrderedItem> recommend(Collection<Long> menuItemIds, int limit) {
+        Map<Long, AlsoOrderedItem> candidates = new HashMap<>();
+        for (Long menuItemId : menuItemIds) {
+            for (AlsoOrderedItem item : neighbours.getOrDefault(menuItemId, List.of())) {
+                if (menuItemIds.contains(item.getMenuItemId())) {
+                    continue;
+                }
+                AlsoOrderedItem candidate = candidates.get(item.getMenuItemId());
+                if (candidate == null) {
+                    candidates.put(item.getMenuItemId(), new AlsoOrderedItem(item.getMenuItemId(), item.getName(),
+                            item.getPrice(), item.getImageUrl(), item.getIsVegetarian(), item.getScore()));
+                } else {
+                    candidate.setScore(candidate.getScore() + item.getScore());
+                }
+            }
+        }
+        List<AlsoOrderedItem> ranked = new ArrayList<>(candidates.values());
+        ranked.sort((a, b) -> Float.compare(b.getScore(), a.getScore()));
+        return ranked.subList(0, Math.min(limit, ranked.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendations.publish-interval-ms:60000}",
+            initialDelayString = "${app.recommendations.publish-interval-ms:60000}")
+    public void publish() {
+        for (Long restaurantId : new ArrayList<>(changed)) {
+            changed.remove(restaurantId);
+            publish(restaurantId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild();
+    }
+
+    public RecommendationRebuildResult rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RuntimeException("Recommendation rebuild is already running");
+        }
+        long started = System.currentTimeMillis();
+        synchronized (rebuildLock) {
+            deliveredDuringRebuild = new ArrayList<>();
+        }
+        try {
+            List<Long> restaurantIds = jdbcTemplate.queryForList("SELECT restaurant_id FROM orders " +
+                    "WHERE status = 'DELIVERED' UNION SELECT restaurant_id FROM archived_orders " +
+                    "WHERE status = 'DELIVERED'", Long.class);
+            AtomicLong orders = new AtomicLong();
+            AtomicLong pairs = new AtomicLong();
+            if (!restaurantIds.isEmpty()) {
+                ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+                try {
+                    pool.invoke(new RebuildTask(restaurantIds, 0, restaurantIds.size(), orders, pairs));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            changed.addAll(matrices.keySet());
+            publish();
+            lastRebuild = new RecommendationRebuildResult(restaurantIds.size(), orders.get(), pairs.get(),
+                    System.currentTimeMillis() - started, LocalDateTime.now());
+            return lastRebuild;
+        } finally {
+            synchronized (rebuildLock) {
+                deliveredDuringRebuild = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    public RecommendationRebuildResult getLastRebuild() {
+        return lastRebuild;
+    }
+
+    // Splits the restaurants in halves down to one per task
+    private class RebuildTask extends RecursiveAction {
+
+        private final List<Long> restaurantIds;
+        private final int from;
+        private final int to;
+        private final AtomicLong orders;
+        private final AtomicLong pairs;
+
+        RebuildTask(List<Long> restaurantIds, int from, int to, AtomicLong orders, AtomicLong pairs) {
+            this.restaurantIds = restaurantIds;
+            this.from = from;
+            this.to = to;
+            this.orders = orders;
+            this.pairs = pairs;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                rebuild(restaurantIds.get(from), orders, pairs);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RebuildTask(restaurantIds, from, middle, orders, pairs),
+                    new RebuildTask(restaurantIds, middle, to, orders, pairs));
+        }
+    }
+
+    private void rebuild(long restaurantId, AtomicLong orders, AtomicLong pairs) {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        LongHashSet counted = new LongHashSet();
+
+        // Rows arrive grouped by order; an order is added once its last row has been read
+        long[] current = {0};
+        long[][] items = {new long[16]};
+        int[] size = {0};
+        jdbcTemplate.query("SELECT oi.order_id, oi.menu_item_id FROM order_items oi " +
+                        "JOIN orders o ON o.id = oi.order_id WHERE o.restaurant_id = ? AND o.status = 'DELIVERED' " +
+                        "ORDER BY oi.order_id",
+                rs -> {
+                    long orderId = rs.getLong(1);
+                    if (orderId != current[0] && size[0] > 0) {
+                        matrix.addOrder(distinct(items[0], size[0]), maxItemsPerOrder);
+                        counted.add(current[0]);
+                        size[0] = 0;
+                    }
+                    current[0] = orderId;
+                    if (size[0] == items[0].length) {
+                        items[0] = Arrays.copyOf(items[0], size[0] * 2);
+                    }
+                    items[0][size[0]++] = rs.getLong(2);
+                }, restaurantId);
+        if (size[0] > 0) {
+            matrix.addOrder(distinct(items[0], size[0]), maxItemsPerOrder);
+            counted.add(current[0]);
+        }
+
+        jdbcTemplate.query("SELECT order_id, document FROM archived_orders WHERE restaurant_id = ? " +
+                        "AND status = 'DELIVERED'",
+                rs -> {
+                    List<OrderDocumentItem> orderItems = orderArchiveService.read(rs.getBytes(2)).getOrderItems();
+                    long[] ids = orderItems.stream().filter(item -> item.getMenuItemId() != null)
+                            .mapToLong(OrderDocumentItem::getMenuItemId).toArray();
+                    matrix.addOrder(distinct(ids, ids.length), maxItemsPerOrder);
+                    counted.add(rs.getLong(1));
+                }, restaurantId);
+
+        synchronized (rebuildLock) {
+            for (Delivered delivered : deliveredDuringRebuild) {
+                if (delivered.restaurantId() == restaurantId && !counted.contains(delivered.orderId())) {
+                    matrix.addOrder(delivered.itemIds(), maxItemsPerOrder);
+                    counted.add(delivered.orderId());
+                }
+            }
+            matrices.put(restaurantId, matrix);
+        }
+        orders.addAndGet(counted.size());
+        pairs.addAndGet(matrix.pairs());
+    }
+
+    private void publish(Long restaurantId) {
+        CoOccurrenceMatrix matrix = matrices.get(restaurantId);
+        if (matrix == null) {
+            return;
+        }
+        Map<Long, AlsoOrderedItem> menu = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, name, price, image_url, is_vegetarian FROM menu_items " +
+                        "WHERE restaurant_id = ? AND is_available = TRUE",
+                rs -> {
+                    menu.put(rs.getLong(1), new AlsoOrderedItem(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3),
+                            rs.getString(4), rs.getBoolean(5), null));
+                }, restaurantId);
+        long[] itemIds = menu.keySet().stream().mapToLong(Long::longValue).toArray();
+
+        CoOccurrenceMatrix.Neighbours[] result;
+        synchronized (matrix) {
+            result = matrix.neighbours(itemIds, neighbourCount, minTogether);
+        }
+        for (int i = 0; i < itemIds.length; i++) {
+            if (result[i] == null) {
+                neighbours.remove(itemIds[i]);
+                continue;
+            }
+            List<AlsoOrderedItem> list = new ArrayList<>(result[i].itemIds().length);
+            for (int j = 0; j < result[i].itemIds().length; j++) {
+                AlsoOrderedItem item = menu.get(result[i].itemIds()[j]);
+                list.add(new AlsoOrderedItem(item.getMenuItemId(), item.getName(), item.getPrice(), item.getImageUrl(),
+                        item.getIsVegetarian(), result[i].scores()[j]));
+            }
+            neighbours.put(itemIds[i], List.copyOf(list));
+        }
+        long[] previous = published.put(restaurantId, itemIds);
+        if (previous != null) {
+            for (long itemId : previous) {
+                if (!menu.containsKey(itemId)) {
+                    neighbours.remove(itemId);
+                }
+            }
+        }
+    }
+
+    private static long[] distinct(long[] ids, int size) {
+        long[] sorted = Arrays.copyOf(ids, size);
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+}
@@ -0,0 +1,125 @@
+package com.zomato.service.popularity;
+
+import com.zomato.entity.MenuItem;
+import com.zomato.entity.OrderStatus;
+import com.zomato.event.OrderEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bestsellers are the dishes in the most delivered orders of their restaurant over the last few days. Counts
+// are kept per restaurant in memory, fed by each delivered order, and the top dishes of every restaurant are
+// published as an immutable map on a schedule, so marking a menu costs a map lookup and no query.
+// An order counts once per dish however many portions it had, so one large order cannot make a bestseller.
+@Service
+public class BestsellerService {
+
+    private static final long[] NONE = new long[0];
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.bestsellers.window-days:28}")
+    private int windowDays;
+
+    @Value("${app.bestsellers.top-n:3}")
+    private int topN;
+
+    @Value("${app.bestsellers.min-orders:5}")
+    private int minOrders;
+
+    private final Map<Long, RollingItemCounts> counts = new ConcurrentHashMap<>();
+
+    // Restaurant id to its bestseller item ids, best first; replaced whole on every publish
+    private volatile Map<Long, long[]> bestsellers = Map.of();
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getStatus() != OrderStatus.DELIVERED) {
+            return;
+        }
+        List<Long> menuItemIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT menu_item_id FROM order_items WHERE order_id = ?", Long.class, event.getOrderId());
+        LocalDateTime deliveredAt = event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now();
+        record(event.getRestaurantId(), menuItemIds, deliveredAt.toLocalDate().toEpochDay());
+    }
+
+    // Loads the window from orders delivered before startup; orders delivered from now on arrive as events
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate from = now.toLocalDate().minusDays(windowDays - 1);
+        jdbcTemplate.query("SELECT o.restaurant_id, oi.menu_item_id, MAX(o.updated_at) FROM orders o " +
+                        "JOIN order_items oi ON oi.order_id = o.id WHERE o.status = 'DELIVERED' " +
+                        "AND o.updated_at >= ? AND o.updated_at < ? GROUP BY o.id, o.restaurant_id, oi.menu_item_id",
+                rs -> {
+                    long day = rs.getTimestamp(3).toLocalDateTime().toLocalDate().toEpochDay();
+                    RollingItemCounts restaurant = countsOf(rs.getLong(1));
+                    synchronized (restaurant) {
+                        restaurant.add(rs.getLong(2), day, 1);
+                    }
+                }, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(now));
+        publish();
+    }
+
+    @Scheduled(fixedDelayString = "${app.bestsellers.publish-interval-ms:60000}",
+            initialDelayString = "${app.bestsellers.publish-interval-ms:60000}")
+    public void publish() {
+        long today = LocalDate.now().toEpochDay();
+        Map<Long, long[]> published = new HashMap<>();
+        counts.forEach((restaurantId, restaurant) -> {
+            long[] top;
+            synchronized (restaurant) {
+                restaurant.advanceTo(today);
+                top = restaurant.top(topN, minOrders);
+            }
+            if (top.length > 0) {
+                published.put(restaurantId, top);
+            }
+        });
+        bestsellers = Map.copyOf(published);
+    }
+
+    // Menus are all from one restaurant
+    public void markBestsellers(Long restaurantId, List<MenuItem> menuItems) {
+        long[] top = bestsellers.getOrDefault(restaurantId, NONE);
+        for (MenuItem menuItem : menuItems) {
+            menuItem.setIsBestseller(menuItem.getId() != null && contains(top, menuItem.getId()));
+        }
+    }
+
+    private void record(Long restaurantId, List<Long> menuItemIds, long day) {
+        RollingItemCounts restaurant = countsOf(restaurantId);
+        synchronized (restaurant) {
+            for (Long menuItemId : menuItemIds) {
+                restaurant.add(menuItemId, day, 1);
+            }
+        }
+    }
+
+    private RollingItemCounts countsOf(Long restaurantId) {
+        return counts.computeIfAbsent(restaurantId, id -> new RollingItemCounts(windowDays));
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        for (long candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,129 @@
+package com.zomato.service.popularity;
+
+import com.zomato.util.LongIntHashMap;
+
+import java.util.Arrays;
+
+// Sparse co-occurrence counts of one restaurant's dishes: how many delivered orders contained both of a pair,
+// keyed (smaller id << 32 | larger id), with the diagonal (id << 32 | id) holding how many contained the dish.
+// Not thread-safe; callers guard it.
+final class CoOccurrenceMatrix {
+
+    private static final long MAX_ID = 0xFFFFFFFFL;
+
+    record Neighbours(long[] itemIds, float[] scores) {
+    }
+
+    private final LongIntHashMap counts = new LongIntHashMap();
+
+    // Distinct dish ids of one order; dishes beyond maxItems, or with ids over 32 bits, are left out
+    void addOrder(long[] itemIds, int maxItems) {
+        int n = 0;
+        long[] ids = new long[Math.min(itemIds.length, maxItems)];
+        for (long id : itemIds) {
+            if (n < ids.length && id > 0 && id <= MAX_ID) {
+                ids[n++] = id;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            counts.addTo(ids[i] << 32 | ids[i], 1);
+            for (int j = i + 1; j < n; j++) {
+                counts.addTo(Math.min(ids[i], ids[j]) << 32 | Math.max(ids[i], ids[j]), 1);
+            }
+        }
+    }
+
+    int pairs() {
+        return counts.size();
+    }
+
+    // The k dishes most often ordered with each dish, scored by cosine similarity of their order sets,
+    // together / sqrt(orders of one * orders of the other), so staples that go with everything rank
+    // below dishes that go with this one in particular. Pairs seen in fewer than minTogether orders are skipped.
+    Neighbours[] neighbours(long[] itemIds, int k, int minTogether) {
+        LongIntHashMap index = new LongIntHashMap();
+        for (int i = 0; i < itemIds.length; i++) {
+            index.addTo(itemIds[i], i + 1);
+        }
+        // Per dish a min-heap of (score bits << 32 | neighbour id); non-negative float bits order like the floats
+        long[][] heaps = new long[itemIds.length][];
+        int[] sizes = new int[itemIds.length];
+        for (int slot = 0; slot < counts.capacity(); slot++) {
+            long key = counts.keyAt(slot);
+            int together = counts.valueAt(slot);
+            long a = key >>> 32;
+            long b = key & MAX_ID;
+            if (key == 0 || a == b || together < minTogether) {
+                continue;
+            }
+            int ia = index.get(a) - 1;
+            int ib = index.get(b) - 1;
+            if (ia < 0 || ib < 0) {
+                continue; // No longer on the menu
+            }
+            float score = (float) (together / Math.sqrt((double) counts.get(a << 32 | a) * counts.get(b << 32 | b)));
+            long bits = (long) Float.floatToIntBits(score) << 32;
+            offer(heaps, sizes, ia, bits | b, k);
+            offer(heaps, sizes, ib, bits | a, k);
+        }
+
+        Neighbours[] result = new Neighbours[itemIds.length];
+        for (int i = 0; i < itemIds.length; i++) {
+            if (sizes[i] == 0) {
+                continue;
+            }
+            long[] heap = heaps[i];
+            Arrays.sort(heap, 0, sizes[i]);
+            long[] ids = new long[sizes[i]];
+            float[] scores = new float[sizes[i]];
+            for (int j = 0; j < sizes[i]; j++) {
+                long entry = heap[sizes[i] - 1 - j];
+                ids[j] = entry & MAX_ID;
+                scores[j] = Float.intBitsToFloat((int) (entry >>> 32));
+            }
+            result[i] = new Neighbours(ids, scores);
+        }
+        return result;
+    }
+
+    private static void offer(long[][] heaps, int[] sizes, int item, long entry, int k) {
+        long[] heap = heaps[item];
+        if (heap == null) {
+            heap = heaps[item] = new long[k];
+        }
+        int size = sizes[item];
+        if (size < k) {
+            heap[size] = entry;
+            int i = size;
+            while (i > 0 && heap[(i - 1) / 2] > heap[i]) {
+                swap(heap, i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+            sizes[item] = size + 1;
+        } else if (entry > heap[0]) {
+            heap[0] = entry;
+            int i = 0;
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                if (left < k && heap[left] < heap[smallest]) {
+                    smallest = left;
+                }
+                if (left + 1 < k && heap[left + 1] < heap[smallest]) {
+                    smallest = left + 1;
+                }
+                if (smallest == i) {
+                    break;
+                }
+                swap(heap, i, smallest);
+                i = smallest;
+            }
+        }
+    }
+
+    private static void swap(long[] heap, int a, int b) {
+        long t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+    }
+}
@@ -0,0 +1,152 @@
+package com.zomato.service.popularity;
+
+import java.util.Arrays;
+
+// Order counts per menu item of one restaurant over the last `days` days, in one daily bucket per day kept
+// as a ring. Items live in an open-addressed table of primitive arrays: slot i holds the item id in ids[i],
+// its per-day counts in counts[i * days .. i * days + days) and their sum in totals[i]. Items whose
+// window empties are dropped when the table is next rebuilt. Not thread-safe; callers guard it.
+final class RollingItemCounts {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final int days;
+    private long[] ids;
+    private int[] counts;
+    private int[] totals;
+    private int mask;
+    private int size;
+    private long today = Long.MIN_VALUE;
+
+    RollingItemCounts(int days) {
+        this.days = days;
+        allocate(MIN_CAPACITY);
+    }
+
+    // Orders older than the window, or from a day already rolled out, are ignored
+    void add(long itemId, long day, int count) {
+        if (day > today) {
+            advanceTo(day);
+        }
+        if (day <= today - days) {
+            return;
+        }
+        int slot = slotOf(itemId);
+        counts[slot * days + (int) Math.floorMod(day, (long) days)] += count;
+        totals[slot] += count;
+    }
+
+    // Drops the buckets of days that left the window
+    void advanceTo(long day) {
+        if (day <= today) {
+            return;
+        }
+        if (today == Long.MIN_VALUE) {
+            today = day;
+            return;
+        }
+        long expired = Math.min(day - today, days);
+        boolean emptied = false;
+        for (long old = day - expired + 1; old <= day; old++) {
+            int bucket = (int) Math.floorMod(old, (long) days);
+            for (int slot = 0; slot <= mask; slot++) {
+                if (ids[slot] != 0) {
+                    int dropped = counts[slot * days + bucket];
+                    if (dropped != 0) {
+                        counts[slot * days + bucket] = 0;
+                        totals[slot] -= dropped;
+                        emptied |= totals[slot] == 0;
+                    }
+                }
+            }
+        }
+        today = day;
+        if (emptied) {
+            rehash(mask + 1);
+        }
+    }
+
+    // Up to n item ids with at least minCount orders in the window, most ordered first
+    long[] top(int n, int minCount) {
+        long[] ranked = new long[size];
+        int candidates = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (ids[slot] != 0 && totals[slot] >= minCount) {
+                // Total in the high half sorts by count; the slot in the low half breaks ties and finds the id
+                ranked[candidates++] = ((long) totals[slot] << 32) | slot;
+            }
+        }
+        Arrays.sort(ranked, 0, candidates);
+        int length = Math.min(n, candidates);
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = ids[(int) ranked[candidates - 1 - i]];
+        }
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slotOf(long itemId) {
+        int slot = (int) mix(itemId) & mask;
+        while (ids[slot] != 0) {
+            if (ids[slot] == itemId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = itemId;
+        if (++size > (mask + 1) / 2) {
+            rehash((mask + 1) * 2);
+            return slotOf(itemId);
+        }
+        return slot;
+    }
+
+    // Rebuilds the table at the given capacity. Growing keeps every item, including one just inserted whose
+    // first count has not landed yet; otherwise items with nothing left in the window are left out.
+    private void rehash(int capacity) {
+        long[] oldIds = ids;
+        int[] oldCounts = counts;
+        int[] oldTotals = totals;
+        boolean keepEmpty = capacity > oldIds.length;
+        int live = 0;
+        for (int slot = 0; slot < oldIds.length; slot++) {
+            if (oldIds[slot] != 0 && (keepEmpty || oldTotals[slot] != 0)) {
+                live++;
+            }
+        }
+        while (capacity > MIN_CAPACITY && live * 4 < capacity) {
+            capacity /= 2;
+        }
+        allocate(capacity);
+        for (int slot = 0; slot < oldIds.length; slot++) {
+            if (oldIds[slot] != 0 && (keepEmpty || oldTotals[slot] != 0)) {
+                int target = (int) mix(oldIds[slot]) & mask;
+                while (ids[target] != 0) {
+                    target = (target + 1) & mask;
+                }
+                ids[target] = oldIds[slot];
+                System.arraycopy(oldCounts, slot * days, counts, target * days, days);
+                totals[target] = oldTotals[slot];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        counts = new int[capacity * days];
+        totals = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+}
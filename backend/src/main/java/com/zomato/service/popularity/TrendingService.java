@@ -0,0 +1,180 @@
+package com.zomato.service.popularity;
+
+import com.zomato.dto.TrendingDish;
+import com.zomato.entity.OrderStatus;
+import com.zomato.event.OrderEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// "Trending now": the dishes in the most orders placed in each delivery city over the last hour. Placed
+// orders feed one sliding-window sketch per city, and every few seconds the top dishes of each city are
+// looked up once and published as an immutable map, so the home page reads them without a query.
+@Service
+public class TrendingService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.trending.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${app.trending.buckets:12}")
+    private int bucketCount;
+
+    @Value("${app.trending.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${app.trending.sketch-width:2048}")
+    private int sketchWidth;
+
+    @Value("${app.trending.candidates:64}")
+    private int candidates;
+
+    @Value("${app.trending.top-n:20}")
+    private int topN;
+
+    // Caps memory at max-cities windows. Orders from further cities are not tracked until a window
+    // empties and is dropped, which happens once its city has had no orders for a full window length.
+    @Value("${app.trending.max-cities:50}")
+    private int maxCities;
+
+    private final Map<String, TrendingWindow> windows = new ConcurrentHashMap<>();
+
+    private volatile Map<String, List<TrendingDish>> trending = Map.of();
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getStatus() != OrderStatus.PENDING) {
+            return;
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT DISTINCT a.city, oi.menu_item_id " +
+                "FROM orders o JOIN addresses a ON a.id = o.address_id JOIN order_items oi ON oi.order_id = o.id " +
+                "WHERE o.id = ?", event.getOrderId());
+        LocalDateTime placedAt = event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now();
+        for (Map<String, Object> row : rows) {
+            record((String) row.get("city"), ((Number) row.get("menu_item_id")).longValue(), placedAt);
+        }
+    }
+
+    // Fills the window from orders placed before startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.query("SELECT DISTINCT o.id, a.city, oi.menu_item_id, o.created_at FROM orders o " +
+                        "JOIN addresses a ON a.id = o.address_id JOIN order_items oi ON oi.order_id = o.id " +
+                        "WHERE o.created_at >= ? AND o.created_at < ?",
+                rs -> {
+                    record(rs.getString(2), rs.getLong(3), rs.getTimestamp(4).toLocalDateTime());
+                }, Timestamp.valueOf(now.minusMinutes(windowMinutes)), Timestamp.valueOf(now));
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.refresh-ms:5000}", initialDelayString = "${app.trending.refresh-ms:5000}")
+    public void refresh() {
+        long bucket = bucketOf(LocalDateTime.now());
+        Map<String, List<TrendingWindow.Entry>> tops = new HashMap<>();
+        Set<Long> itemIds = new LinkedHashSet<>();
+        windows.forEach((city, window) -> {
+            List<TrendingWindow.Entry> top;
+            synchronized (window) {
+                window.advanceTo(bucket);
+                top = window.top(topN);
+            }
+            if (!top.isEmpty()) {
+                tops.put(city, top);
+                top.forEach(entry -> itemIds.add(entry.itemId()));
+            }
+        });
+        windows.forEach((city, window) -> windows.computeIfPresent(city, (key, current) -> {
+            synchronized (current) {
+                return current.isEmpty() ? null : current;
+            }
+        }));
+
+        Map<Long, TrendingDish> dishes = loadDishes(itemIds);
+        Map<String, List<TrendingDish>> published = new HashMap<>();
+        tops.forEach((city, top) -> {
+            List<TrendingDish> list = new ArrayList<>(top.size());
+            for (TrendingWindow.Entry entry : top) {
+                TrendingDish dish = dishes.get(entry.itemId());
+                if (dish != null) {
+                    list.add(new TrendingDish(dish.getMenuItemId(), dish.getName(), dish.getImageUrl(),
+                            dish.getPrice(), dish.getRestaurantId(), dish.getRestaurantName(), entry.orders()));
+                }
+            }
+            published.put(city, List.copyOf(list));
+        });
+        trending = Map.copyOf(published);
+    }
+
+    public List<TrendingDish> getTrending(String city, int limit) {
+        List<TrendingDish> dishes = trending.getOrDefault(normalize(city), List.of());
+        return dishes.subList(0, Math.min(limit, dishes.size()));
+    }
+
+    private void record(String city, long menuItemId, LocalDateTime placedAt) {
+        String key = normalize(city);
+        if (key.isEmpty()) {
+            return;
+        }
+        long bucket = bucketOf(placedAt);
+        // Added inside compute so a refresh cannot drop the window between its lookup and the add
+        windows.compute(key, (k, window) -> {
+            if (window == null) {
+                if (windows.size() >= maxCities) {
+                    return null;
+                }
+                window = new TrendingWindow(bucketCount, sketchDepth, sketchWidth, candidates);
+            }
+            synchronized (window) {
+                window.add(menuItemId, bucket, 1);
+            }
+            return window;
+        });
+    }
+
+    // Dishes still on sale, with their restaurant, in one query per refresh
+    private Map<Long, TrendingDish> loadDishes(Set<Long> itemIds) {
+        Map<Long, TrendingDish> dishes = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return dishes;
+        }
+        String ids = itemIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        jdbcTemplate.query("SELECT m.id, m.name, m.image_url, m.price, r.id, r.name FROM menu_items m " +
+                        "JOIN restaurants r ON r.id = m.restaurant_id WHERE m.id IN (" + ids + ") " +
+                        "AND m.is_available = TRUE AND r.is_active = TRUE",
+                rs -> {
+                    dishes.put(rs.getLong(1), new TrendingDish(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getBigDecimal(4), rs.getLong(5), rs.getString(6), null));
+                });
+        return dishes;
+    }
+
+    private long bucketOf(LocalDateTime time) {
+        long bucketMillis = Math.max(1, windowMinutes * 60_000L / bucketCount);
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / bucketMillis;
+    }
+
+    private static String normalize(String city) {
+        return city != null ? city.trim().toLowerCase(Locale.ROOT) : "";
+    }
+}
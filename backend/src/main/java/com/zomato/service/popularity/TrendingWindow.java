@@ -0,0 +1,161 @@
+package com.zomato.service.popularity;
+
+import com.zomato.util.CountMinSketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Heavy hitters of one city over a sliding window. The window is a ring of per-bucket Count-Min sketches plus
+// one sketch holding their sum: an order is added to its bucket and to the sum, and a bucket leaving the
+// window is subtracted from the sum and cleared, so a window estimate is a single lookup. The likely top items
+// are kept in a bounded min-heap on their window estimate, which a new item enters by beating the smallest.
+// Memory is fixed by the sketch shape and heap size however many dishes are ordered. Not thread-safe.
+final class TrendingWindow {
+
+    record Entry(long itemId, int orders) {
+    }
+
+    private final CountMinSketch[] buckets;
+    private final CountMinSketch window;
+    private long current = Long.MIN_VALUE;
+    private long newest = Long.MIN_VALUE;
+
+    // Min-heap on estimates; membership is a scan, which at a few dozen entries beats any index
+    private final long[] heapIds;
+    private final int[] heapEstimates;
+    private int heapSize;
+
+    TrendingWindow(int bucketCount, int depth, int width, int candidates) {
+        buckets = new CountMinSketch[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(depth, width);
+        }
+        window = new CountMinSketch(depth, width);
+        heapIds = new long[candidates];
+        heapEstimates = new int[candidates];
+    }
+
+    // bucket is the time divided by the bucket length; orders older than the window are ignored
+    void add(long itemId, long bucket, int count) {
+        if (bucket > current) {
+            advanceTo(bucket);
+        }
+        if (bucket <= current - buckets.length) {
+            return;
+        }
+        buckets[(int) Math.floorMod(bucket, (long) buckets.length)].add(itemId, count);
+        window.add(itemId, count);
+        newest = Math.max(newest, bucket);
+        offer(itemId, window.estimate(itemId));
+    }
+
+    // Slides the window forward, then re-estimates the candidates, whose counts only fall as buckets expire
+    void advanceTo(long bucket) {
+        if (bucket <= current) {
+            return;
+        }
+        if (current != Long.MIN_VALUE) {
+            long expired = Math.min(bucket - current, buckets.length);
+            for (long old = bucket - expired + 1; old <= bucket; old++) {
+                CountMinSketch leaving = buckets[(int) Math.floorMod(old, (long) buckets.length)];
+                window.merge(leaving, -1);
+                leaving.clear();
+            }
+        }
+        current = bucket;
+
+        int kept = 0;
+        for (int i = 0; i < heapSize; i++) {
+            int estimate = window.estimate(heapIds[i]);
+            if (estimate > 0) {
+                heapIds[kept] = heapIds[i];
+                heapEstimates[kept] = estimate;
+                kept++;
+            }
+        }
+        heapSize = kept;
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    // True once the newest order has slid out of the window, leaving every sketch empty
+    boolean isEmpty() {
+        return newest == Long.MIN_VALUE || newest <= current - buckets.length;
+    }
+
+    // Candidates with the highest estimates, most ordered first
+    List<Entry> top(int n) {
+        long[] ranked = new long[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            ranked[i] = ((long) heapEstimates[i] << 32) | i;
+        }
+        Arrays.sort(ranked);
+        List<Entry> result = new ArrayList<>(Math.min(n, heapSize));
+        for (int i = heapSize - 1; i >= 0 && result.size() < n; i--) {
+            int index = (int) ranked[i];
+            result.add(new Entry(heapIds[index], heapEstimates[index]));
+        }
+        return result;
+    }
+
+    private void offer(long itemId, int estimate) {
+        for (int i = 0; i < heapSize; i++) {
+            if (heapIds[i] == itemId) {
+                // Estimates only grow between slides, so the entry can only move down
+                heapEstimates[i] = estimate;
+                siftDown(i);
+                return;
+            }
+        }
+        if (heapSize < heapIds.length) {
+            heapIds[heapSize] = itemId;
+            heapEstimates[heapSize] = estimate;
+            siftUp(heapSize++);
+        } else if (estimate > heapEstimates[0]) {
+            heapIds[0] = itemId;
+            heapEstimates[0] = estimate;
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heapEstimates[parent] <= heapEstimates[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && heapEstimates[left] < heapEstimates[smallest]) {
+                smallest = left;
+            }
+            if (right < heapSize && heapEstimates[right] < heapEstimates[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = heapIds[a];
+        heapIds[a] = heapIds[b];
+        heapIds[b] = id;
+        int estimate = heapEstimates[a];
+        heapEstimates[a] = heapEstimates[b];
+        heapEstimates[b] = estimate;
+    }
+}
@@ -0,0 +1,14 @@
+package com.zomato.service.pricing;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(300)
+public class DeliveryFeePricingComponent implements PricingComponent {
+
+    @Override
+    public void apply(PricingContext context) {
+        context.setDeliveryFee(context.getRestaurantDeliveryFee());
+    }
+}
@@ -0,0 +1,41 @@
+package com.zomato.service.pricing;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Order(200)
+public class DiscountPricingComponent implements PricingComponent {
+
+    private record Coupon(long flatPaise, int percentBasisPoints, long minimumOrderPaise) {
+    }
+
+    // Same codes the cart page offers
+    private static final Map<String, Coupon> COUPONS = Map.of(
+            "FIRST50", new Coupon(5_000, 0, 20_000),
+            "SAVE100", new Coupon(10_000, 0, 50_000),
+            "FLAT20", new Coupon(0, 2_000, 0),
+            "ZOMATO50", new Coupon(5_000, 0, 30_000),
+            "WEEKEND", new Coupon(3_000, 0, 40_000)
+    );
+
+    @Override
+    public void apply(PricingContext context) {
+        if (context.getCouponCode() == null || context.getCouponCode().isBlank()) {
+            return;
+        }
+
+        Coupon coupon = COUPONS.get(context.getCouponCode().trim().toUpperCase());
+        if (coupon == null) {
+            throw new RuntimeException("Invalid coupon code");
+        }
+        if (context.getItemsTotal() < coupon.minimumOrderPaise()) {
+            throw new RuntimeException("Order amount is below the minimum for this coupon");
+        }
+
+        long discount = coupon.flatPaise() + Money.percentFloor(context.getItemsTotal(), coupon.percentBasisPoints());
+        context.setDiscount(Math.min(discount, context.getItemsTotal()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.zomato.service.pricing;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(100)
+public class ItemsPricingComponent implements PricingComponent {
+
+    @Override
+    public void apply(PricingContext context) {
+        // A context without lines carries a total kept by the caller, such as a cart's running total
+        if (context.getLineCount() > 0) {
+            long total = 0;
+            for (int line = 0; line < context.getLineCount(); line++) {
+                total = Math.addExact(total, context.getLineTotal(line));
+            }
+            context.setItemsTotal(total);
+        }
+
+        if (context.getItemsTotal() < context.getMinimumOrder()) {
+            throw new RuntimeException("Order amount is below minimum order requirement");
+        }
+    }
+}
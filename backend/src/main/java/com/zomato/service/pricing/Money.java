@@ -0,0 +1,33 @@
+package com.zomato.service.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Money on the pricing path is a long count of paise. BigDecimal only appears when
+// reading prices from, or writing amounts to, the database.
+public final class Money {
+
+    private Money() {
+    }
+
+    public static long toPaise(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    // Rounds half up to the nearest paisa; used for charges such as tax
+    public static long percentHalfUp(long paise, int basisPoints) {
+        return Math.floorDiv(Math.multiplyExact(paise, basisPoints) + 5_000L, 10_000L);
+    }
+
+    // Rounds down to the nearest paisa; used for discounts so they never exceed the advertised rate
+    public static long percentFloor(long paise, int basisPoints) {
+        return Math.floorDiv(Math.multiplyExact(paise, basisPoints), 10_000L);
+    }
+}
@@ -0,0 +1,7 @@
+package com.zomato.service.pricing;
+
+// One step of the pricing chain. Components run in @Order order and only touch long paise values.
+public interface PricingComponent {
+
+    void apply(PricingContext context);
+}
@@ -0,0 +1,111 @@
+package com.zomato.service.pricing;
+
+public class PricingContext {
+
+    private final long[] unitPrices;
+    private final int[] quantities;
+    private int lineCount;
+
+    private long minimumOrder;
+    private long restaurantDeliveryFee;
+    private String couponCode;
+
+    private long itemsTotal;
+    private long discount;
+    private long deliveryFee;
+    private long tax;
+
+    public PricingContext(int lines) {
+        this.unitPrices = new long[lines];
+        this.quantities = new int[lines];
+    }
+
+    public int addLine(long unitPricePaise, int quantity) {
+        if (quantity <= 0) {
+            throw new RuntimeException("Quantity must be at least 1");
+        }
+        unitPrices[lineCount] = unitPricePaise;
+        quantities[lineCount] = quantity;
+        return lineCount++;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public long getUnitPrice(int line) {
+        return unitPrices[line];
+    }
+
+    public int getQuantity(int line) {
+        return quantities[line];
+    }
+
+    public long getLineTotal(int line) {
+        return Math.multiplyExact(unitPrices[line], (long) quantities[line]);
+    }
+
+    public long getMinimumOrder() {
+        return minimumOrder;
+    }
+
+    public void setMinimumOrder(long minimumOrder) {
+        this.minimumOrder = minimumOrder;
+    }
+
+    public long getRestaurantDeliveryFee() {
+        return restaurantDeliveryFee;
+    }
+
+    public void setRestaurantDeliveryFee(long restaurantDeliveryFee) {
+        this.restaurantDeliveryFee = restaurantDeliveryFee;
+    }
+
+    public String getCouponCode() {
+        return couponCode;
+    }
+
+    public void setCouponCode(String couponCode) {
+        this.couponCode = couponCode;
+    }
+
+    public long getItemsTotal() {
+        return itemsTotal;
+    }
+
+    public void setItemsTotal(long itemsTotal) {
+        this.itemsTotal = itemsTotal;
+    }
+
+    public long getDiscount() {
+        return discount;
+    }
+
+    public void setDiscount(long discount) {
+        this.discount = discount;
+    }
+
+    public long getDeliveryFee() {
+        return deliveryFee;
+    }
+
+    public void setDeliveryFee(long deliveryFee) {
+        this.deliveryFee = deliveryFee;
+    }
+
+    public long getTax() {
+        return tax;
+    }
+
+    public void setTax(long tax) {
+        this.tax = tax;
+    }
+
+    public long getTaxableAmount() {
+        return Math.max(0L, itemsTotal - discount);
+    }
+
+    public long getFinalAmount() {
+        return getTaxableAmount() + deliveryFee + tax;
+    }
+}
@@ -0,0 +1,22 @@
+package com.zomato.service.pricing;
+
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class PricingEngine {
+
+    private final PricingComponent[] components;
+
+    public PricingEngine(List<PricingComponent> components) {
+        this.components = components.toArray(new PricingComponent[0]);
+    }
+
+    public PricingContext price(PricingContext context) {
+        for (PricingComponent component : components) {
+            component.apply(context);
+        }
+        return context;
+    }
+}
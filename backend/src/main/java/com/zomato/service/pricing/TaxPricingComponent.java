@@ -0,0 +1,22 @@
+package com.zomato.service.pricing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(400)
+public class TaxPricingComponent implements PricingComponent {
+
+    private final int taxRateBasisPoints;
+
+    public TaxPricingComponent(@Value("${app.pricing.tax-rate-bps:1800}") int taxRateBasisPoints) {
+        this.taxRateBasisPoints = taxRateBasisPoints;
+    }
+
+    // GST on the food value after discount, rounded half up to the paisa; the delivery fee is not taxed
+    @Override
+    public void apply(PricingContext context) {
+        context.setTax(Money.percentHalfUp(context.getTaxableAmount(), taxRateBasisPoints));
+    }
+}
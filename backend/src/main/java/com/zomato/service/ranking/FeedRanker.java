@@ -0,0 +1,69 @@
+package com.zomato.service.ranking;
+
+import java.util.Arrays;
+
+// Scores every restaurant in a catalog snapshot for one user in a single pass over primitive arrays:
+//   cuisine * best affinity among the restaurant's cuisines
+//   + price * the user's share of orders in its price tier
+//   + rating * smoothed rating (0..1)
+//   + distance * 1 / (1 + km / distance scale)
+//   + open * (1 if open now)
+// The weights are the same for everyone; only the two affinity vectors are personal, and with no history
+// they are zero, leaving the rating, distance and open-now order.
+final class FeedRanker {
+
+    record Weights(float cuisine, float price, float rating, float distance, float open, float distanceScaleKm) {
+    }
+
+    private FeedRanker() {
+    }
+
+    // Snapshot indexes of the best restaurants, best first, with scores[index] set for each. distances is
+    // null when the user gave no location; otherwise restaurants beyond the radius are left out.
+    static int[] rank(RestaurantCatalog.Snapshot snapshot, float[] cuisineAffinity, float[] priceAffinity,
+                      double[] distances, double radiusKm, int minuteOfDay, Weights weights, int limit,
+                      float[] scores) {
+        int count = snapshot.size();
+        long[] ranked = new long[count];
+        int candidates = 0;
+        for (int i = 0; i < count; i++) {
+            float proximity = 0;
+            if (distances != null) {
+                double distance = distances[i];
+                if (!(distance <= radiusKm)) {
+                    continue; // Too far, or no coordinates
+                }
+                proximity = (float) (1 / (1 + distance / weights.distanceScaleKm()));
+            }
+
+            float cuisine = 0;
+            int end = snapshot.cuisineStart[i + 1];
+            for (int c = snapshot.cuisineStart[i]; c < end; c++) {
+                int id = snapshot.cuisines[c];
+                float affinity = id < cuisineAffinity.length ? cuisineAffinity[id] : 0;
+                cuisine = c == snapshot.cuisineStart[i] ? affinity : Math.max(cuisine, affinity);
+            }
+            int tier = snapshot.priceTiers[i];
+            float price = tier >= 0 && tier < priceAffinity.length ? priceAffinity[tier] : 0;
+
+            float score = weights.cuisine() * cuisine
+                    + weights.price() * price
+                    + weights.rating() * snapshot.ratings[i]
+                    + weights.distance() * proximity
+                    + (snapshot.isOpen(i, minuteOfDay) ? weights.open() : 0);
+            scores[i] = score;
+
+            // Float bits flipped so negative scores order correctly as ints, packed with the index to sort as one long
+            int bits = Float.floatToIntBits(score);
+            bits ^= (bits >> 31) & 0x7fffffff;
+            ranked[candidates++] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(ranked, 0, candidates);
+
+        int[] result = new int[Math.min(limit, candidates)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) ranked[candidates - 1 - i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package com.zomato.service.ranking;
+
+import com.zomato.dto.FeedRestaurant;
+import com.zomato.entity.Restaurant;
+import com.zomato.repository.RestaurantRepository;
+import com.zomato.service.UserService;
+import com.zomato.service.geo.DistanceService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// The signed-in user's home feed: every active restaurant in the catalog snapshot scored against the user's
+// taste vectors, distance, rating and open-now, and only the page returned loaded from the database
+@Service
+public class FeedService {
+
+    @Autowired
+    private RestaurantCatalog restaurantCatalog;
+
+    @Autowired
+    private UserAffinityStore userAffinityStore;
+
+    @Autowired
+    private DistanceService distanceService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${app.feed.weight.cuisine:1.0}")
+    private float cuisineWeight;
+
+    @Value("${app.feed.weight.price:0.5}")
+    private float priceWeight;
+
+    @Value("${app.feed.weight.rating:1.0}")
+    private float ratingWeight;
+
+    @Value("${app.feed.weight.distance:1.0}")
+    private float distanceWeight;
+
+    // Larger than the other weights together, so closed restaurants follow every open one
+    @Value("${app.feed.weight.open:4.0}")
+    private float openWeight;
+
+    // Distance at which the proximity signal has halved
+    @Value("${app.feed.distance-scale-km:3.0}")
+    private float distanceScaleKm;
+
+    private FeedRanker.Weights weights;
+
+    @PostConstruct
+    void init() {
+        weights = new FeedRanker.Weights(cuisineWeight, priceWeight, ratingWeight, distanceWeight, openWeight,
+                distanceScaleKm);
+    }
+
+    @Transactional(readOnly = true)
+    public List<FeedRestaurant> getFeed(Double latitude, Double longitude, double radiusKm, int limit) {
+        Long userId = userService.getCurrentUser().getId();
+        RestaurantCatalog.Snapshot snapshot = restaurantCatalog.snapshot();
+        int count = snapshot.size();
+
+        float[] cuisineAffinity = new float[restaurantCatalog.cuisineCount()];
+        float[] priceAffinity = new float[restaurantCatalog.priceTiers()];
+        userAffinityStore.vectors(userId, cuisineAffinity, priceAffinity);
+
+        double[] distances = null;
+        if (latitude != null && longitude != null) {
+            distances = new double[count];
+            distanceService.distancesKm(latitude, longitude, snapshot.latitudes, snapshot.longitudes, count,
+                    distances);
+        }
+        LocalTime now = LocalTime.now();
+        int minuteOfDay = now.getHour() * 60 + now.getMinute();
+        float[] scores = new float[count];
+        int[] ranked = FeedRanker.rank(snapshot, cuisineAffinity, priceAffinity, distances, radiusKm, minuteOfDay,
+                weights, limit, scores);
+
+        List<Long> ids = new ArrayList<>(ranked.length);
+        for (int index : ranked) {
+            ids.add(snapshot.ids[index]);
+        }
+        Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        List<FeedRestaurant> result = new ArrayList<>(ranked.length);
+        for (int index : ranked) {
+            Restaurant restaurant = restaurants.get(snapshot.ids[index]);
+            if (restaurant == null || !Boolean.TRUE.equals(restaurant.getIsActive())) {
+                continue;
+            }
+            result.add(new FeedRestaurant(restaurant.getId(), restaurant.getName(), restaurant.getCuisineType(),
+                    restaurant.getImageUrl(), restaurant.getAverageRating(), restaurant.getDeliveryTimeMinutes(),
+                    restaurant.getCostForTwo(), restaurant.getDeliveryFee(),
+                    distances != null ? distances[index] : null, snapshot.isOpen(index, minuteOfDay),
+                    scores[index]));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,261 @@
+package com.zomato.service.ranking;
+
+import com.zomato.util.LongIntHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The ranking features of every active restaurant as parallel primitive arrays: position, cuisines, price
+// tier, rating and opening hours. The feed scores thousands of candidates per request from them without a
+// query or an object per restaurant. Cuisine names are interned to small ids that never change, so the
+// learned per-user vectors stay valid across reloads.
+@Component
+public class RestaurantCatalog {
+
+    static final int NO_TIME = -1;
+
+    private static final DateTimeFormatter TWELVE_HOUR = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive().appendPattern("h:mm[ ]a").toFormatter(Locale.ENGLISH);
+
+    // Restaurants at index i: their cuisines are cuisines[cuisineStart[i]] up to cuisines[cuisineStart[i + 1]]
+    static final class Snapshot {
+
+        final long[] ids;
+        final double[] latitudes;
+        final double[] longitudes;
+        final int[] cuisineStart;
+        final int[] cuisines;
+        final byte[] priceTiers;
+        final float[] ratings;
+        final short[] opensAt;
+        final short[] closesAt;
+        final boolean[] open;
+        private final LongIntHashMap index = new LongIntHashMap();
+
+        Snapshot(long[] ids, double[] latitudes, double[] longitudes, int[] cuisineStart, int[] cuisines,
+                 byte[] priceTiers, float[] ratings, short[] opensAt, short[] closesAt, boolean[] open) {
+            this.ids = ids;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.cuisineStart = cuisineStart;
+            this.cuisines = cuisines;
+            this.priceTiers = priceTiers;
+            this.ratings = ratings;
+            this.opensAt = opensAt;
+            this.closesAt = closesAt;
+            this.open = open;
+            for (int i = 0; i < ids.length; i++) {
+                index.addTo(ids[i], i + 1);
+            }
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        // -1 when the restaurant is not in the snapshot
+        int indexOf(long restaurantId) {
+            return restaurantId != 0 ? index.get(restaurantId) - 1 : -1;
+        }
+
+        // Open flag set and, when hours are known, the minute of the day inside them; hours may pass midnight
+        boolean isOpen(int i, int minuteOfDay) {
+            if (!open[i]) {
+                return false;
+            }
+            int opens = opensAt[i];
+            int closes = closesAt[i];
+            if (opens == NO_TIME || closes == NO_TIME || opens == closes) {
+                return true;
+            }
+            return opens < closes
+                    ? minuteOfDay >= opens && minuteOfDay < closes
+                    : minuteOfDay >= opens || minuteOfDay < closes;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Upper bounds of the cost-for-two tiers below the top one
+    @Value("${app.feed.price-tiers:300,600,1000}")
+    private BigDecimal[] priceTierBounds;
+
+    // Ratings are shrunk towards the prior by this many reviews, so one five-star review does not top the feed
+    @Value("${app.feed.rating-prior:3.5}")
+    private double ratingPrior;
+
+    @Value("${app.feed.rating-prior-reviews:10}")
+    private int ratingPriorReviews;
+
+    private final Map<String, Integer> cuisineIds = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot;
+
+    Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${app.feed.catalog-refresh-ms:60000}")
+    public void refresh() {
+        snapshot = load();
+    }
+
+    // Reloaded on next use once the change to the restaurant has committed
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot = null;
+                }
+            });
+        } else {
+            snapshot = null;
+        }
+    }
+
+    int priceTiers() {
+        return priceTierBounds.length + 1;
+    }
+
+    // -1 when the cost for two is unknown
+    int priceTier(BigDecimal costForTwo) {
+        if (costForTwo == null) {
+            return -1;
+        }
+        int tier = 0;
+        while (tier < priceTierBounds.length && costForTwo.compareTo(priceTierBounds[tier]) > 0) {
+            tier++;
+        }
+        return tier;
+    }
+
+    // Cuisine ids handed out so far; every id is below this
+    int cuisineCount() {
+        return cuisineIds.size();
+    }
+
+    // "North Indian, Chinese" as the ids of its distinct cuisines
+    int[] cuisineIds(String cuisineType) {
+        if (cuisineType == null) {
+            return new int[0];
+        }
+        String[] names = cuisineType.split("[,/|]");
+        int[] ids = new int[names.length];
+        int count = 0;
+        for (String name : names) {
+            String key = name.trim().toLowerCase(Locale.ROOT);
+            if (key.isEmpty()) {
+                continue;
+            }
+            int id = cuisineId(key);
+            boolean seen = false;
+            for (int i = 0; i < count; i++) {
+                seen |= ids[i] == id;
+            }
+            if (!seen) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private int cuisineId(String key) {
+        Integer id = cuisineIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (cuisineIds) {
+            return cuisineIds.computeIfAbsent(key, k -> cuisineIds.size());
+        }
+    }
+
+    private Snapshot load() {
+        List<Object[]> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, latitude, longitude, cuisine_type, cost_for_two, rating_sum, total_reviews, " +
+                        "is_open, opening_time, closing_time FROM restaurants WHERE is_active = TRUE",
+                rs -> {
+                    rows.add(new Object[]{rs.getLong(1), rs.getObject(2), rs.getObject(3), rs.getString(4),
+                            rs.getBigDecimal(5), rs.getLong(6), rs.getInt(7),
+                            rs.getObject(8) == null || rs.getBoolean(8), rs.getString(9), rs.getString(10)});
+                });
+
+        int n = rows.size();
+        long[] ids = new long[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        int[] cuisineStart = new int[n + 1];
+        int[][] cuisinesOf = new int[n][];
+        byte[] priceTiers = new byte[n];
+        float[] ratings = new float[n];
+        short[] opensAt = new short[n];
+        short[] closesAt = new short[n];
+        boolean[] open = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (Long) row[0];
+            latitudes[i] = row[1] != null ? ((Number) row[1]).doubleValue() : Double.NaN;
+            longitudes[i] = row[2] != null ? ((Number) row[2]).doubleValue() : Double.NaN;
+            cuisinesOf[i] = cuisineIds((String) row[3]);
+            cuisineStart[i + 1] = cuisineStart[i] + cuisinesOf[i].length;
+            priceTiers[i] = (byte) priceTier((BigDecimal) row[4]);
+            long ratingSum = (Long) row[5];
+            int reviews = (Integer) row[6];
+            // Scaled from 1..5 stars to 0..1
+            double rating = (ratingSum + ratingPrior * ratingPriorReviews) / (reviews + ratingPriorReviews);
+            ratings[i] = (float) Math.max(0, Math.min(1, (rating - 1) / 4));
+            open[i] = (Boolean) row[7];
+            opensAt[i] = minuteOfDay((String) row[8]);
+            closesAt[i] = minuteOfDay((String) row[9]);
+        }
+        int[] cuisines = new int[cuisineStart[n]];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(cuisinesOf[i], 0, cuisines, cuisineStart[i], cuisinesOf[i].length);
+        }
+        return new Snapshot(ids, latitudes, longitudes, cuisineStart, cuisines, priceTiers, ratings, opensAt,
+                closesAt, open);
+    }
+
+    // "09:00", "21:30:00" or "9:00 PM"; NO_TIME when missing or unreadable
+    private static short minuteOfDay(String time) {
+        if (time == null || time.isBlank()) {
+            return NO_TIME;
+        }
+        String value = time.trim();
+        try {
+            LocalTime parsed = Character.isLetter(value.charAt(value.length() - 1))
+                    ? LocalTime.parse(value, TWELVE_HOUR)
+                    : LocalTime.parse(value.length() == 4 ? "0" + value : value);
+            return (short) (parsed.getHour() * 60 + parsed.getMinute());
+        } catch (DateTimeParseException e) {
+            return NO_TIME;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.zomato.service.ranking;
+
+import java.util.Arrays;
+
+// One user's taste as a few dozen bytes: decayed weights over the cuisines and price tiers of the restaurants
+// they order from, pushed up or down by their reviews. Only the strongest maxCuisines cuisines are kept.
+// Not thread-safe; callers guard it.
+final class UserAffinity {
+
+    private final int[] cuisines;
+    private final float[] cuisineWeights;
+    private int cuisineCount;
+    private final float[] priceWeights;
+
+    UserAffinity(int maxCuisines, int priceTiers) {
+        cuisines = new int[maxCuisines];
+        cuisineWeights = new float[maxCuisines];
+        priceWeights = new float[priceTiers];
+    }
+
+    // Older orders fade by factor each time a new one is learned
+    void addOrder(int[] restaurantCuisines, int priceTier, float factor) {
+        for (int i = 0; i < cuisineCount; i++) {
+            cuisineWeights[i] *= factor;
+        }
+        for (int i = 0; i < priceWeights.length; i++) {
+            priceWeights[i] *= factor;
+        }
+        // A restaurant listing several cuisines splits the order between them
+        for (int cuisine : restaurantCuisines) {
+            addCuisine(cuisine, 1f / restaurantCuisines.length);
+        }
+        if (priceTier >= 0 && priceTier < priceWeights.length) {
+            priceWeights[priceTier] += 1;
+        }
+    }
+
+    // weight is positive for a liked restaurant and negative for a disliked one
+    void addReview(int[] restaurantCuisines, float weight) {
+        for (int cuisine : restaurantCuisines) {
+            addCuisine(cuisine, weight / restaurantCuisines.length);
+        }
+    }
+
+    // out[cuisine id] in -1..1 with the favourite cuisine at 1; cuisines with ids past out are skipped
+    void cuisineVector(float[] out) {
+        Arrays.fill(out, 0);
+        float max = 0;
+        for (int i = 0; i < cuisineCount; i++) {
+            max = Math.max(max, Math.abs(cuisineWeights[i]));
+        }
+        if (max == 0) {
+            return;
+        }
+        for (int i = 0; i < cuisineCount; i++) {
+            if (cuisines[i] < out.length) {
+                out[cuisines[i]] = cuisineWeights[i] / max;
+            }
+        }
+    }
+
+    // out[tier] is the recent share of orders in that tier
+    void priceVector(float[] out) {
+        Arrays.fill(out, 0);
+        float total = 0;
+        for (float weight : priceWeights) {
+            total += weight;
+        }
+        if (total == 0) {
+            return;
+        }
+        for (int i = 0; i < priceWeights.length && i < out.length; i++) {
+            out[i] = priceWeights[i] / total;
+        }
+    }
+
+    // A new cuisine takes the weakest slot once all are used, if it outweighs it
+    private void addCuisine(int cuisine, float weight) {
+        int weakest = -1;
+        for (int i = 0; i < cuisineCount; i++) {
+            if (cuisines[i] == cuisine) {
+                cuisineWeights[i] += weight;
+                return;
+            }
+            if (weakest < 0 || Math.abs(cuisineWeights[i]) < Math.abs(cuisineWeights[weakest])) {
+                weakest = i;
+            }
+        }
+        if (cuisineCount < cuisines.length) {
+            cuisines[cuisineCount] = cuisine;
+            cuisineWeights[cuisineCount++] = weight;
+        } else if (weakest >= 0 && Math.abs(weight) > Math.abs(cuisineWeights[weakest])) {
+            cuisines[weakest] = cuisine;
+            cuisineWeights[weakest] = weight;
+        }
+    }
+}
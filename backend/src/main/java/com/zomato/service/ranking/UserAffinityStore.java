@@ -0,0 +1,219 @@
+package com.zomato.service.ranking;
+
+import com.zomato.entity.OrderStatus;
+import com.zomato.event.OrderEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Taste vectors of recently active users, learned from their order and review history on first use and
+// updated as they place orders. Idle users are evicted after the TTL and relearned on their next visit.
+// The history is read outside any lock; orders placed meanwhile are held on the resident entry and
+// applied once it is learned, unless the history already had them.
+@Component
+public class UserAffinityStore {
+
+    private record HistoryEvent(Long orderId, Timestamp at, String cuisineType, BigDecimal costForTwo, int rating) {
+    }
+
+    private record PlacedOrder(Long orderId, Long restaurantId) {
+    }
+
+    // An order's event can still be on its way when the history that holds it is learned; its id is then
+    // among the user's newest few
+    private static final int RECENT_ORDER_IDS = 8;
+
+    // Guarded by itself. affinity is null until the history is learned, and pending holds the orders
+    // placed until then.
+    private static final class Resident {
+        UserAffinity affinity;
+        List<PlacedOrder> pending = new ArrayList<>();
+        Set<Long> recentOrderIds = Set.of();
+        volatile long lastAccess = System.currentTimeMillis();
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RestaurantCatalog restaurantCatalog;
+
+    @Value("${app.feed.history-orders:200}")
+    private int historyOrders;
+
+    // After this many further orders an order counts half
+    @Value("${app.feed.affinity-half-life-orders:20}")
+    private double halfLifeOrders;
+
+    // A five-star review moves a cuisine by this fraction of an order, a one-star review by minus it
+    @Value("${app.feed.review-weight:0.5}")
+    private float reviewWeight;
+
+    @Value("${app.feed.max-cuisines:12}")
+    private int maxCuisines;
+
+    @Value("${app.feed.affinity-ttl-minutes:120}")
+    private long ttlMinutes;
+
+    private final Map<Long, Resident> residents = new ConcurrentHashMap<>();
+
+    // Copies the user's cuisine and price vectors into the arrays, learning their history if not resident
+    public void vectors(Long userId, float[] cuisineOut, float[] priceOut) {
+        Resident resident = residents.computeIfAbsent(userId, id -> new Resident());
+        resident.lastAccess = System.currentTimeMillis();
+        synchronized (resident) {
+            if (resident.affinity != null) {
+                resident.affinity.cuisineVector(cuisineOut);
+                resident.affinity.priceVector(priceOut);
+                return;
+            }
+        }
+
+        List<HistoryEvent> history;
+        try {
+            history = loadHistory(userId);
+        } catch (RuntimeException e) {
+            residents.remove(userId, resident);
+            throw e;
+        }
+        synchronized (resident) {
+            // A concurrent request for the same user may have learned it first
+            if (resident.affinity == null) {
+                resident.affinity = learn(history, resident.pending);
+                resident.pending = null;
+                resident.recentOrderIds = recentOrderIds(history);
+            }
+            resident.affinity.cuisineVector(cuisineOut);
+            resident.affinity.priceVector(priceOut);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getStatus() != OrderStatus.PENDING || event.getUserId() == null) {
+            return;
+        }
+        // Users not resident pick the order up from their history when next loaded, which is read after the
+        // resident entry is created and so after this order committed
+        Resident resident = residents.get(event.getUserId());
+        if (resident == null) {
+            return;
+        }
+        synchronized (resident) {
+            if (resident.affinity == null) {
+                resident.pending.add(new PlacedOrder(event.getOrderId(), event.getRestaurantId()));
+            } else if (!resident.recentOrderIds.contains(event.getOrderId())) {
+                addOrder(resident.affinity, event.getRestaurantId(), decay());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.feed.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - ttlMinutes * 60_000L;
+        Iterator<Resident> iterator = residents.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().lastAccess < cutoff) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public int size() {
+        return residents.size();
+    }
+
+    // The user's most recent orders, live and archived together, and reviews, oldest first
+    private List<HistoryEvent> loadHistory(Long userId) {
+        List<HistoryEvent> orders = new ArrayList<>();
+        jdbcTemplate.query("SELECT o.id, o.created_at, r.cuisine_type, r.cost_for_two FROM orders o " +
+                        "JOIN restaurants r ON r.id = o.restaurant_id WHERE o.user_id = ? AND o.status <> 'CANCELLED' " +
+                        "ORDER BY o.created_at DESC LIMIT ?",
+                rs -> {
+                    orders.add(new HistoryEvent(rs.getLong(1), rs.getTimestamp(2), rs.getString(3),
+                            rs.getBigDecimal(4), 0));
+                }, userId, historyOrders);
+        jdbcTemplate.query("SELECT a.order_id, a.created_at, r.cuisine_type, r.cost_for_two FROM archived_orders a " +
+                        "JOIN restaurants r ON r.id = a.restaurant_id WHERE a.user_id = ? AND a.status <> 'CANCELLED' " +
+                        "ORDER BY a.created_at DESC LIMIT ?",
+                rs -> {
+                    orders.add(new HistoryEvent(rs.getLong(1), rs.getTimestamp(2), rs.getString(3),
+                            rs.getBigDecimal(4), 0));
+                }, userId, historyOrders);
+        // Each query returns up to the limit, so keep only the newest of both
+        orders.sort(Comparator.comparing(HistoryEvent::at, Comparator.nullsLast(Comparator.reverseOrder())));
+        List<HistoryEvent> history = new ArrayList<>(orders.subList(0, Math.min(historyOrders, orders.size())));
+
+        jdbcTemplate.query("SELECT v.created_at, r.cuisine_type, v.rating FROM reviews v " +
+                        "JOIN restaurants r ON r.id = v.restaurant_id WHERE v.user_id = ? " +
+                        "ORDER BY v.created_at DESC LIMIT ?",
+                rs -> {
+                    history.add(new HistoryEvent(null, rs.getTimestamp(1), rs.getString(2), null, rs.getInt(3)));
+                }, userId, historyOrders);
+        history.sort(Comparator.comparing(HistoryEvent::at, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return history;
+    }
+
+    // Replays the history, then the orders placed while it was read that it does not already hold
+    private UserAffinity learn(List<HistoryEvent> history, List<PlacedOrder> pending) {
+        UserAffinity affinity = new UserAffinity(maxCuisines, restaurantCatalog.priceTiers());
+        float decay = decay();
+        Set<Long> orderIds = new HashSet<>();
+        for (HistoryEvent event : history) {
+            int[] cuisines = restaurantCatalog.cuisineIds(event.cuisineType());
+            if (event.rating() == 0) {
+                orderIds.add(event.orderId());
+                affinity.addOrder(cuisines, restaurantCatalog.priceTier(event.costForTwo()), decay);
+            } else {
+                // 1 to 5 stars as -1 to 1
+                affinity.addReview(cuisines, reviewWeight * (event.rating() - 3) / 2f);
+            }
+        }
+        for (PlacedOrder order : pending) {
+            if (!orderIds.contains(order.orderId())) {
+                addOrder(affinity, order.restaurantId(), decay);
+            }
+        }
+        return affinity;
+    }
+
+    private static Set<Long> recentOrderIds(List<HistoryEvent> history) {
+        Set<Long> ids = new HashSet<>();
+        for (int i = history.size() - 1; i >= 0 && ids.size() < RECENT_ORDER_IDS; i--) {
+            if (history.get(i).orderId() != null) {
+                ids.add(history.get(i).orderId());
+            }
+        }
+        return ids;
+    }
+
+    private void addOrder(UserAffinity affinity, Long restaurantId, float decay) {
+        RestaurantCatalog.Snapshot snapshot = restaurantCatalog.snapshot();
+        int index = snapshot.indexOf(restaurantId);
+        if (index < 0) {
+            return;
+        }
+        int[] cuisines = Arrays.copyOfRange(snapshot.cuisines, snapshot.cuisineStart[index],
+                snapshot.cuisineStart[index + 1]);
+        affinity.addOrder(cuisines, snapshot.priceTiers[index], decay);
+    }
+
+    private float decay() {
+        return (float) Math.pow(0.5, 1 / Math.max(1, halfLifeOrders));
+    }
+}
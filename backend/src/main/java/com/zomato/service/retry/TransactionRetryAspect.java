@@ -0,0 +1,114 @@
+package com.zomato.service.retry;
+
+import com.zomato.dto.RetryStats;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Re-runs transactional service calls that failed on a deadlock or lock wait timeout. Ordered ahead of
+// the transaction interceptor so every attempt gets a fresh transaction, and only applied at the
+// outermost transactional call: by the time it retries, everything the attempt wrote has rolled back.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TransactionRetryAspect {
+
+    private static final class MethodStats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder recovered = new LongAdder();
+        final LongAdder exhausted = new LongAdder();
+    }
+
+    @Value("${app.tx.retry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.tx.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.tx.retry.initial-backoff-ms:20}")
+    private long initialBackoffMs;
+
+    @Value("${app.tx.retry.max-backoff-ms:400}")
+    private long maxBackoffMs;
+
+    @Value("${app.tx.retry.budget-ms:1500}")
+    private long budgetMs;
+
+    private final Map<String, MethodStats> stats = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.zomato.service..*(..)) && " +
+            "(@within(org.springframework.transaction.annotation.Transactional) || " +
+            "@annotation(org.springframework.transaction.annotation.Transactional))")
+    public Object retryTransientFailures(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Inside an existing transaction a retry would replay only part of the work
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive() || !startsTransaction(joinPoint)) {
+            return joinPoint.proceed();
+        }
+
+        MethodStats methodStats = stats.computeIfAbsent(joinPoint.getSignature().toShortString(), key -> new MethodStats());
+        methodStats.calls.increment();
+        long deadline = System.currentTimeMillis() + budgetMs;
+        int attempt = 1;
+        while (true) {
+            try {
+                Object result = joinPoint.proceed();
+                if (attempt > 1) {
+                    methodStats.recovered.increment();
+                }
+                return result;
+            } catch (Throwable failure) {
+                if (!TransientFailures.isTransient(failure)) {
+                    throw failure;
+                }
+                // Full jitter keeps colliding transactions from retrying in lockstep
+                long backoff = ThreadLocalRandom.current().nextLong(
+                        Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20)) + 1);
+                if (attempt >= maxAttempts || System.currentTimeMillis() + backoff > deadline) {
+                    methodStats.exhausted.increment();
+                    throw failure;
+                }
+                methodStats.retries.increment();
+                Thread.sleep(backoff);
+                attempt++;
+            }
+        }
+    }
+
+    public List<RetryStats> getStats() {
+        List<RetryStats> result = new ArrayList<>(stats.size());
+        stats.forEach((method, methodStats) -> result.add(new RetryStats(method, methodStats.calls.sum(),
+                methodStats.retries.sum(), methodStats.recovered.sum(), methodStats.exhausted.sum())));
+        result.sort(Comparator.comparing(RetryStats::getRetries).reversed());
+        return result;
+    }
+
+    private boolean startsTransaction(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Transactional.class);
+        }
+        return transactional != null
+                && transactional.propagation() != Propagation.NOT_SUPPORTED
+                && transactional.propagation() != Propagation.NEVER;
+    }
+}
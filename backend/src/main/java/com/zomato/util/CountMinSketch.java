@@ -0,0 +1,69 @@
+package com.zomato.util;
+
+import java.util.Arrays;
+
+// Count-Min sketch over long keys: `depth` rows of `width` counters, each row indexed by its own hash of the
+// key. An estimate is the smallest of the key's counters, so it never undercounts, and overcounts by more
+// than e / width of the total added only with probability e^-depth, whatever the number of distinct keys.
+// Not thread-safe; callers guard it.
+public final class CountMinSketch {
+
+    // Each row rehashes the previous row's hash, so two keys colliding in one row are unrelated in the next.
+    // Deriving all rows from one hash as h1 + row * h2 is cheaper but lets a pair of keys collide in every row.
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final int depth;
+    private final int mask;
+    private final int[] counters;
+
+    public CountMinSketch(int depth, int width) {
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = size - 1;
+        this.counters = new int[depth * size];
+    }
+
+    public void add(long key, int count) {
+        long hash = key;
+        int width = mask + 1;
+        for (int row = 0; row < depth; row++) {
+            hash = mix(hash + SEED);
+            counters[row * width + ((int) hash & mask)] += count;
+        }
+    }
+
+    public int estimate(long key) {
+        long hash = key;
+        int width = mask + 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            hash = mix(hash + SEED);
+            min = Math.min(min, counters[row * width + ((int) hash & mask)]);
+        }
+        return min;
+    }
+
+    // Cell-wise addition or subtraction of a sketch of the same shape
+    public void merge(CountMinSketch other, int sign) {
+        if (other.counters.length != counters.length) {
+            throw new IllegalArgumentException("Sketches differ in shape");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += sign * other.counters[i];
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    public long memoryBytes() {
+        return 4L * counters.length;
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+}
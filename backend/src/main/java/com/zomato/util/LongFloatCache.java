@@ -0,0 +1,68 @@
+package com.zomato.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size lossy cache from long keys to float values that never allocates after construction.
+// Each slot is a single long holding a 32-bit tag of the key and the float bits of the value, so a
+// slot is always read and written whole and concurrent readers never see a torn entry. A key may live
+// in one of two neighbouring slots; a new key overwrites the older of the pair.
+public final class LongFloatCache {
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    public LongFloatCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    // The cached value, or NaN when the key is not cached
+    public float get(long key) {
+        long hash = mix(key);
+        int tag = tag(hash);
+        int index = (int) hash & mask;
+        long slot = slots.getPlain(index);
+        if ((int) (slot >>> 32) == tag) {
+            return Float.intBitsToFloat((int) slot);
+        }
+        slot = slots.getPlain(index ^ 1);
+        if ((int) (slot >>> 32) == tag) {
+            return Float.intBitsToFloat((int) slot);
+        }
+        return Float.NaN;
+    }
+
+    public void put(long key, float value) {
+        long hash = mix(key);
+        long slot = ((long) tag(hash) << 32) | (Float.floatToRawIntBits(value) & 0xFFFFFFFFL);
+        int index = (int) hash & mask;
+        // The first slot of the pair always takes the new key; what it held moves to the second
+        long previous = slots.getPlain(index);
+        if ((int) (previous >>> 32) != (int) (slot >>> 32)) {
+            slots.setPlain(index ^ 1, previous);
+        }
+        slots.setPlain(index, slot);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public void clear() {
+        for (int i = 0; i <= mask; i++) {
+            slots.setPlain(i, 0);
+        }
+    }
+
+    // Never zero, so an empty slot cannot match
+    private static int tag(long hash) {
+        return (int) (hash >>> 32) | 1;
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+}
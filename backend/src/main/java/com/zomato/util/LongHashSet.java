@@ -0,0 +1,98 @@
+package com.zomato.util;
+
+// Set of non-zero longs in one open-addressed array: 8 bytes per slot and no object per entry, where a
+// HashSet<Long> spends about 50 bytes on the boxed key and its node. Zero marks an empty slot.
+// Not thread-safe; callers guard it.
+public final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] slots;
+    private int mask;
+    private int size;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongHashSet(int expected) {
+        allocate(tableSize(expected));
+    }
+
+    public boolean contains(long key) {
+        int index = (int) mix(key) & mask;
+        while (true) {
+            long slot = slots[index];
+            // Empty first, so zero is never found in an empty slot
+            if (slot == 0) {
+                return false;
+            }
+            if (slot == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    // False when the key was already present
+    public boolean add(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Zero cannot be stored");
+        }
+        int index = (int) mix(key) & mask;
+        while (true) {
+            long slot = slots[index];
+            if (slot == key) {
+                return false;
+            }
+            if (slot == 0) {
+                break;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = key;
+        // Kept at most half full so probe runs stay short
+        if (++size > (mask + 1) / 2) {
+            grow();
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memoryBytes() {
+        return 8L * slots.length;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        allocate(old.length * 2);
+        for (long key : old) {
+            if (key != 0) {
+                int index = (int) mix(key) & mask;
+                while (slots[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int tableSize(int expected) {
+        int needed = Math.max(MIN_CAPACITY, expected * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+}
@@ -0,0 +1,101 @@
+package com.zomato.util;
+
+// Map from non-zero long keys to int values in two open-addressed arrays, for counting without a boxed key,
+// a boxed value and an entry object per key. Zero marks an empty slot. Not thread-safe; callers guard it.
+public final class LongIntHashMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIntHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    public int get(long key) {
+        int index = (int) mix(key) & mask;
+        while (true) {
+            long slot = keys[index];
+            if (slot == key) {
+                return values[index];
+            }
+            if (slot == 0) {
+                return 0;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    // Adds delta to the key's value, starting from zero, and returns the new value
+    public int addTo(long key, int delta) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Zero cannot be stored");
+        }
+        int index = (int) mix(key) & mask;
+        while (true) {
+            long slot = keys[index];
+            if (slot == key) {
+                return values[index] += delta;
+            }
+            if (slot == 0) {
+                break;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = delta;
+        // Kept at most half full so probe runs stay short
+        if (++size > (mask + 1) / 2) {
+            grow();
+        }
+        return delta;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Slots run from 0 to capacity() - 1; a slot whose key is 0 is empty
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public int valueAt(int slot) {
+        return values[slot];
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = (int) mix(oldKeys[i]) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+}
@@ -33,6 +33,12 @@ CREATE TABLE IF NOT EXISTS restaurants (
     cuisine_type VARCHAR(100),
     average_rating DECIMAL(3,2) DEFAULT 0.00,
     total_reviews INTEGER DEFAULT 0,
+    rating_sum BIGINT DEFAULT 0,
+    rating_count_1 INTEGER DEFAULT 0,
+    rating_count_2 INTEGER DEFAULT 0,
+    rating_count_3 INTEGER DEFAULT 0,
+    rating_count_4 INTEGER DEFAULT 0,
+    rating_count_5 INTEGER DEFAULT 0,
     delivery_time_minutes INTEGER,
     minimum_order_amount DECIMAL(10,2) DEFAULT 0.00,
     delivery_fee DECIMAL(10,2) DEFAULT 0.00,
@@ -144,6 +150,7 @@ CREATE TABLE IF NOT EXISTS orders (
     estimated_delivery_time TIMESTAMP,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    change_seq BIGINT,
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (restaurant_id) REFERENCES restaurants(id),
     FOREIGN KEY (delivery_partner_id) REFERENCES delivery_partners(id),
@@ -190,6 +197,49 @@ CREATE TABLE IF NOT EXISTS order_status_history (
     FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
 );
 
+-- Order read model (denormalized order documents, maintained on write)
+CREATE TABLE IF NOT EXISTS order_views (
+    order_id BIGINT PRIMARY KEY,
+    order_number VARCHAR(50),
+    user_id BIGINT NOT NULL,
+    restaurant_id BIGINT NOT NULL,
+    restaurant_owner_id BIGINT,
+    restaurant_name VARCHAR(100),
+    delivery_partner_id BIGINT,
+    status VARCHAR(50),
+    item_count INTEGER,
+    final_amount DECIMAL(10,2),
+    change_seq BIGINT,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    document TEXT
+);
+
+-- Archived orders (finished orders moved out of the hot tables, document is gzip-compressed JSON)
+CREATE TABLE IF NOT EXISTS archived_orders (
+    order_id BIGINT PRIMARY KEY,
+    order_number VARCHAR(50),
+    user_id BIGINT NOT NULL,
+    restaurant_id BIGINT NOT NULL,
+    restaurant_owner_id BIGINT,
+    restaurant_name VARCHAR(100),
+    delivery_partner_id BIGINT,
+    status VARCHAR(50),
+    item_count INTEGER,
+    final_amount DECIMAL(10,2),
+    created_at TIMESTAMP,
+    archived_at TIMESTAMP,
+    document BYTEA
+);
+
+-- Persisted carts (write-behind snapshots of the in-memory cart store)
+CREATE TABLE IF NOT EXISTS user_carts (
+    user_id BIGINT PRIMARY KEY,
+    payload TEXT,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
 -- Delivery earnings table
 CREATE TABLE IF NOT EXISTS delivery_earnings (
     id BIGSERIAL PRIMARY KEY,
@@ -202,7 +252,25 @@ CREATE TABLE IF NOT EXISTS delivery_earnings (
     distance_km DECIMAL(5,2),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (delivery_partner_id) REFERENCES delivery_partners(id),
-    FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
+    -- No foreign key to orders: earned orders are archived out of the orders table
+    CONSTRAINT uk_delivery_earnings_order UNIQUE (order_id)
+);
+
+-- Earnings rolled up per partner per day and per week (maintained by the earnings job)
+CREATE TABLE IF NOT EXISTS delivery_earning_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    delivery_partner_id BIGINT NOT NULL,
+    period_type VARCHAR(10) NOT NULL,
+    period_start DATE NOT NULL,
+    deliveries INTEGER DEFAULT 0,
+    distance_km DECIMAL(10,2) DEFAULT 0.00,
+    base_amount DECIMAL(12,2) DEFAULT 0.00,
+    distance_amount DECIMAL(12,2) DEFAULT 0.00,
+    incentive_amount DECIMAL(12,2) DEFAULT 0.00,
+    total_amount DECIMAL(12,2) DEFAULT 0.00,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (delivery_partner_id) REFERENCES delivery_partners(id),
+    CONSTRAINT uk_earning_rollups_partner_period UNIQUE (delivery_partner_id, period_type, period_start)
 );
 
 -- User subscriptions table
@@ -229,10 +297,18 @@ CREATE INDEX IF NOT EXISTS idx_menu_items_restaurant ON menu_items(restaurant_id
 CREATE INDEX IF NOT EXISTS idx_menu_items_available ON menu_items(is_available);
 CREATE INDEX IF NOT EXISTS idx_orders_user ON orders(user_id);
 CREATE INDEX IF NOT EXISTS idx_orders_restaurant ON orders(restaurant_id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders(status, created_at);
 CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
 CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
+CREATE INDEX IF NOT EXISTS idx_order_views_user ON order_views(user_id, order_id);
+CREATE INDEX IF NOT EXISTS idx_archived_orders_user ON archived_orders(user_id, order_id);
+CREATE INDEX IF NOT EXISTS idx_archived_orders_restaurant ON archived_orders(restaurant_id, order_id);
+CREATE INDEX IF NOT EXISTS idx_order_views_restaurant_status ON order_views(restaurant_id, status);
+CREATE INDEX IF NOT EXISTS idx_order_views_restaurant_change_seq ON order_views(restaurant_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_order_views_partner_status ON order_views(delivery_partner_id, status);
 CREATE INDEX IF NOT EXISTS idx_reviews_restaurant ON reviews(restaurant_id);
 CREATE INDEX IF NOT EXISTS idx_reviews_menu_item ON reviews(menu_item_id);
+CREATE INDEX IF NOT EXISTS idx_reviews_restaurant_id ON reviews(restaurant_id, id);
 CREATE INDEX IF NOT EXISTS idx_delivery_partners_status ON delivery_partners(status);
 CREATE INDEX IF NOT EXISTS idx_addresses_user ON addresses(user_id);
 
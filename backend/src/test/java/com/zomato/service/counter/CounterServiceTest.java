@@ -0,0 +1,181 @@
+package com.zomato.service.counter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CounterServiceTest {
+
+    private static final Long PARTNER = 7L;
+
+    private CounterService counterService;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    // Partner id to units written by each flush, in order
+    private final List<Map<Long, BigDecimal>> writes = new ArrayList<>();
+    private final List<TransactionStatus> recounts = new ArrayList<>();
+    private boolean failWrites;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        counterService = new CounterService();
+        ReflectionTestUtils.setField(counterService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(counterService, "transactionTemplate", transactionTemplate);
+
+        when(jdbcTemplate.queryForObject(anyString(), eq(BigDecimal.class), eq(PARTNER))).thenReturn(BigDecimal.TEN);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            if (!invocation.<String>getArgument(0).contains("total_deliveries")) {
+                return new int[][]{};
+            }
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            Map<Long, BigDecimal> written = new HashMap<>();
+            for (Object delta : invocation.<Collection<Object>>getArgument(1)) {
+                Map<Integer, Object> values = new HashMap<>();
+                PreparedStatement statement = mock(PreparedStatement.class, call -> {
+                    values.put(call.getArgument(0), call.getArgument(1));
+                    return null;
+                });
+                setter.setValues(statement, delta);
+                written.put((Long) values.get(2), (BigDecimal) values.get(1));
+            }
+            writes.add(written);
+            return new int[][]{};
+        });
+        doAnswer(invocation -> {
+            if (failWrites) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionStatus status = new SimpleTransactionStatus();
+            recounts.add(status);
+            return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(status);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void pendingDeltasAreReadAndThenFlushed() {
+        counterService.add(Counter.PARTNER_DELIVERIES, PARTNER, 2);
+        counterService.add(Counter.PARTNER_DELIVERIES, PARTNER, 3);
+        assertEquals(15, counterService.get(Counter.PARTNER_DELIVERIES, PARTNER));
+
+        counterService.flush();
+        assertEquals(List.of(Map.of(PARTNER, new BigDecimal("5"))), writes);
+        assertEquals(10, counterService.get(Counter.PARTNER_DELIVERIES, PARTNER));
+    }
+
+    @Test
+    void deltasInATransactionCountOnlyOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        counterService.add(Counter.PARTNER_DELIVERIES, PARTNER, 3);
+        assertEquals(10, counterService.get(Counter.PARTNER_DELIVERIES, PARTNER));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(13, counterService.get(Counter.PARTNER_DELIVERIES, PARTNER));
+    }
+
+    @Test
+    void rolledBackDeltasAreNeverCounted() {
+        TransactionSynchronizationManager.initSynchronization();
+        counterService.add(Counter.PARTNER_DELIVERIES, PARTNER, 3);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(10, counterService.get(Counter.PARTNER_DELIVERIES, PARTNER));
+    }
+
+    @Test
+    void failedFlushPutsDeltasBack() {
+        counterService.add(Counter.PARTNER_DELIVERIES, PARTNER, 2);
+        failWrites = true;
+        assertThrows(IllegalStateException.class, counterService::flush);
+        assertEquals(12, counterService.get(Counter.PARTNER_DELIVERIES, PARTNER));
+
+        failWrites = false;
+        counterService.add(Counter.PARTNER_DELIVERIES, PARTNER, 1);
+        counterService.flush();
+        assertEquals(List.of(Map.of(PARTNER, new BigDecimal("3"))), writes);
+    }
+
+    @Test
+    void reconcileFlushesFirstAndRecountsOnce() {
+        counterService.add(Counter.PARTNER_DELIVERIES, PARTNER, 4);
+        counterService.reconcile();
+
+        assertEquals(List.of(Map.of(PARTNER, new BigDecimal("4"))), writes);
+        assertEquals(1, recounts.size());
+        assertFalse(recounts.get(0).isRollbackOnly());
+    }
+
+    @Test
+    void reconcileRollsBackRecountsOverlappingACommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        counterService.add(Counter.PARTNER_DELIVERIES, PARTNER, 1);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+
+        // The committing transaction's rows may be in the recount while its delta is still to come
+        assertThrows(RuntimeException.class, counterService::reconcile);
+        assertTrue(recounts.stream().allMatch(TransactionStatus::isRollbackOnly));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        recounts.clear();
+        counterService.reconcile();
+        assertEquals(1, recounts.size());
+        assertFalse(recounts.get(0).isRollbackOnly());
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.zomato.service.delivery;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One dispatch tick for a single city: orders and partners spread over a 25 x 25 km area.
+// 10000 orders exercises the greedy path, 50 the exact Hungarian path.
+// Run with:
+//   mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main DispatchPlannerBenchmark
+// Orders per second is orders / (score in ms) * 1000.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchPlannerBenchmark {
+
+    private static final double CITY_LATITUDE = 12.97;
+    private static final double CITY_LONGITUDE = 77.59;
+    private static final double CITY_SPAN_DEGREES = 0.225;
+
+    @Param({"50", "10000"})
+    private int orders;
+
+    // Partners online per order waiting
+    @Param({"0.8", "1.5"})
+    private double partnerRatio;
+
+    private DispatchPlanner planner;
+    private List<DispatchPlanner.Job> jobs;
+    private long freshAfter;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        PartnerLocationIndex index = new PartnerLocationIndex();
+        ReflectionTestUtils.setField(index, "cellDegrees", 0.01);
+
+        long now = System.currentTimeMillis();
+        int partners = (int) (orders * partnerRatio);
+        for (long id = 1; id <= partners; id++) {
+            index.update(id, CITY_LATITUDE + random.nextDouble() * CITY_SPAN_DEGREES,
+                    CITY_LONGITUDE + random.nextDouble() * CITY_SPAN_DEGREES, now);
+            index.setAvailable(id, true);
+        }
+
+        // Restaurants cluster, so many orders share a pickup point
+        int restaurants = Math.max(1, orders / 20);
+        double[][] pickups = new double[restaurants][];
+        for (int i = 0; i < restaurants; i++) {
+            pickups[i] = new double[]{CITY_LATITUDE + random.nextDouble() * CITY_SPAN_DEGREES,
+                    CITY_LONGITUDE + random.nextDouble() * CITY_SPAN_DEGREES};
+        }
+        jobs = new ArrayList<>(orders);
+        for (long id = 1; id <= orders; id++) {
+            double[] pickup = pickups[random.nextInt(restaurants)];
+            jobs.add(new DispatchPlanner.Job(id, pickup[0], pickup[1], random.nextInt(3) == 0 ? 0 : random.nextDouble() * 10));
+        }
+
+        planner = new DispatchPlanner(index, 8, 8, 60, 3, 2, 3);
+        freshAfter = now - 120_000;
+    }
+
+    @Benchmark
+    public List<DispatchPlanner.Assignment> planTick() {
+        return planner.plan(jobs, freshAfter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DispatchPlannerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,131 @@
+package com.zomato.service.delivery;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DispatchPlannerTest {
+
+    private static final double CITY_LATITUDE = 12.97;
+    private static final double CITY_LONGITUDE = 77.59;
+    private static final double MINUTES_PER_KM = 3;
+    private static final double UNASSIGNED = 1e9;
+
+    @Test
+    void exactPlanMatchesBruteForce() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int orders = 1 + random.nextInt(5);
+            int partners = 1 + random.nextInt(6);
+            Instance instance = instance(random, orders, partners);
+            DispatchPlanner planner = new DispatchPlanner(instance.index, 50, partners, 10, MINUTES_PER_KM, 2, 3);
+
+            List<DispatchPlanner.Assignment> plan = planner.plan(instance.jobs, 0);
+
+            assertValid(plan, orders);
+            assertEquals(bruteForce(planner, instance), total(planner, instance, plan), 1e-6,
+                    "round " + round + ": " + orders + " orders, " + partners + " partners");
+        }
+    }
+
+    @Test
+    void greedyPlanIsValidAndNeverBeatsOptimum() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int orders = 1 + random.nextInt(5);
+            int partners = 1 + random.nextInt(6);
+            Instance instance = instance(random, orders, partners);
+            DispatchPlanner planner = new DispatchPlanner(instance.index, 50, partners, 0, MINUTES_PER_KM, 2, 3);
+
+            List<DispatchPlanner.Assignment> plan = planner.plan(instance.jobs, 0);
+
+            assertValid(plan, orders);
+            assertTrue(total(planner, instance, plan) >= bruteForce(planner, instance) - 1e-6);
+        }
+    }
+
+    private record Instance(PartnerLocationIndex index, List<DispatchPlanner.Job> jobs, List<Long> partnerIds,
+                            Map<Long, Map<Long, Double>> distances) {
+    }
+
+    private static Instance instance(Random random, int orders, int partners) {
+        PartnerLocationIndex index = new PartnerLocationIndex();
+        ReflectionTestUtils.setField(index, "cellDegrees", 0.01);
+        long now = System.currentTimeMillis();
+        List<Long> partnerIds = new ArrayList<>();
+        for (long id = 1; id <= partners; id++) {
+            index.update(id, CITY_LATITUDE + random.nextDouble() * 0.05, CITY_LONGITUDE + random.nextDouble() * 0.05,
+                    now);
+            index.setAvailable(id, true);
+            partnerIds.add(id);
+        }
+        List<DispatchPlanner.Job> jobs = new ArrayList<>();
+        Map<Long, Map<Long, Double>> distances = new HashMap<>();
+        for (long id = 1; id <= orders; id++) {
+            DispatchPlanner.Job job = new DispatchPlanner.Job(id, CITY_LATITUDE + random.nextDouble() * 0.05,
+                    CITY_LONGITUDE + random.nextDouble() * 0.05, random.nextDouble() * 15);
+            jobs.add(job);
+            Map<Long, Double> row = new HashMap<>();
+            for (PartnerLocationIndex.Match match : index.nearest(job.latitude(), job.longitude(), 50, partners, 0,
+                    true)) {
+                row.put(match.location().getPartnerId(), match.distanceKm());
+            }
+            distances.put(id, row);
+        }
+        return new Instance(index, jobs, partnerIds, distances);
+    }
+
+    // Every way of giving each order a distinct partner or none, scored as the planner does: as many orders
+    // assigned as possible, then the lowest total cost
+    private static double bruteForce(DispatchPlanner planner, Instance instance) {
+        return bruteForce(planner, instance, 0, new HashSet<>());
+    }
+
+    private static double bruteForce(DispatchPlanner planner, Instance instance, int job, Set<Long> taken) {
+        if (job == instance.jobs.size()) {
+            return 0;
+        }
+        DispatchPlanner.Job current = instance.jobs.get(job);
+        double best = UNASSIGNED + bruteForce(planner, instance, job + 1, taken);
+        for (Long partnerId : instance.partnerIds) {
+            Double distance = instance.distances.get(current.orderId()).get(partnerId);
+            if (distance == null || !taken.add(partnerId)) {
+                continue;
+            }
+            double cost = planner.cost(distance * MINUTES_PER_KM, current.readyInMinutes());
+            best = Math.min(best, cost + bruteForce(planner, instance, job + 1, taken));
+            taken.remove(partnerId);
+        }
+        return best;
+    }
+
+    private static double total(DispatchPlanner planner, Instance instance, List<DispatchPlanner.Assignment> plan) {
+        Map<Long, DispatchPlanner.Job> jobs = new HashMap<>();
+        instance.jobs.forEach(job -> jobs.put(job.orderId(), job));
+        double total = (instance.jobs.size() - plan.size()) * UNASSIGNED;
+        for (DispatchPlanner.Assignment assignment : plan) {
+            total += planner.cost(assignment.pickupMinutes(), jobs.get(assignment.orderId()).readyInMinutes());
+        }
+        return total;
+    }
+
+    private static void assertValid(List<DispatchPlanner.Assignment> plan, int orders) {
+        Set<Long> orderIds = new HashSet<>();
+        Set<Long> partnerIds = new HashSet<>();
+        for (DispatchPlanner.Assignment assignment : plan) {
+            assertTrue(orderIds.add(assignment.orderId()), "order assigned twice");
+            assertTrue(partnerIds.add(assignment.partnerId()), "partner assigned twice");
+        }
+        assertTrue(plan.size() <= orders);
+    }
+}
@@ -0,0 +1,132 @@
+package com.zomato.service.delivery;
+
+import com.zomato.dto.TrackPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocationHistoryStoreTest {
+
+    private static final long DAY_START = 1_700_006_400_000L; // 2023-11-15T00:00:00Z
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void blocksRoundTripSortedByTime() {
+        byte[] block = LocationHistoryStore.encodeBlock(new long[]{DAY_START + 2000, DAY_START, DAY_START + 1000},
+                new int[]{129_700_300, 129_700_100, 129_700_200}, new int[]{775_900_300, 775_900_100, 775_900_200}, 3);
+
+        List<TrackPoint> points = decode(block);
+
+        assertEquals(3, points.size());
+        assertEquals(List.of(DAY_START, DAY_START + 1000, DAY_START + 2000),
+                points.stream().map(TrackPoint::getRecordedAt).toList());
+        assertEquals(12.97001, points.get(0).getLatitude(), 1e-9);
+        assertEquals(77.59003, points.get(2).getLongitude(), 1e-9);
+    }
+
+    @Test
+    void tornTailKeepsEarlierBlocks() {
+        byte[] first = block(DAY_START, 5);
+        byte[] second = block(DAY_START + 10_000, 5);
+        for (int cut = 1; cut < second.length; cut++) {
+            byte[] segment = concat(first, Arrays.copyOf(second, cut));
+
+            assertEquals(5, decode(segment).size());
+            assertEquals(first.length, LocationHistoryStore.validLength(ByteBuffer.wrap(segment)));
+        }
+    }
+
+    @Test
+    void corruptBlockStopsReadingWithoutThrowing() {
+        byte[] first = block(DAY_START, 4);
+        byte[] second = block(DAY_START + 10_000, 4);
+        byte[] segment = concat(first, second, block(DAY_START + 20_000, 4));
+        segment[first.length + second.length / 2] ^= 0x55;
+
+        assertEquals(4, decode(segment).size());
+        assertEquals(first.length, LocationHistoryStore.validLength(ByteBuffer.wrap(segment)));
+    }
+
+    @Test
+    void garbageNeverThrows() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            byte[] garbage = new byte[random.nextInt(64)];
+            random.nextBytes(garbage);
+            assertDoesNotThrow(() -> decode(garbage));
+            assertDoesNotThrow(() -> LocationHistoryStore.validLength(ByteBuffer.wrap(garbage)));
+        }
+    }
+
+    @Test
+    void firstAppendAfterRestartCutsTornTail() throws Exception {
+        LocationHistoryStore store = store();
+        store.append(7, 12.97, 77.59, DAY_START);
+        store.append(7, 12.971, 77.591, DAY_START + 1000);
+        store.flush();
+        Path segment;
+        try (Stream<Path> files = Files.walk(directory)) {
+            segment = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+        }
+        // A crash mid-append leaves half a block behind
+        byte[] torn = block(DAY_START + 2000, 3);
+        Files.write(segment, Arrays.copyOf(torn, torn.length / 2), StandardOpenOption.APPEND);
+
+        LocationHistoryStore restarted = store();
+        assertEquals(2, restarted.read(7, DAY_START, DAY_START + 60_000).size());
+        restarted.append(7, 12.972, 77.592, DAY_START + 3000);
+        restarted.flush();
+
+        assertEquals(List.of(DAY_START, DAY_START + 1000, DAY_START + 3000),
+                restarted.read(7, DAY_START, DAY_START + 60_000).stream().map(TrackPoint::getRecordedAt).toList());
+    }
+
+    private LocationHistoryStore store() {
+        LocationHistoryStore store = new LocationHistoryStore();
+        ReflectionTestUtils.setField(store, "directory", directory.toString());
+        ReflectionTestUtils.setField(store, "retentionDays", 90);
+        return store;
+    }
+
+    private static byte[] block(long start, int count) {
+        long[] times = new long[count];
+        int[] latitudes = new int[count];
+        int[] longitudes = new int[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = start + i * 1000L;
+            latitudes[i] = 129_700_000 + i * 50;
+            longitudes[i] = 775_900_000 - i * 50;
+        }
+        return LocationHistoryStore.encodeBlock(times, latitudes, longitudes, count);
+    }
+
+    private static List<TrackPoint> decode(byte[] segment) {
+        List<TrackPoint> points = new ArrayList<>();
+        LocationHistoryStore.decodeSegment(ByteBuffer.wrap(segment), Long.MIN_VALUE, Long.MAX_VALUE, points);
+        return points;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,39 @@
+package com.zomato.service.eta;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EwmaTest {
+
+    @Test
+    void firstSampleIsTakenAsIs() {
+        Ewma ewma = new Ewma(0.1);
+        assertEquals(0, ewma.get());
+        ewma.update(12);
+        assertEquals(12, ewma.get());
+        assertEquals(1, ewma.getCount());
+    }
+
+    @Test
+    void laterSamplesMoveByAlpha() {
+        Ewma ewma = new Ewma(0.25);
+        ewma.update(10);
+        ewma.update(20);
+        assertEquals(12.5, ewma.get(), 1e-12);
+        ewma.update(20);
+        assertEquals(14.375, ewma.get(), 1e-12);
+        assertEquals(3, ewma.getCount());
+    }
+
+    @Test
+    void stepChangeDecaysGeometrically() {
+        double alpha = 0.1;
+        Ewma ewma = new Ewma(alpha);
+        ewma.update(10);
+        for (int i = 1; i <= 30; i++) {
+            ewma.update(20);
+            assertEquals(20 - 10 * Math.pow(1 - alpha, i), ewma.get(), 1e-9);
+        }
+    }
+}
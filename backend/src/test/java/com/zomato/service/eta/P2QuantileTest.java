@@ -0,0 +1,81 @@
+package com.zomato.service.eta;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class P2QuantileTest {
+
+    @Test
+    void emptyEstimateIsZero() {
+        P2Quantile quantile = new P2Quantile(0.9);
+        assertEquals(0, quantile.get());
+        assertEquals(0, quantile.getCount());
+    }
+
+    @Test
+    void fewerThanFiveSamplesUseTheNearestRank() {
+        P2Quantile median = new P2Quantile(0.5);
+        median.add(30);
+        assertEquals(30, median.get());
+        median.add(10);
+        median.add(20);
+        assertEquals(20, median.get());
+        median.add(40);
+        // Rank round(0.5 * 3) = 2 of 10, 20, 30, 40
+        assertEquals(30, median.get());
+
+        P2Quantile high = new P2Quantile(0.9);
+        for (double x : new double[]{5, 1, 4, 2}) {
+            high.add(x);
+        }
+        // Rank round(0.9 * 3) = 3 of 1, 2, 4, 5
+        assertEquals(5, high.get());
+        assertEquals(4, high.getCount());
+    }
+
+    @Test
+    void fifthSampleSwitchesToTheMiddleMarker() {
+        P2Quantile median = new P2Quantile(0.5);
+        for (double x : new double[]{9, 3, 7, 1, 5}) {
+            median.add(x);
+        }
+        assertEquals(5, median.get());
+    }
+
+    @Test
+    void tracksExactQuantilesOfSeededSamples() {
+        Random random = new Random(42);
+        assertClose(0.5, random::nextDouble);
+        assertClose(0.9, random::nextDouble);
+        assertClose(0.5, random::nextGaussian);
+        assertClose(0.9, random::nextGaussian);
+        // Skewed like preparation overruns
+        assertClose(0.5, () -> -Math.log(1 - random.nextDouble()));
+        assertClose(0.9, () -> -Math.log(1 - random.nextDouble()));
+    }
+
+    private static void assertClose(double p, DoubleSupplier source) {
+        int n = 20_000;
+        double[] samples = new double[n];
+        P2Quantile quantile = new P2Quantile(p);
+        for (int i = 0; i < n; i++) {
+            samples[i] = source.getAsDouble();
+            quantile.add(samples[i]);
+        }
+        Arrays.sort(samples);
+        double exact = samples[(int) Math.round(p * (n - 1))];
+        // Within one percentile of the exact answer
+        double low = samples[(int) Math.round((p - 0.01) * (n - 1))];
+        double high = samples[(int) Math.round((p + 0.01) * (n - 1))];
+        double estimate = quantile.get();
+        assertTrue(estimate >= low && estimate <= high,
+                "p" + p + " estimate " + estimate + " vs exact " + exact + " [" + low + ", " + high + "]");
+        assertEquals(n, quantile.getCount());
+    }
+}
@@ -0,0 +1,102 @@
+package com.zomato.service.geo;
+
+import com.zomato.util.Geo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Ranking every restaurant in a city against one delivery address, as the nearby search does per request.
+// Addresses are drawn from a fixed pool, so repeat customers can hit the cell-pair cache.
+// Run with:
+//   mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main DistanceServiceBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceServiceBenchmark {
+
+    private static final double CITY_LATITUDE = 12.97;
+    private static final double CITY_LONGITUDE = 77.59;
+    private static final double CITY_SPAN_DEGREES = 0.225;
+
+    @Param({"500", "5000"})
+    private int restaurants;
+
+    @Param({"2000"})
+    private int addresses;
+
+    private DistanceService distanceService;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] addressLatitudes;
+    private double[] addressLongitudes;
+    private double[] out;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        distanceService = new DistanceService();
+        ReflectionTestUtils.setField(distanceService, "mode", "haversine");
+        ReflectionTestUtils.setField(distanceService, "cellDegrees", 0.001);
+        ReflectionTestUtils.setField(distanceService, "cacheSize", 1 << 20);
+        distanceService.init();
+
+        latitudes = new double[restaurants];
+        longitudes = new double[restaurants];
+        for (int i = 0; i < restaurants; i++) {
+            latitudes[i] = CITY_LATITUDE + random.nextDouble() * CITY_SPAN_DEGREES;
+            longitudes[i] = CITY_LONGITUDE + random.nextDouble() * CITY_SPAN_DEGREES;
+        }
+        addressLatitudes = new double[addresses];
+        addressLongitudes = new double[addresses];
+        for (int i = 0; i < addresses; i++) {
+            addressLatitudes[i] = CITY_LATITUDE + random.nextDouble() * CITY_SPAN_DEGREES;
+            addressLongitudes[i] = CITY_LONGITUDE + random.nextDouble() * CITY_SPAN_DEGREES;
+        }
+        out = new double[restaurants];
+    }
+
+    @Benchmark
+    public double[] batch() {
+        int address = next++ % addresses;
+        distanceService.distancesKm(addressLatitudes[address], addressLongitudes[address], latitudes, longitudes,
+                restaurants, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] cachedEachPair() {
+        int address = next++ % addresses;
+        for (int i = 0; i < restaurants; i++) {
+            out[i] = distanceService.distanceKm(addressLatitudes[address], addressLongitudes[address], latitudes[i],
+                    longitudes[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] haversineEachPair() {
+        int address = next++ % addresses;
+        for (int i = 0; i < restaurants; i++) {
+            out[i] = Geo.distanceKm(addressLatitudes[address], addressLongitudes[address], latitudes[i], longitudes[i]);
+        }
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DistanceServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
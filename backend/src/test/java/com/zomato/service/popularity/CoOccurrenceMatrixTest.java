@@ -0,0 +1,104 @@
+package com.zomato.service.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CoOccurrenceMatrixTest {
+
+    private record Neighbour(long itemId, float score) {
+    }
+
+    @Test
+    void growingKeepsEveryPairAndRanksNeighbours() {
+        Random random = new Random(42);
+        int dishes = 300;
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        Map<Long, Integer> orders = new HashMap<>();
+        Map<Long, Map<Long, Integer>> together = new HashMap<>();
+        for (int order = 0; order < 5000; order++) {
+            Set<Long> items = new LinkedHashSet<>();
+            int size = 1 + random.nextInt(6);
+            while (items.size() < size) {
+                // Low ids are popular, so counts and scores spread out
+                items.add((long) (Math.pow(random.nextDouble(), 2) * dishes) + 1);
+            }
+            long[] ids = items.stream().mapToLong(Long::longValue).toArray();
+            matrix.addOrder(ids, 20);
+            for (long a : ids) {
+                orders.merge(a, 1, Integer::sum);
+                for (long b : ids) {
+                    if (a != b) {
+                        together.computeIfAbsent(a, k -> new HashMap<>()).merge(b, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        // One diagonal entry per dish plus each unordered pair, which the rows hold twice
+        int offDiagonal = 0;
+        for (Map<Long, Integer> row : together.values()) {
+            offDiagonal += row.size();
+        }
+        assertEquals(orders.size() + offDiagonal / 2, matrix.pairs());
+
+        long[] menu = new long[dishes];
+        for (int i = 0; i < dishes; i++) {
+            menu[i] = i + 1;
+        }
+        int k = 5;
+        int minTogether = 2;
+        CoOccurrenceMatrix.Neighbours[] neighbours = matrix.neighbours(menu, k, minTogether);
+        for (int i = 0; i < dishes; i++) {
+            long item = menu[i];
+            List<Neighbour> expected = new ArrayList<>();
+            together.getOrDefault(item, Map.of()).forEach((other, count) -> {
+                if (count >= minTogether) {
+                    expected.add(new Neighbour(other,
+                            (float) (count / Math.sqrt((double) orders.get(item) * orders.get(other)))));
+                }
+            });
+            expected.sort(Comparator.comparing(Neighbour::score).thenComparing(Neighbour::itemId).reversed());
+            if (expected.isEmpty()) {
+                assertNull(neighbours[i]);
+                continue;
+            }
+            List<Neighbour> top = expected.subList(0, Math.min(k, expected.size()));
+            assertArrayEquals(top.stream().mapToLong(Neighbour::itemId).toArray(), neighbours[i].itemIds(),
+                    "neighbours of " + item);
+            for (int j = 0; j < top.size(); j++) {
+                assertEquals(top.get(j).score(), neighbours[i].scores()[j]);
+            }
+        }
+    }
+
+    @Test
+    void dishesOffTheMenuAreLeftOut() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        matrix.addOrder(new long[]{1, 2, 3}, 10);
+        matrix.addOrder(new long[]{1, 2}, 10);
+
+        CoOccurrenceMatrix.Neighbours[] neighbours = matrix.neighbours(new long[]{1, 3}, 5, 1);
+        assertArrayEquals(new long[]{3}, neighbours[0].itemIds());
+        assertArrayEquals(new long[]{1}, neighbours[1].itemIds());
+    }
+
+    @Test
+    void itemsBeyondTheCapAreIgnored() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        matrix.addOrder(new long[]{1, 2, 3, 4}, 2);
+        // Dishes 1 and 2, and their pair
+        assertEquals(3, matrix.pairs());
+    }
+}
@@ -0,0 +1,103 @@
+package com.zomato.service.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingItemCountsTest {
+
+    @Test
+    void expiredDaysLeaveTheWindow() {
+        RollingItemCounts counts = new RollingItemCounts(3);
+        counts.add(1, 10, 5);
+        counts.add(2, 11, 3);
+        counts.add(2, 12, 3);
+        assertArrayEquals(new long[]{2, 1}, counts.top(10, 1));
+
+        counts.advanceTo(13);
+        assertArrayEquals(new long[]{2}, counts.top(10, 1));
+        assertEquals(1, counts.size());
+
+        counts.advanceTo(20);
+        assertArrayEquals(new long[0], counts.top(10, 1));
+        assertEquals(0, counts.size());
+    }
+
+    @Test
+    void ordersOutsideTheWindowAreIgnored() {
+        RollingItemCounts counts = new RollingItemCounts(3);
+        counts.add(1, 10, 1);
+        counts.add(2, 7, 100);
+        assertArrayEquals(new long[]{1}, counts.top(10, 1));
+    }
+
+    @Test
+    void topIsOrderedAndHonoursMinimum() {
+        RollingItemCounts counts = new RollingItemCounts(7);
+        for (long item = 1; item <= 50; item++) {
+            counts.add(item, 100, (int) item);
+        }
+        assertArrayEquals(new long[]{50, 49, 48}, counts.top(3, 1));
+        assertEquals(11, counts.top(100, 40).length);
+    }
+
+    @Test
+    void matchesNaiveCountsThroughGrowthAndExpiry() {
+        Random random = new Random(42);
+        int days = 7;
+        RollingItemCounts counts = new RollingItemCounts(days);
+        Map<Long, Map<Long, Integer>> naive = new HashMap<>();
+        long today = 1000;
+        for (int step = 0; step < 60; step++) {
+            today += random.nextInt(3);
+            // Busy days add many new items, forcing growth; quiet ones let items expire and the table shrink
+            int orders = step % 10 < 5 ? 2000 : 20;
+            int itemRange = 500 + step * 100;
+            for (int i = 0; i < orders; i++) {
+                long item = 1 + random.nextInt(itemRange);
+                long day = today - random.nextInt(2);
+                int count = 1 + random.nextInt(3);
+                counts.add(item, day, count);
+                if (day > today - days) {
+                    naive.computeIfAbsent(item, k -> new HashMap<>()).merge(day, count, Integer::sum);
+                }
+            }
+            assertMatches(naive, today, days, counts);
+        }
+    }
+
+    private static void assertMatches(Map<Long, Map<Long, Integer>> naive, long today, int days,
+                                      RollingItemCounts counts) {
+        Map<Long, Integer> expected = new HashMap<>();
+        naive.forEach((item, byDay) -> {
+            int total = 0;
+            for (Map.Entry<Long, Integer> entry : byDay.entrySet()) {
+                if (entry.getKey() > today - days) {
+                    total += entry.getValue();
+                }
+            }
+            if (total > 0) {
+                expected.put(item, total);
+            }
+        });
+
+        long[] all = counts.top(Integer.MAX_VALUE, 1);
+        assertEquals(expected.size(), all.length);
+        Set<Long> seen = new HashSet<>();
+        int previous = Integer.MAX_VALUE;
+        for (long item : all) {
+            assertTrue(seen.add(item));
+            int count = expected.getOrDefault(item, 0);
+            assertTrue(count > 0 && count <= previous, "item " + item + " out of order");
+            previous = count;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.zomato.service.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrendingWindowTest {
+
+    @Test
+    void bucketsLeavingTheWindowAreDropped() {
+        TrendingWindow window = new TrendingWindow(4, 4, 1024, 16);
+        window.add(1, 100, 5);
+        window.add(2, 102, 3);
+        assertEquals(List.of(new TrendingWindow.Entry(1, 5), new TrendingWindow.Entry(2, 3)), window.top(10));
+
+        window.advanceTo(104);
+        assertEquals(List.of(new TrendingWindow.Entry(2, 3)), window.top(10));
+        assertFalse(window.isEmpty());
+
+        window.advanceTo(106);
+        assertEquals(List.of(), window.top(10));
+        assertTrue(window.isEmpty());
+    }
+
+    @Test
+    void ordersOlderThanTheWindowAreIgnored() {
+        TrendingWindow window = new TrendingWindow(4, 4, 1024, 16);
+        window.add(1, 100, 1);
+        window.add(2, 96, 50);
+        assertEquals(List.of(new TrendingWindow.Entry(1, 1)), window.top(10));
+    }
+
+    @Test
+    void topIsMostOrderedFirst() {
+        TrendingWindow window = new TrendingWindow(12, 4, 2048, 64);
+        for (long item = 1; item <= 30; item++) {
+            for (int order = 0; order < item; order++) {
+                window.add(item, 100 + order % 12, 1);
+            }
+        }
+        List<TrendingWindow.Entry> top = window.top(5);
+        assertEquals(List.of(30L, 29L, 28L, 27L, 26L), top.stream().map(TrendingWindow.Entry::itemId).toList());
+        assertEquals(30, top.get(0).orders());
+    }
+
+    @Test
+    void heavyNewItemDisplacesTheWeakestCandidate() {
+        TrendingWindow window = new TrendingWindow(4, 4, 1024, 3);
+        window.add(1, 100, 3);
+        window.add(2, 100, 2);
+        window.add(3, 100, 1);
+        window.add(4, 100, 10);
+        assertEquals(List.of(4L, 1L, 2L), window.top(3).stream().map(TrendingWindow.Entry::itemId).toList());
+    }
+
+    @Test
+    void freshWindowIsEmpty() {
+        assertTrue(new TrendingWindow(4, 4, 256, 8).isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.zomato.service.pricing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compares the old BigDecimal totals in placeOrder with the paise pricing chain.
+// Run with:
+//   mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main PricingEngineBenchmark -prof gc
+// and compare gc.alloc.rate.norm (bytes per order) between the two benchmarks.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingEngineBenchmark {
+
+    @Param({"3", "12"})
+    private int lines;
+
+    private BigDecimal[] prices;
+    private int[] quantities;
+    private BigDecimal deliveryFee;
+    private BigDecimal minimumOrder;
+    private PricingEngine engine;
+
+    @Setup
+    public void setup() {
+        prices = new BigDecimal[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            prices[i] = new BigDecimal("149.50").add(BigDecimal.valueOf(i * 37L, 2));
+            quantities[i] = 1 + i % 3;
+        }
+        deliveryFee = new BigDecimal("40.00");
+        minimumOrder = new BigDecimal("99.00");
+        engine = new PricingEngine(List.of(
+                new ItemsPricingComponent(),
+                new DiscountPricingComponent(),
+                new DeliveryFeePricingComponent(),
+                new TaxPricingComponent(1800)));
+    }
+
+    @Benchmark
+    public void bigDecimalTotals(Blackhole blackhole) {
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            BigDecimal lineTotal = prices[i].multiply(BigDecimal.valueOf(quantities[i]));
+            blackhole.consume(lineTotal);
+            totalPrice = totalPrice.add(lineTotal);
+        }
+        if (totalPrice.compareTo(minimumOrder) < 0) {
+            throw new IllegalStateException();
+        }
+        BigDecimal tax = totalPrice.multiply(BigDecimal.valueOf(0.18));
+        blackhole.consume(tax);
+        blackhole.consume(totalPrice.add(deliveryFee).add(tax));
+    }
+
+    @Benchmark
+    public void paisePricingChain(Blackhole blackhole) {
+        PricingContext context = new PricingContext(lines);
+        context.setMinimumOrder(Money.toPaise(minimumOrder));
+        context.setRestaurantDeliveryFee(Money.toPaise(deliveryFee));
+        for (int i = 0; i < lines; i++) {
+            context.addLine(Money.toPaise(prices[i]), quantities[i]);
+        }
+        engine.price(context);
+        for (int i = 0; i < lines; i++) {
+            blackhole.consume(context.getLineTotal(i));
+        }
+        blackhole.consume(context.getTax());
+        blackhole.consume(context.getFinalAmount());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PricingEngineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.zomato.service.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PricingEngineTest {
+
+    @Test
+    void toPaiseRoundsHalfUp() {
+        assertEquals(1001, Money.toPaise(new BigDecimal("10.005")));
+        assertEquals(1000, Money.toPaise(new BigDecimal("10.0049")));
+        assertEquals(1000, Money.toPaise(new BigDecimal("10")));
+        assertEquals(0, Money.toPaise(null));
+        assertEquals(new BigDecimal("10.01"), Money.toBigDecimal(1001));
+    }
+
+    @Test
+    void percentHalfUpRoundsExactHalvesUp() {
+        // 18% of 25 paise is exactly 4.5 paise
+        assertEquals(5, Money.percentHalfUp(25, 1800));
+        // 18% of 24 paise is 4.32 paise
+        assertEquals(4, Money.percentHalfUp(24, 1800));
+        assertEquals(0, Money.percentHalfUp(2, 1800));
+    }
+
+    @Test
+    void percentFloorNeverRoundsUp() {
+        // 20% of 398.99 is 79.798
+        assertEquals(7979, Money.percentFloor(39_899, 2000));
+        assertEquals(0, Money.percentFloor(4, 2000));
+    }
+
+    @Test
+    void componentsRunItemsDiscountDeliveryTax() {
+        // Shuffled, then sorted by @Order as Spring does when injecting the list
+        List<PricingComponent> components = new ArrayList<>(List.of(new TaxPricingComponent(1800),
+                new DeliveryFeePricingComponent(), new ItemsPricingComponent(), new DiscountPricingComponent()));
+        AnnotationAwareOrderComparator.sort(components);
+        assertEquals(List.of(ItemsPricingComponent.class, DiscountPricingComponent.class,
+                DeliveryFeePricingComponent.class, TaxPricingComponent.class),
+                components.stream().map(Object::getClass).toList());
+    }
+
+    @Test
+    void pricesAKnownBasket() {
+        PricingContext context = basket("FLAT20");
+        engine().price(context);
+
+        assertEquals(39_899, context.getItemsTotal());
+        assertEquals(7_979, context.getDiscount());
+        assertEquals(4_000, context.getDeliveryFee());
+        // 18% of the discounted 319.20, not of the delivery fee: 57.456 rounds to 57.46
+        assertEquals(5_746, context.getTax());
+        assertEquals(41_666, context.getFinalAmount());
+    }
+
+    @Test
+    void pricesWithoutACoupon() {
+        PricingContext context = basket(null);
+        engine().price(context);
+
+        assertEquals(0, context.getDiscount());
+        // 18% of 398.99 is 71.8182
+        assertEquals(7_182, context.getTax());
+        assertEquals(39_899 + 4_000 + 7_182, context.getFinalAmount());
+    }
+
+    @Test
+    void flatCouponNeedsItsMinimum() {
+        PricingContext context = basket("SAVE100");
+        assertThrows(RuntimeException.class, () -> engine().price(context));
+
+        PricingContext large = new PricingContext(1);
+        large.addLine(25_000, 2);
+        large.setCouponCode(" save100 ");
+        engine().price(large);
+        assertEquals(10_000, large.getDiscount());
+        assertEquals(Money.percentHalfUp(40_000, 1800), large.getTax());
+    }
+
+    @Test
+    void minimumOrderIsEnforced() {
+        PricingContext context = basket(null);
+        context.setMinimumOrder(40_000);
+        assertThrows(RuntimeException.class, () -> engine().price(context));
+    }
+
+    @Test
+    void unknownCouponIsRejected() {
+        assertThrows(RuntimeException.class, () -> engine().price(basket("NOPE")));
+    }
+
+    private static PricingContext basket(String couponCode) {
+        PricingContext context = new PricingContext(2);
+        context.addLine(14_950, 2);
+        context.addLine(9_999, 1);
+        context.setMinimumOrder(9_900);
+        context.setRestaurantDeliveryFee(4_000);
+        context.setCouponCode(couponCode);
+        return context;
+    }
+
+    private static PricingEngine engine() {
+        List<PricingComponent> components = new ArrayList<>(List.of(new ItemsPricingComponent(),
+                new DiscountPricingComponent(), new DeliveryFeePricingComponent(), new TaxPricingComponent(1800)));
+        AnnotationAwareOrderComparator.sort(components);
+        return new PricingEngine(components);
+    }
+}
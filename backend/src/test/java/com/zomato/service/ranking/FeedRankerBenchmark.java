@@ -0,0 +1,115 @@
+package com.zomato.service.ranking;
+
+import com.zomato.service.geo.DistanceService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One home feed request: distances from the user to every restaurant in a city, then scoring and ranking
+// them all against one user's taste vectors, as FeedService does before loading the page it returns.
+// Run with:
+//   mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main FeedRankerBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeedRankerBenchmark {
+
+    private static final double CITY_LATITUDE = 12.97;
+    private static final double CITY_LONGITUDE = 77.59;
+    private static final double CITY_SPAN_DEGREES = 0.225;
+    private static final int CUISINES = 40;
+    private static final int PRICE_TIERS = 4;
+
+    @Param({"500", "5000"})
+    private int restaurants;
+
+    @Param({"1000"})
+    private int users;
+
+    private DistanceService distanceService;
+    private RestaurantCatalog.Snapshot snapshot;
+    private FeedRanker.Weights weights;
+    private float[][] cuisineAffinities;
+    private float[][] priceAffinities;
+    private double[] userLatitudes;
+    private double[] userLongitudes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        distanceService = new DistanceService();
+        ReflectionTestUtils.setField(distanceService, "mode", "haversine");
+        ReflectionTestUtils.setField(distanceService, "cacheSize", 0);
+        ReflectionTestUtils.invokeMethod(distanceService, "init");
+
+        long[] ids = new long[restaurants];
+        double[] latitudes = new double[restaurants];
+        double[] longitudes = new double[restaurants];
+        int[] cuisineStart = new int[restaurants + 1];
+        int[] cuisines = new int[restaurants * 3];
+        byte[] priceTiers = new byte[restaurants];
+        float[] ratings = new float[restaurants];
+        short[] opensAt = new short[restaurants];
+        short[] closesAt = new short[restaurants];
+        boolean[] open = new boolean[restaurants];
+        for (int i = 0; i < restaurants; i++) {
+            ids[i] = i + 1;
+            latitudes[i] = CITY_LATITUDE + random.nextDouble() * CITY_SPAN_DEGREES;
+            longitudes[i] = CITY_LONGITUDE + random.nextDouble() * CITY_SPAN_DEGREES;
+            int listed = 1 + random.nextInt(3);
+            for (int c = 0; c < listed; c++) {
+                cuisines[cuisineStart[i] + c] = random.nextInt(CUISINES);
+            }
+            cuisineStart[i + 1] = cuisineStart[i] + listed;
+            priceTiers[i] = (byte) random.nextInt(PRICE_TIERS);
+            ratings[i] = random.nextFloat();
+            opensAt[i] = (short) (8 * 60 + random.nextInt(4 * 60));
+            closesAt[i] = (short) ((20 * 60 + random.nextInt(6 * 60)) % (24 * 60));
+            open[i] = random.nextInt(10) > 0;
+        }
+        snapshot = new RestaurantCatalog.Snapshot(ids, latitudes, longitudes, cuisineStart, cuisines, priceTiers,
+                ratings, opensAt, closesAt, open);
+        weights = new FeedRanker.Weights(1f, 0.5f, 1f, 1f, 4f, 3f);
+
+        cuisineAffinities = new float[users][CUISINES];
+        priceAffinities = new float[users][PRICE_TIERS];
+        userLatitudes = new double[users];
+        userLongitudes = new double[users];
+        for (int u = 0; u < users; u++) {
+            for (int c = 0; c < 6; c++) {
+                cuisineAffinities[u][random.nextInt(CUISINES)] = random.nextFloat() * 2 - 1;
+            }
+            priceAffinities[u][random.nextInt(PRICE_TIERS)] = 1;
+            userLatitudes[u] = CITY_LATITUDE + random.nextDouble() * CITY_SPAN_DEGREES;
+            userLongitudes[u] = CITY_LONGITUDE + random.nextDouble() * CITY_SPAN_DEGREES;
+        }
+    }
+
+    @Benchmark
+    public int[] rank() {
+        int user = next++ % users;
+        double[] distances = new double[restaurants];
+        distanceService.distancesKm(userLatitudes[user], userLongitudes[user], snapshot.latitudes,
+                snapshot.longitudes, restaurants, distances);
+        return FeedRanker.rank(snapshot, cuisineAffinities[user], priceAffinities[user], distances, 15, 13 * 60,
+                weights, 50, new float[restaurants]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FeedRankerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.zomato.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+    @Test
+    void neverUndercountsAndStaysWithinBound() {
+        Random random = new Random(42);
+        int width = 1024;
+        CountMinSketch sketch = new CountMinSketch(4, width);
+        Map<Long, Integer> exact = new HashMap<>();
+        long total = 0;
+        for (int i = 0; i < 200_000; i++) {
+            // Skewed like dish orders: a few keys take most of the volume
+            long key = (long) Math.pow(random.nextDouble(), 3) * 20_000 + 1;
+            sketch.add(key, 1);
+            exact.merge(key, 1, Integer::sum);
+            total++;
+        }
+
+        double bound = Math.E / width * total;
+        int within = 0;
+        for (Map.Entry<Long, Integer> entry : exact.entrySet()) {
+            int estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue());
+            if (estimate - entry.getValue() <= bound) {
+                within++;
+            }
+        }
+        // e^-4 is under 2%
+        assertTrue(within >= exact.size() * 0.98, within + " of " + exact.size() + " within bound");
+    }
+
+    @Test
+    void subtractingAMergedSketchRemovesItsCounts() {
+        CountMinSketch window = new CountMinSketch(4, 256);
+        CountMinSketch bucket = new CountMinSketch(4, 256);
+        window.add(1, 5);
+        bucket.add(2, 7);
+        window.merge(bucket, 1);
+        assertEquals(7, window.estimate(2));
+
+        window.merge(bucket, -1);
+        bucket.clear();
+        assertEquals(0, window.estimate(2));
+        assertEquals(5, window.estimate(1));
+        assertEquals(0, bucket.estimate(2));
+    }
+
+    @Test
+    void mergeRejectsOtherShapes() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new CountMinSketch(4, 512), 1));
+    }
+}
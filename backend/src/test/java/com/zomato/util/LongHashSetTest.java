@@ -0,0 +1,60 @@
+package com.zomato.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTest {
+
+    @Test
+    void growingKeepsEveryKey() {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(4) == 0 ? random.nextInt(1000) + 1 : random.nextLong();
+            if (key == 0) {
+                continue;
+            }
+            assertEquals(expected.add(key), set.add(key));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long key : expected) {
+            assertTrue(set.contains(key));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextLong();
+            assertEquals(expected.contains(key), set.contains(key));
+        }
+    }
+
+    @Test
+    void keysSharingLowBitsAllResolve() {
+        // Identical in the low 32 bits, so only the mixing keeps them from one probe run
+        LongHashSet set = new LongHashSet(4);
+        for (long high = 1; high <= 5000; high++) {
+            assertTrue(set.add(high << 32));
+        }
+        for (long high = 1; high <= 5000; high++) {
+            assertTrue(set.contains(high << 32));
+            assertFalse(set.add(high << 32));
+        }
+        assertFalse(set.contains(5001L << 32));
+        assertEquals(5000, set.size());
+    }
+
+    @Test
+    void zeroIsRejected() {
+        LongHashSet set = new LongHashSet();
+        assertThrows(IllegalArgumentException.class, () -> set.add(0));
+        assertFalse(set.contains(0));
+    }
+}